@@ -0,0 +1,65 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
+import br.com.cdb.agendadorDeConsultas.port.input.AsyncConsultaInputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// A thread do Tomcat é liberada enquanto o CompletableFuture não termina; o Spring MVC responde quando ele completar.
+@RestController
+@RequestMapping("/consultas/async")
+public class AsyncConsultaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConsultaController.class);
+
+    private final AsyncConsultaInputPort consultaInputPort;
+
+    private final ConsultaMapper consultaMapper;
+
+    public AsyncConsultaController(AsyncConsultaInputPort consultaInputPort, ConsultaMapper consultaMapper) {
+        this.consultaInputPort = consultaInputPort;
+        this.consultaMapper = consultaMapper;
+    }
+
+    @PostMapping("/{secretariaId}")
+    public CompletableFuture<ResponseEntity<ConsultaResponse>> create(@PathVariable UUID secretariaId, @RequestBody ConsultaRequest body) {
+        logger.info("Recebida requisição assíncrona para criar consulta para secretaria {}: {}", secretariaId, body);
+
+        return consultaInputPort.createConsulta(secretariaId, consultaMapper.toDomain(body))
+                .thenApply(consulta -> ResponseEntity.status(HttpStatus.CREATED).body(consultaMapper.toResponse(consulta)));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ConsultaDetails> getConsultaDetails(@PathVariable UUID id) {
+        logger.info("Recebida requisição assíncrona para buscar detalhes da consulta com ID: {}", id);
+
+        return consultaInputPort.getConsultaDetails(id).thenApply(consultaMapper::toDetails);
+    }
+
+    @PatchMapping("/{secretariaId}/{id}")
+    public CompletableFuture<ConsultaResponse> cancelledConsulta(@PathVariable UUID secretariaId, @PathVariable UUID id) {
+        logger.info("Recebida requisição assíncrona para cancelar consulta com ID: {} pela secretaria com ID: {}", id, secretariaId);
+
+        return consultaInputPort.canceledConsulta(secretariaId, id).thenApply(consultaMapper::toResponse);
+    }
+
+    @PostMapping("/{secretariaId}/{originalConsultaId}/retorno")
+    public CompletableFuture<ResponseEntity<ConsultaResponse>> createFollowUp(
+            @PathVariable UUID secretariaId,
+            @PathVariable UUID originalConsultaId) {
+        logger.info("Recebida requisição assíncrona para criar consulta de retorno baseada na consulta ID: {} pela secretaria ID: {}",
+                originalConsultaId, secretariaId);
+
+        return consultaInputPort.createFollowUpConsulta(secretariaId, originalConsultaId)
+                .thenApply(consulta -> ResponseEntity.status(HttpStatus.CREATED).body(consultaMapper.toResponse(consulta)));
+    }
+}
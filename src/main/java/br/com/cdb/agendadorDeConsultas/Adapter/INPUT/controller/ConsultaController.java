@@ -1,18 +1,45 @@
 package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
 
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaCursorMapper;
 import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaBatchItemResponse;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaPageResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaBatchResult;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.port.input.ConsultaImportInputPort;
 import br.com.cdb.agendadorDeConsultas.port.input.ConsultaInputPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,9 +55,21 @@ public class ConsultaController implements SwaggerConsultaController {
     @Autowired
     private ConsultaInputPort consultainputPort;
 
+    @Autowired
+    private ConsultaImportInputPort consultaImportInputPort;
+
     @Autowired
     private ConsultaMapper consultaMapper;
 
+    @Autowired
+    private ConsultaCursorMapper consultaCursorMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${agendador.exportacao.timeout:30m}")
+    private Duration exportTimeout;
+
 
 
 
@@ -45,19 +84,127 @@ public class ConsultaController implements SwaggerConsultaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(consultaMapper.toResponse(newConsulta));
     }
 
+    @PostMapping("/{secretariaId}/batch")
+    public ResponseEntity<List<ConsultaBatchItemResponse>> createBatch(@PathVariable UUID secretariaId, @RequestBody List<ConsultaRequest> body){
+        logger.info("Recebida requisição para criar lote de {} consultas para secretaria {}", body.size(), secretariaId);
+
+        List<Consulta> consultas = body.stream().map(consultaMapper::toDomain).collect(Collectors.toList());
+        List<ConsultaBatchResult> results = consultainputPort.createConsultas(secretariaId, consultas);
+
+        List<ConsultaBatchItemResponse> response = results.stream()
+                .map(result -> new ConsultaBatchItemResponse(
+                        result.index(),
+                        result.success(),
+                        result.success() ? consultaMapper.toResponse(result.consulta()) : null,
+                        result.error()))
+                .collect(Collectors.toList());
+
+        logger.debug("Lote processado para secretaria {}: {} de {} consultas criadas", secretariaId,
+                results.stream().filter(ConsultaBatchResult::success).count(), results.size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/{secretariaId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ConsultaImportReport> importConsultas(@PathVariable UUID secretariaId, @RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Recebida requisição para importar consultas para secretaria {} (arquivo: {}, {} bytes)",
+                secretariaId, file.getOriginalFilename(), file.getSize());
+
+        if (file.isEmpty()) {
+            throw new BusinessRuleValidationException("O arquivo de importação está vazio.");
+        }
+        try (InputStream csv = file.getInputStream()) {
+            ConsultaImportReport report = consultaImportInputPort.importConsultas(secretariaId, csv);
+            return ResponseEntity.ok(report);
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<ConsultaResponse>> getAllConsultas(){
-        logger.info("Recebida requisição para listar todas as consultas");
+    public ResponseEntity<ConsultaPageResponse> getAllConsultas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size){
+        logger.info("Recebida requisição para listar consultas (cursor: {}, tamanho: {})", cursor, size);
 
-        List<Consulta> consultas = consultainputPort.getConsultas();
-        List<ConsultaResponse> responseDTOs = consultas.stream()
+        ConsultaPage page = consultainputPort.getConsultas(consultaCursorMapper.fromToken(cursor), size);
+        List<ConsultaResponse> responseDTOs = page.consultas().stream()
                 .map(consultaMapper::toResponse)
                 .collect(Collectors.toList());
 
-        logger.debug("Total de consultas encontradas: {}", consultas.size());
+        logger.debug("Total de consultas na página: {}", responseDTOs.size());
+        return ResponseEntity.ok(new ConsultaPageResponse(responseDTOs, consultaCursorMapper.toToken(page.nextCursor())));
+    }
+
+    @GetMapping("/filtro")
+    public ResponseEntity<ConsultaPageResponse> searchConsultas(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String patientNumber,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ConsultaFilter filter = new ConsultaFilter(doctorName, patientNumber, speciality, parseStatus(status), from, to);
+        logger.info("Recebida requisição para buscar consultas com filtro {} (cursor: {}, tamanho: {})", filter, cursor, size);
+
+        ConsultaPage page = consultainputPort.searchConsultas(filter, consultaCursorMapper.fromToken(cursor), size);
+        List<ConsultaResponse> responseDTOs = page.consultas().stream()
+                .map(consultaMapper::toResponse)
+                .collect(Collectors.toList());
+
+        logger.debug("Total de consultas filtradas na página: {}", responseDTOs.size());
+        return ResponseEntity.ok(new ConsultaPageResponse(responseDTOs, consultaCursorMapper.toToken(page.nextCursor())));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ConsultaResponse>> searchByPatientName(
+            @RequestParam(required = false) String patient,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Recebida requisição para buscar consultas pelo nome do paciente '{}' (limite: {})", patient, limit);
+
+        List<ConsultaResponse> responseDTOs = consultainputPort.searchByPatientName(patient, limit).stream()
+                .map(consultaMapper::toResponse)
+                .collect(Collectors.toList());
+
+        logger.debug("Total de consultas encontradas para o paciente '{}': {}", patient, responseDTOs.size());
         return ResponseEntity.ok(responseDTOs);
     }
 
+    static StatusConsulta parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return StatusConsulta.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleValidationException("Status inválido: " + status);
+        }
+    }
+
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportConsultas(HttpServletRequest request) {
+        logger.info("Recebida requisição para exportar todas as consultas em NDJSON");
+
+        // spring.mvc.async.request-timeout fica curto para as demais requisições assíncronas; só a exportação,
+        // que transmite a tabela inteira, ganha um prazo longo.
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            consultainputPort.exportConsultas(consulta -> writeNdjsonLine(out, consulta));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeNdjsonLine(OutputStream out, Consulta consulta) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(consultaMapper.toResponse(consulta)));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
     @GetMapping("/proximas")
     public ResponseEntity<List<ConsultaResponse>> getUpcomingConsultas(){
@@ -72,6 +219,22 @@ public class ConsultaController implements SwaggerConsultaController {
         return ResponseEntity.ok(responseDTOs);
     }
 
+    @GetMapping("/slots")
+    public ResponseEntity<List<AvailableSlot>> getAvailableSlots(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.info("Recebida requisição para buscar horários livres (médico: {}, especialidade: {}, de {} até {})",
+                doctorName, speciality, from, to);
+
+        List<AvailableSlot> slots = consultainputPort.findAvailableSlots(doctorName, speciality, from, to, limit);
+
+        logger.debug("Total de horários livres encontrados: {}", slots.size());
+        return ResponseEntity.ok(slots);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ConsultaDetails> getConsultaDetails(@PathVariable UUID id) {
         logger.info("Recebida requisição para buscar detalhes da consulta com ID: {}", id);
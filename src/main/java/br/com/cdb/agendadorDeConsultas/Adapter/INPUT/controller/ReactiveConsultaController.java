@@ -0,0 +1,112 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaCursorMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaPageResponse;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
+import br.com.cdb.agendadorDeConsultas.port.input.ReactiveConsultaInputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static br.com.cdb.agendadorDeConsultas.adapter.input.controller.ConsultaController.parseStatus;
+
+// Variante não bloqueante dos endpoints de leitura e agendamento, servida pelo adapter R2DBC.
+@RestController
+@RequestMapping("/reactive/consultas")
+@ConditionalOnProperty(name = "agendador.reactive.enabled", havingValue = "true")
+public class ReactiveConsultaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConsultaController.class);
+
+    private final ReactiveConsultaInputPort consultaInputPort;
+
+    private final ConsultaMapper consultaMapper;
+
+    private final ConsultaCursorMapper consultaCursorMapper;
+
+    public ReactiveConsultaController(ReactiveConsultaInputPort consultaInputPort, ConsultaMapper consultaMapper,
+                                      ConsultaCursorMapper consultaCursorMapper) {
+        this.consultaInputPort = consultaInputPort;
+        this.consultaMapper = consultaMapper;
+        this.consultaCursorMapper = consultaCursorMapper;
+    }
+
+    @PostMapping("/{secretariaId}")
+    public Mono<ResponseEntity<ConsultaResponse>> create(@PathVariable UUID secretariaId, @RequestBody ConsultaRequest body) {
+        logger.info("Recebida requisição reativa para criar consulta para secretaria {}: {}", secretariaId, body);
+
+        return consultaInputPort.createConsulta(secretariaId, consultaMapper.toDomain(body))
+                .map(consulta -> ResponseEntity.status(HttpStatus.CREATED).body(consultaMapper.toResponse(consulta)));
+    }
+
+    @GetMapping
+    public Mono<ConsultaPageResponse> getAllConsultas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("Recebida requisição reativa para listar consultas (cursor: {}, tamanho: {})", cursor, size);
+
+        return Mono.defer(() -> consultaInputPort.getConsultas(consultaCursorMapper.fromToken(cursor), size))
+                .map(this::toPageResponse);
+    }
+
+    @GetMapping("/filtro")
+    public Mono<ConsultaPageResponse> searchConsultas(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String patientNumber,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return Mono.defer(() -> {
+            ConsultaFilter filter = new ConsultaFilter(doctorName, patientNumber, speciality, parseStatus(status), from, to);
+            logger.info("Recebida requisição reativa para buscar consultas com filtro {} (cursor: {}, tamanho: {})", filter, cursor, size);
+
+            return consultaInputPort.searchConsultas(filter, consultaCursorMapper.fromToken(cursor), size);
+        }).map(this::toPageResponse);
+    }
+
+    @GetMapping("/search")
+    public Flux<ConsultaResponse> searchByPatientName(
+            @RequestParam(required = false) String patient,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Recebida requisição reativa para buscar consultas pelo nome do paciente '{}' (limite: {})", patient, limit);
+
+        return consultaInputPort.searchByPatientName(patient, limit).map(consultaMapper::toResponse);
+    }
+
+    @GetMapping("/proximas")
+    public Flux<ConsultaResponse> getUpcomingConsultas() {
+        logger.info("Recebida requisição reativa para listar consultas futuras");
+
+        return consultaInputPort.getUpcomingConsultas().map(consultaMapper::toResponse);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ConsultaDetails> getConsultaDetails(@PathVariable UUID id) {
+        logger.info("Recebida requisição reativa para buscar detalhes da consulta com ID: {}", id);
+
+        return consultaInputPort.getConsultaDetails(id).map(consultaMapper::toDetails);
+    }
+
+    private ConsultaPageResponse toPageResponse(ConsultaPage page) {
+        return new ConsultaPageResponse(
+                page.consultas().stream().map(consultaMapper::toResponse).toList(),
+                consultaCursorMapper.toToken(page.nextCursor()));
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.SecretariaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.SecretariaResponse;
+import br.com.cdb.agendadorDeConsultas.port.input.ReactiveSecretariaInputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/reactive/secretarias")
+@ConditionalOnProperty(name = "agendador.reactive.enabled", havingValue = "true")
+public class ReactiveSecretariaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSecretariaController.class);
+
+    private final ReactiveSecretariaInputPort secretariaInputPort;
+
+    private final SecretariaMapper secretariaMapper;
+
+    public ReactiveSecretariaController(ReactiveSecretariaInputPort secretariaInputPort, SecretariaMapper secretariaMapper) {
+        this.secretariaInputPort = secretariaInputPort;
+        this.secretariaMapper = secretariaMapper;
+    }
+
+    @GetMapping
+    public Flux<SecretariaResponse> getAllSecretarias() {
+        logger.info("Recebida requisição reativa para listar todas as secretarias");
+
+        return secretariaInputPort.findAll().map(secretariaMapper::toResponse);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<SecretariaResponse> getSecretariaById(@PathVariable("id") UUID id) {
+        logger.info("Recebida requisição reativa para buscar secretaria com ID: {}", id);
+
+        return secretariaInputPort.findById(id).map(secretariaMapper::toResponse);
+    }
+}
@@ -1,18 +1,29 @@
 package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
 
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaBatchItemResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaPageResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,16 +41,86 @@ public interface SwaggerConsultaController {
     })
     ResponseEntity<ConsultaResponse> create(@PathVariable UUID secretariaId, @RequestBody ConsultaRequest body);
 
+    @PostMapping("/{secretariaId}/batch")
+    @Operation(summary = "Agenda um lote de consultas", description = "Valida o lote inteiro com uma única consulta de disponibilidade e grava as consultas válidas em lote. Retorna o resultado de cada item na ordem recebida.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; cada item indica se foi agendado ou o motivo da rejeição"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo permitido"),
+            @ApiResponse(responseCode = "404", description = "Secretaria não encontrada para o ID informado")
+    })
+    ResponseEntity<List<ConsultaBatchItemResponse>> createBatch(@PathVariable UUID secretariaId, @RequestBody List<ConsultaRequest> body);
+
+    @PostMapping(value = "/{secretariaId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importa consultas a partir de um arquivo CSV", description = "Carrega o CSV via COPY em uma tabela de staging, valida e grava as linhas válidas de uma só vez. "
+            + "Colunas, com cabeçalho: doctorName, patientName, patientNumber, speciality, description, consultationDateTime (yyyy-MM-dd HH:mm:ss), status (opcional, padrão AGENDADA).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação concluída; o relatório lista as linhas rejeitadas e o motivo",
+                    content = @Content(schema = @Schema(implementation = ConsultaImportReport.class))),
+            @ApiResponse(responseCode = "400", description = "Arquivo ausente ou fora do formato CSV esperado"),
+            @ApiResponse(responseCode = "404", description = "Secretaria não encontrada para o ID informado")
+    })
+    ResponseEntity<ConsultaImportReport> importConsultas(@PathVariable UUID secretariaId, @RequestParam("file") MultipartFile file) throws IOException;
+
     @GetMapping
-    @Operation(summary = "Lista todas as consultas", description = "Retorna uma lista com todas as consultas cadastradas no sistema.")
-    @ApiResponse(responseCode = "200", description = "Operação bem-sucedida")
-    ResponseEntity<List<ConsultaResponse>> getAllConsultas();
+    @Operation(summary = "Lista as consultas de forma paginada", description = "Retorna uma página de consultas ordenadas por data e um cursor opaco (nextCursor) para buscar a página seguinte.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida",
+                    content = @Content(schema = @Schema(implementation = ConsultaPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou tamanho de página fora do intervalo permitido")
+    })
+    ResponseEntity<ConsultaPageResponse> getAllConsultas(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size);
+
+    @GetMapping("/filtro")
+    @Operation(summary = "Busca consultas com filtros", description = "Filtra por médico, número do paciente, especialidade, status e intervalo de datas (todos opcionais). "
+            + "Retorna uma página ordenada por data e um cursor opaco (nextCursor) para buscar a página seguinte.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação bem-sucedida",
+                    content = @Content(schema = @Schema(implementation = ConsultaPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Status, cursor ou intervalo de datas inválido, ou tamanho de página fora do intervalo permitido")
+    })
+    ResponseEntity<ConsultaPageResponse> searchConsultas(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String patientNumber,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size);
+
+    @GetMapping("/search")
+    @Operation(summary = "Busca consultas pelo nome do paciente", description = "Busca aproximada por trigramas: aceita nomes parciais ou digitados com erro "
+            + "e retorna as consultas mais parecidas primeiro.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consultas ordenadas pela similaridade com o nome informado"),
+            @ApiResponse(responseCode = "400", description = "Nome com menos de 3 ou mais de 100 caracteres, ou limite fora do intervalo permitido")
+    })
+    ResponseEntity<List<ConsultaResponse>> searchByPatientName(@RequestParam(required = false) String patient, @RequestParam(defaultValue = "20") int limit);
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exporta todas as consultas", description = "Transmite todas as consultas em NDJSON (um objeto JSON por linha), lidas do banco por cursor, sem carregar a tabela em memória.")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada com sucesso")
+    ResponseEntity<StreamingResponseBody> exportConsultas(HttpServletRequest request);
 
     @GetMapping("/proximas")
     @Operation(summary = "Lista as próximas consultas agendadas", description = "Retorna uma lista de todas as consultas futuras que não foram canceladas.")
     @ApiResponse(responseCode = "200", description = "Operação bem-sucedida")
     ResponseEntity<List<ConsultaResponse>> getUpcomingConsultas();
 
+    @GetMapping("/slots")
+    @Operation(summary = "Busca os próximos horários livres", description = "Retorna os próximos horários de 30 minutos livres, em dias úteis entre 08:00 e 18:00, para um médico ou para os médicos de uma especialidade. "
+            + "Os horários ocupados do intervalo são lidos com uma única consulta ao banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Horários livres ordenados por data"),
+            @ApiResponse(responseCode = "400", description = "Médico e especialidade ausentes, intervalo inválido ou quantidade fora do permitido")
+    })
+    ResponseEntity<List<AvailableSlot>> getAvailableSlots(
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit);
+
     @GetMapping("/{id}")
     @Operation(summary = "Busca os detalhes de uma consulta por ID", description = "Retorna os detalhes completos de uma consulta específica.")
     @ApiResponses(value = {
@@ -81,10 +162,12 @@ public interface SwaggerConsultaController {
     ResponseEntity<Void> deleteConsulta(@PathVariable UUID secretariaId, @PathVariable UUID id);
 
     @PostMapping("/{secretariaId}/{originalConsultaId}/retorno")
-    @Operation(summary = "Agenda uma consulta de retorno", description = "Cria uma nova consulta baseada em uma consulta existente, ideal para retornos.")
+    @Operation(summary = "Agenda uma consulta de retorno", description = "Cria uma nova consulta baseada em uma consulta existente, ideal para retornos. "
+            + "O retorno é marcado no primeiro horário livre do mesmo médico a partir de 15 dias às 10:00.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Consulta de retorno agendada com sucesso",
+            @ApiResponse(responseCode = "201", description = "Consulta de retorno agendada com sucesso no horário escolhido",
                     content = @Content(schema = @Schema(implementation = ConsultaResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum horário livre encontrado para o médico no período de busca"),
             @ApiResponse(responseCode = "404", description = "Consulta original ou secretaria não encontrada")
     })
     ResponseEntity<ConsultaResponse> createFollowUp(
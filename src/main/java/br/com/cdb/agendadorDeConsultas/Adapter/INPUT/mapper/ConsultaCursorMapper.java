@@ -0,0 +1,44 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.mapper;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+@Component
+public class ConsultaCursorMapper {
+
+    private static final String SEPARATOR = "|";
+
+    public String toToken(ConsultaCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = cursor.consultationDateTime() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ConsultaCursor fromToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessRuleValidationException("Cursor de paginação inválido.");
+            }
+            return new ConsultaCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessRuleValidationException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.request;
+
+public record ConsultaBatchItemResponse(int index, boolean success, ConsultaResponse consulta, String error) {
+}
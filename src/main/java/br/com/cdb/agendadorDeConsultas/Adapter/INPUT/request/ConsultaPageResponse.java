@@ -0,0 +1,6 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.request;
+
+import java.util.List;
+
+public record ConsultaPageResponse(List<ConsultaResponse> consultas, String nextCursor) {
+}
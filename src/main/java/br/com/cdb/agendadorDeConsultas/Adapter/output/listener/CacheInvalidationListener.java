@@ -0,0 +1,159 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.listener;
+
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.ConsultaRepositoryProxy;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.SecretariaRepositoryProxy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "agendador.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    static final String CONSULTA_CHANNEL = "consulta_alterada";
+    static final String SECRETARIA_CHANNEL = "secretaria_alterada";
+    static final String AGENDA_CHANNEL = "agenda_alterada";
+    static final int POLL_TIMEOUT_MS = 500;
+
+    private final DataSource dataSource;
+    private final ConsultaRepositoryProxy consultaProxy;
+    private final SecretariaRepositoryProxy secretariaProxy;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public CacheInvalidationListener(
+            DataSourceProperties dataSourceProperties,
+            ConsultaRepositoryProxy consultaProxy,
+            SecretariaRepositoryProxy secretariaProxy,
+            @Value("${agendador.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        // Conexão própria, fora do pool: o LISTEN precisa de uma sessão dedicada e de longa duração.
+        this(new DriverManagerDataSource(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword()),
+                consultaProxy, secretariaProxy, reconnectDelay);
+    }
+
+    CacheInvalidationListener(DataSource dataSource, ConsultaRepositoryProxy consultaProxy,
+                              SecretariaRepositoryProxy secretariaProxy, Duration reconnectDelay) {
+        this.dataSource = dataSource;
+        this.consultaProxy = consultaProxy;
+        this.secretariaProxy = secretariaProxy;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::listen, "cache-invalidation-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(POLL_TIMEOUT_MS * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean flushOnConnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CONSULTA_CHANNEL);
+                    statement.execute("LISTEN " + SECRETARIA_CHANNEL);
+                    statement.execute("LISTEN " + AGENDA_CHANNEL);
+                }
+                logger.info("Escutando alterações de consultas e secretarias para invalidação de cache");
+                if (flushOnConnect) {
+                    // Alterações feitas enquanto estávamos desconectados não foram notificadas.
+                    flushAll();
+                    flushOnConnect = false;
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Conexão de invalidação de cache perdida; limpando caches e reconectando em {}", reconnectDelay, e);
+                flushAll();
+                flushOnConnect = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void dispatch(String channel, String payload) {
+        try {
+            switch (channel) {
+                case CONSULTA_CHANNEL -> consultaProxy.evict(UUID.fromString(payload));
+                case SECRETARIA_CHANNEL -> secretariaProxy.evict(UUID.fromString(payload));
+                case AGENDA_CHANNEL -> evictDay(payload);
+                default -> logger.warn("Notificação ignorada: canal desconhecido {}", channel);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.warn("Notificação ignorada no canal {}: payload inválido '{}'", channel, payload);
+        }
+    }
+
+    // Payload de fn_notificar_agenda_consulta: "dia|médico"; o nome do médico vem por último e pode conter "|".
+    private void evictDay(String payload) {
+        String[] partes = payload.split("\\|", 2);
+        if (partes.length != 2) {
+            throw new IllegalArgumentException(payload);
+        }
+        consultaProxy.evictDay(partes[1], LocalDate.parse(partes[0]));
+    }
+
+    void flushAll() {
+        consultaProxy.clearCache();
+        secretariaProxy.clearCache();
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportRejection;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaImportOutputPort;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class ConsultaImportRepository implements ConsultaImportOutputPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaImportRepository.class);
+
+    static final int COPY_BUFFER_SIZE = 64 * 1024;
+    static final long PROGRESS_LOG_INTERVAL = 100_000;
+    static final int MAX_REJECTIONS_IN_REPORT = 1_000;
+
+    static final String COPY_SQL = "COPY consulta_import (doctorname, patientname, patientnumber, speciality, description, consultationdatetime, status) "
+            + "FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public ConsultaImportReport importCsv(UUID secretariaId, InputStream csv) {
+        logger.info("Iniciando importação de consultas via COPY para secretaria {}", secretariaId);
+
+        try {
+            return jdbcTemplate.execute(importCallback(secretariaId, csv));
+        } catch (DuplicateKeyException e) {
+            if (!ConsultaRepository.isSlotConflict(e)) {
+                throw e;
+            }
+            logger.warn("Importação desfeita: horário ocupado por outra requisição durante a importação");
+            throw new BusinessRuleValidationException("Um dos horários do arquivo foi ocupado durante a importação. Nada foi importado; tente novamente.");
+        }
+    }
+
+    private ConnectionCallback<ConsultaImportReport> importCallback(UUID secretariaId, InputStream csv) {
+        return connection -> {
+            // A tabela de staging é temporária (ON COMMIT DROP): COPY, validação e merge precisam da mesma transação.
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("call pr_criar_staging_importacao()");
+                }
+
+                long start = System.currentTimeMillis();
+                long copiedRows = copy(connection.unwrap(PGConnection.class).getCopyAPI(), csv);
+                logger.info("COPY concluído: {} linhas carregadas na staging em {} ms", copiedRows, System.currentTimeMillis() - start);
+
+                start = System.currentTimeMillis();
+                try (PreparedStatement statement = connection.prepareStatement("call pr_importar_consultas(?)")) {
+                    statement.setObject(1, secretariaId);
+                    statement.execute();
+                }
+                ConsultaImportReport report = buildReport(connection);
+                connection.commit();
+
+                logger.info("Importação concluída em {} ms: {} importadas, {} rejeitadas de {} linhas",
+                        System.currentTimeMillis() - start, report.importedRows(), report.rejectedRows(), report.totalRows());
+                return report;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        };
+    }
+
+    private long copy(CopyManager copyManager, InputStream csv) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(COPY_SQL);
+        try {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long lines = 0;
+            long nextProgressLog = PROGRESS_LOG_INTERVAL;
+            int read;
+            while ((read = csv.read(buffer)) != -1) {
+                copyIn.writeToCopy(buffer, 0, read);
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (lines >= nextProgressLog) {
+                    logger.info("Importação em andamento: ~{} linhas enviadas via COPY", lines);
+                    nextProgressLog = lines + PROGRESS_LOG_INTERVAL;
+                }
+            }
+            return copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            // Classe 22 (data exception): o arquivo não está no formato esperado pelo COPY.
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                throw new BusinessRuleValidationException("Arquivo CSV inválido: " + e.getMessage());
+            }
+            throw e;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private ConsultaImportReport buildReport(Connection connection) throws SQLException {
+        long total;
+        long imported;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT count(*), count(*) FILTER (WHERE error IS NULL) FROM consulta_import")) {
+            rs.next();
+            total = rs.getLong(1);
+            imported = rs.getLong(2);
+        }
+
+        List<ConsultaImportRejection> rejections = new ArrayList<>();
+        String sql = "SELECT line_number, error FROM consulta_import WHERE error IS NOT NULL ORDER BY line_number LIMIT ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, MAX_REJECTIONS_IN_REPORT);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    // line_number conta apenas registros; +1 pelo cabeçalho para bater com a linha do arquivo.
+                    rejections.add(new ConsultaImportRejection(rs.getLong("line_number") + 1, rs.getString("error")));
+                }
+            }
+        }
+        return new ConsultaImportReport(total, imported, total - imported, rejections);
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.output.entity.ConsultaEntity;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.port.output.ReactiveConsultaOutputPort;
+import io.r2dbc.spi.Readable;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+import static br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaRepository.BOOKING_SECRETARIA_NOT_FOUND;
+import static br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaRepository.BOOKING_SLOT_TAKEN;
+import static br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaRepository.SLOT_CONFLICT_MESSAGE;
+
+// Mesmas funções do ConsultaRepository, chamadas pelo driver R2DBC: nenhuma thread fica presa esperando o banco.
+public class ConsultaR2dbcRepository implements ReactiveConsultaOutputPort {
+
+    private static final Logger logger = org.slf4j.LoggerFactory.getLogger(ConsultaR2dbcRepository.class);
+
+    private final DatabaseClient databaseClient;
+
+    private final ConsultaMapper consultaMapper;
+
+    public ConsultaR2dbcRepository(DatabaseClient databaseClient, ConsultaMapper consultaMapper) {
+        this.databaseClient = databaseClient;
+        this.consultaMapper = consultaMapper;
+    }
+
+    static Consulta toConsulta(Readable row) {
+        Consulta consulta = new Consulta();
+        consulta.setId(row.get("id", UUID.class));
+        consulta.setDoctorName(row.get("doctorname", String.class));
+        consulta.setPatientName(row.get("patientname", String.class));
+        consulta.setPatientNumber(row.get("patientnumber", String.class));
+        consulta.setSpeciality(row.get("speciality", String.class));
+        consulta.setDescription(row.get("description", String.class));
+        consulta.setStatus(StatusConsulta.valueOf(row.get("status", String.class)));
+        consulta.setConsultationDateTime(row.get("consultationdatetime", LocalDateTime.class));
+        consulta.setSecretariaId(row.get("secretaria_id", UUID.class));
+        return consulta;
+    }
+
+    @Override
+    public Mono<Consulta> book(Consulta consulta) {
+        ConsultaEntity consultaEntity = consultaMapper.toEntity(consulta);
+        consultaEntity.setId(UUID.randomUUID());
+
+        logger.info("Agendando nova consulta com id {}", consultaEntity.getId());
+
+        GenericExecuteSpec spec = databaseClient.sql("SELECT fn_agendar_consulta(:id, :doctorName, :patientName, "
+                + ":patientNumber, :speciality, :description, :status, :consultationDateTime, :secretariaId) AS resultado");
+        spec = bind(spec, "id", consultaEntity.getId(), UUID.class);
+        spec = bind(spec, "doctorName", consultaEntity.getDoctorName(), String.class);
+        spec = bind(spec, "patientName", consultaEntity.getPatientName(), String.class);
+        spec = bind(spec, "patientNumber", consultaEntity.getPatientNumber(), String.class);
+        spec = bind(spec, "speciality", consultaEntity.getSpeciality(), String.class);
+        spec = bind(spec, "description", consultaEntity.getDescription(), String.class);
+        spec = bind(spec, "status", consultaEntity.getStatus().name(), String.class);
+        spec = bind(spec, "consultationDateTime", consultaEntity.getConsultationDateTime(), LocalDateTime.class);
+        spec = bind(spec, "secretariaId", consultaEntity.getSecretariaId(), UUID.class);
+
+        return spec.map(row -> row.get("resultado", String.class)).one()
+                .flatMap(resultado -> {
+                    if (BOOKING_SECRETARIA_NOT_FOUND.equals(resultado)) {
+                        logger.warn("Nenhuma secretaria encontrada com id {}", consultaEntity.getSecretariaId());
+                        return Mono.error(new EntityNotFoundException("Recurso não encontrado: Secretaria com id " + consultaEntity.getSecretariaId()));
+                    }
+                    if (BOOKING_SLOT_TAKEN.equals(resultado)) {
+                        logger.warn("Horário já ocupado para o médico {} em {}", consultaEntity.getDoctorName(), consultaEntity.getConsultationDateTime());
+                        return Mono.error(new BusinessRuleValidationException(SLOT_CONFLICT_MESSAGE));
+                    }
+                    return Mono.just(consultaMapper.toDomainEntity(consultaEntity));
+                });
+    }
+
+    @Override
+    public Flux<Consulta> findPage(ConsultaCursor after, int limit) {
+        logger.debug("Buscando página de {} consultas após o cursor {}", limit, after);
+
+        GenericExecuteSpec spec = databaseClient.sql("SELECT * FROM fn_find_consultas_page(:afterDateTime, :afterId, :limit)");
+        spec = bind(spec, "afterDateTime", after == null ? null : after.consultationDateTime(), LocalDateTime.class);
+        spec = bind(spec, "afterId", after == null ? null : after.id(), UUID.class);
+        return spec.bind("limit", limit).map(ConsultaR2dbcRepository::toConsulta).all();
+    }
+
+    @Override
+    public Flux<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit) {
+        logger.debug("Buscando página de {} consultas com filtro {} após o cursor {}", limit, filter, after);
+
+        GenericExecuteSpec spec = databaseClient.sql("SELECT * FROM fn_search_consultas(:doctorName, :patientNumber, "
+                + ":speciality, :status, :from, :to, :afterDateTime, :afterId, :limit)");
+        spec = bind(spec, "doctorName", filter.doctorName(), String.class);
+        spec = bind(spec, "patientNumber", filter.patientNumber(), String.class);
+        spec = bind(spec, "speciality", filter.speciality(), String.class);
+        spec = bind(spec, "status", filter.status() == null ? null : filter.status().name(), String.class);
+        spec = bind(spec, "from", filter.from(), LocalDateTime.class);
+        spec = bind(spec, "to", filter.to(), LocalDateTime.class);
+        spec = bind(spec, "afterDateTime", after == null ? null : after.consultationDateTime(), LocalDateTime.class);
+        spec = bind(spec, "afterId", after == null ? null : after.id(), UUID.class);
+        return spec.bind("limit", limit).map(ConsultaR2dbcRepository::toConsulta).all();
+    }
+
+    @Override
+    public Flux<Consulta> searchByPatientName(String patientName, int limit) {
+        logger.debug("Buscando até {} consultas por similaridade com o paciente '{}'", limit, patientName);
+
+        return databaseClient.sql("SELECT * FROM fn_search_consultas_by_patient(:patientName, :limit)")
+                .bind("patientName", patientName)
+                .bind("limit", limit)
+                .map(ConsultaR2dbcRepository::toConsulta)
+                .all();
+    }
+
+    @Override
+    public Flux<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now) {
+        logger.debug("Buscando consultas agendadas futuras a partir de {}", now);
+
+        return databaseClient.sql("SELECT * FROM fn_find_upcoming_consultas_agendadas(:now)")
+                .bind("now", now)
+                .map(ConsultaR2dbcRepository::toConsulta)
+                .all();
+    }
+
+    @Override
+    public Mono<Consulta> findById(UUID id) {
+        logger.debug("Buscando consulta com id {}", id);
+
+        return databaseClient.sql("SELECT * FROM fn_find_consulta_by_id(:id)")
+                .bind("id", id)
+                .map(ConsultaR2dbcRepository::toConsulta)
+                .one()
+                .switchIfEmpty(Mono.defer(() -> findArchivedById(id)));
+    }
+
+    private Mono<Consulta> findArchivedById(UUID id) {
+        logger.debug("Consulta {} não está na tabela ativa, buscando no histórico", id);
+
+        return databaseClient.sql("SELECT * FROM fn_find_consulta_historico_by_id(:id)")
+                .bind("id", id)
+                .map(ConsultaR2dbcRepository::toConsulta)
+                .one()
+                .doOnSuccess(consulta -> {
+                    if (consulta == null) {
+                        logger.warn("Nenhuma consulta encontrada com id {}", id);
+                    }
+                });
+    }
+
+    @Override
+    public Flux<Consulta> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        logger.debug("Buscando {} consultas por id", ids.size());
+
+        return databaseClient.sql("SELECT * FROM fn_find_consultas_by_ids(:ids)")
+                .bind("ids", ids.stream().distinct().toArray(UUID[]::new))
+                .map(ConsultaR2dbcRepository::toConsulta)
+                .all();
+    }
+
+    // O driver R2DBC precisa do tipo do parâmetro para enviar NULL.
+    static <T> GenericExecuteSpec bind(GenericExecuteSpec spec, String name, T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+}
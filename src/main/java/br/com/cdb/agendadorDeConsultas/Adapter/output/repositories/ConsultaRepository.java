@@ -3,25 +3,60 @@ package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
 import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
 import br.com.cdb.agendadorDeConsultas.adapter.output.entity.ConsultaEntity;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
 import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import jakarta.persistence.EntityNotFoundException;
+import org.postgresql.util.PSQLException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Repository
 public class ConsultaRepository implements ConsultaOutputPort {
 
     private static final Logger logger = org.slf4j.LoggerFactory.getLogger(ConsultaRepository.class);
 
+    static final int EXPORT_FETCH_SIZE = 500;
+
+    // Violação de uq_consulta_doctor_slot: o banco garante o horário, sem consulta prévia de disponibilidade.
+    static final String SLOT_CONFLICT_MESSAGE = "O médico já possui outra consulta agendada para este mesmo horário.";
+
+    // Códigos devolvidos por fn_agendar_consulta.
+    static final String BOOKING_SECRETARIA_NOT_FOUND = "SECRETARIA_NAO_ENCONTRADA";
+    static final String BOOKING_SLOT_TAKEN = "HORARIO_OCUPADO";
+
+    static final String BATCH_INSERT_SQL = "INSERT INTO consulta (id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (doctorname, consultationdatetime) WHERE status <> 'CANCELADA' DO NOTHING";
+
+    static final String SLOT_INDEX = "uq_consulta_doctor_slot";
+    // Em cada partição mensal (V20) o índice único herda um nome gerado, ex.: consulta_2026_11_doctorname_consultationdatetime_idx.
+    static final String SLOT_PARTITION_INDEX_SUFFIX = "_doctorname_consultationdatetime_idx";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -57,10 +92,14 @@ public class ConsultaRepository implements ConsultaOutputPort {
             consultaEntity.setId(id);
 
             logger.info("Inserindo nova consulta com id {}", id);
+        } else {
+            logger.info("Atualizando consulta com id {}", consultaEntity.getId());
+        }
 
+        try {
             jdbcTemplate.update(
                     "call pr_upsert_consulta(?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    id,
+                    consultaEntity.getId(),
                     consultaEntity.getDoctorName(),
                     consultaEntity.getPatientName(),
                     consultaEntity.getPatientNumber(),
@@ -70,12 +109,62 @@ public class ConsultaRepository implements ConsultaOutputPort {
                     consultaEntity.getConsultationDateTime(),
                     consultaEntity.getSecretariaId()
             );
-        } else {
+        } catch (DuplicateKeyException e) {
+            if (!isSlotConflict(e)) {
+                throw e;
+            }
+            logger.warn("Horário já ocupado para o médico {} em {}", consultaEntity.getDoctorName(), consultaEntity.getConsultationDateTime());
+            throw new BusinessRuleValidationException(SLOT_CONFLICT_MESSAGE);
+        }
+        return consultaMapper.toDomainEntity(consultaEntity);
+    }
 
-            logger.info("Atualizando consulta com id {}", consultaEntity.getId());
+    // Agendamento em uma única chamada: a função confere a secretária e o horário e só então insere.
+    @Override
+    public Consulta book(Consulta consulta) {
+        ConsultaEntity consultaEntity = consultaMapper.toEntity(consulta);
+        consultaEntity.setId(UUID.randomUUID());
 
-            jdbcTemplate.update(
-                    "call pr_upsert_consulta(?, ?, ?, ?, ?, ?, ?, ?, ?)",
+        logger.info("Agendando nova consulta com id {}", consultaEntity.getId());
+
+        String resultado = jdbcTemplate.queryForObject(
+                "SELECT fn_agendar_consulta(?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                String.class,
+                consultaEntity.getId(),
+                consultaEntity.getDoctorName(),
+                consultaEntity.getPatientName(),
+                consultaEntity.getPatientNumber(),
+                consultaEntity.getSpeciality(),
+                consultaEntity.getDescription(),
+                consultaEntity.getStatus().name(),
+                consultaEntity.getConsultationDateTime(),
+                consultaEntity.getSecretariaId()
+        );
+        if (BOOKING_SECRETARIA_NOT_FOUND.equals(resultado)) {
+            logger.warn("Nenhuma secretaria encontrada com id {}", consultaEntity.getSecretariaId());
+            throw new EntityNotFoundException("Recurso não encontrado: Secretaria com id " + consultaEntity.getSecretariaId());
+        }
+        if (BOOKING_SLOT_TAKEN.equals(resultado)) {
+            logger.warn("Horário já ocupado para o médico {} em {}", consultaEntity.getDoctorName(), consultaEntity.getConsultationDateTime());
+            throw new BusinessRuleValidationException(SLOT_CONFLICT_MESSAGE);
+        }
+        return consultaMapper.toDomainEntity(consultaEntity);
+    }
+
+    // Mesmo padrão de fn_agendar_consulta: o horário ocupado por outra requisição depois da validação não derruba o lote,
+    // só aquela linha deixa de ser inserida (contagem 0) e volta como null.
+    @Override
+    @Transactional
+    public List<Consulta> saveAll(List<Consulta> consultas) {
+        List<ConsultaEntity> entities = new ArrayList<>(consultas.size());
+        List<Object[]> args = new ArrayList<>(consultas.size());
+        for (Consulta consulta : consultas) {
+            ConsultaEntity consultaEntity = consultaMapper.toEntity(consulta);
+            if (consultaEntity.getId() == null) {
+                consultaEntity.setId(UUID.randomUUID());
+            }
+            entities.add(consultaEntity);
+            args.add(new Object[]{
                     consultaEntity.getId(),
                     consultaEntity.getDoctorName(),
                     consultaEntity.getPatientName(),
@@ -85,10 +174,38 @@ public class ConsultaRepository implements ConsultaOutputPort {
                     consultaEntity.getStatus().name(),
                     consultaEntity.getConsultationDateTime(),
                     consultaEntity.getSecretariaId()
+            });
+        }
 
-            );
+        logger.info("Inserindo lote de {} consultas", entities.size());
+
+        int[] inseridas = jdbcTemplate.batchUpdate(BATCH_INSERT_SQL, args);
+
+        List<Consulta> salvas = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            ConsultaEntity consultaEntity = entities.get(i);
+            if (inseridas[i] == 0) {
+                logger.warn("Horário já ocupado para o médico {} em {}; item {} do lote não inserido",
+                        consultaEntity.getDoctorName(), consultaEntity.getConsultationDateTime(), i);
+                salvas.add(null);
+            } else {
+                salvas.add(consultaMapper.toDomainEntity(consultaEntity));
+            }
         }
-        return consultaMapper.toDomainEntity(consultaEntity);
+        return salvas;
+    }
+
+    // Só a violação do índice de horário vira mensagem de negócio; outras chaves duplicadas (ex.: id) seguem como erro.
+    static boolean isSlotConflict(DuplicateKeyException e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof PSQLException)) {
+            cause = cause.getCause();
+        }
+        if (cause == null || ((PSQLException) cause).getServerErrorMessage() == null) {
+            return false;
+        }
+        String constraint = ((PSQLException) cause).getServerErrorMessage().getConstraint();
+        return constraint != null && (constraint.equals(SLOT_INDEX) || constraint.endsWith(SLOT_PARTITION_INDEX_SUFFIX));
     }
 
     public List<Consulta> findAll() {
@@ -99,6 +216,70 @@ public class ConsultaRepository implements ConsultaOutputPort {
         return jdbcTemplate.query(sql, consultaRowMapper);
     }
 
+    @Override
+    public List<Consulta> findPage(ConsultaCursor after, int limit) {
+        logger.debug("Buscando página de {} consultas após o cursor {}", limit, after);
+
+        String sql = "SELECT * FROM fn_find_consultas_page(?, ?, ?)";
+        if (after == null) {
+            return jdbcTemplate.query(sql, consultaRowMapper, null, null, limit);
+        }
+        return jdbcTemplate.query(sql, consultaRowMapper, after.consultationDateTime(), after.id(), limit);
+    }
+
+    @Override
+    public List<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit) {
+        logger.debug("Buscando página de {} consultas com filtro {} após o cursor {}", limit, filter, after);
+
+        String sql = "SELECT * FROM fn_search_consultas(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.query(sql, consultaRowMapper,
+                filter.doctorName(),
+                filter.patientNumber(),
+                filter.speciality(),
+                filter.status() == null ? null : filter.status().name(),
+                filter.from(),
+                filter.to(),
+                after == null ? null : after.consultationDateTime(),
+                after == null ? null : after.id(),
+                limit);
+    }
+
+    @Override
+    public List<Consulta> searchByPatientName(String patientName, int limit) {
+        logger.debug("Buscando até {} consultas por similaridade com o paciente '{}'", limit, patientName);
+
+        String sql = "SELECT * FROM fn_search_consultas_by_patient(?, ?)";
+        return jdbcTemplate.query(sql, consultaRowMapper, patientName, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<Consulta> action) {
+        logger.info("Exportando consultas via cursor (fetch size {})", EXPORT_FETCH_SIZE);
+
+        String sql = "SELECT * FROM fn_export_consultas()";
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            // O driver do Postgres só usa cursor no servidor com autocommit desligado.
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    int rowNum = 0;
+                    while (rs.next()) {
+                        action.accept(consultaRowMapper.mapRow(rs, rowNum++));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
     public List<Consulta> findUpcomingConsultas(LocalDateTime now) {
 
         logger.debug("Buscando consultas futuras a partir de {}", now);
@@ -107,11 +288,33 @@ public class ConsultaRepository implements ConsultaOutputPort {
         return jdbcTemplate.query(sql, consultaRowMapper, now);
     }
 
+    @Override
+    public List<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now) {
+
+        logger.debug("Buscando consultas agendadas futuras a partir de {}", now);
+
+        String sql = "SELECT * FROM fn_find_upcoming_consultas_agendadas(?)";
+        return jdbcTemplate.query(sql, consultaRowMapper, now);
+    }
+
     public Optional<Consulta> findById(UUID id) {
         String sql = "SELECT * FROM fn_find_consulta_by_id(?)";
         try {
             logger.debug("Buscando consulta com id {}", id);
 
+            Consulta consulta = jdbcTemplate.queryForObject(sql, consultaRowMapper, id);
+            return Optional.ofNullable(consulta);
+        } catch (EmptyResultDataAccessException e) {
+            return findArchivedById(id);
+        }
+    }
+
+    // Consultas antigas são movidas para consulta_historico pelo ConsultaArchiveScheduler.
+    private Optional<Consulta> findArchivedById(UUID id) {
+        String sql = "SELECT * FROM fn_find_consulta_historico_by_id(?)";
+        try {
+            logger.debug("Consulta {} não está na tabela ativa, buscando no histórico", id);
+
             Consulta consulta = jdbcTemplate.queryForObject(sql, consultaRowMapper, id);
             return Optional.ofNullable(consulta);
         } catch (EmptyResultDataAccessException e) {
@@ -121,6 +324,18 @@ public class ConsultaRepository implements ConsultaOutputPort {
         }
     }
 
+    @Override
+    public List<Consulta> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        logger.debug("Buscando {} consultas por id", ids.size());
+
+        UUID[] array = ids.stream().distinct().toArray(UUID[]::new);
+        String sql = "SELECT * FROM fn_find_consultas_by_ids(?)";
+        return jdbcTemplate.query(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", array)), consultaRowMapper);
+    }
+
     public void delete(Consulta consulta) {
         if (consulta == null || consulta.getId() == null) {
             logger.warn("Tentativa de deletar consulta com objeto ou ID nulo.");
@@ -141,5 +356,51 @@ public class ConsultaRepository implements ConsultaOutputPort {
         return jdbcTemplate.query(sql, consultaRowMapper, doctorName, dateTime);
     }
 
+    @Override
+    public List<Consulta> findByDoctorSlots(Collection<Consulta> consultas) {
+        logger.debug("Buscando conflitos de horário para {} consultas", consultas.size());
+
+        String[] doctorNames = consultas.stream().map(Consulta::getDoctorName).toArray(String[]::new);
+        Timestamp[] dateTimes = consultas.stream()
+                .map(consulta -> Timestamp.valueOf(consulta.getConsultationDateTime()))
+                .toArray(Timestamp[]::new);
+
+        String sql = "SELECT * FROM fn_find_consultas_by_doctor_slots(?, ?)";
+        return jdbcTemplate.query(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", doctorNames));
+            ps.setArray(2, ps.getConnection().createArrayOf("timestamp", dateTimes));
+        }, consultaRowMapper);
+    }
+
+    @Override
+    public List<Consulta> findByDoctorAndDay(String doctorName, LocalDate day) {
+        logger.debug("Buscando agenda do médico {} no dia {}", doctorName, day);
+
+        String sql = "SELECT * FROM fn_find_consultas_by_doctor_and_day(?, ?)";
+        return jdbcTemplate.query(sql, consultaRowMapper, doctorName, day);
+    }
+
+    @Override
+    public boolean isSlotTaken(String doctorName, LocalDateTime dateTime) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM fn_find_consultas_by_doctor_and_datetime(?, ?))";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, doctorName, dateTime));
+    }
+
+    @Override
+    public Map<String, List<LocalDateTime>> findBookedSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to) {
+        logger.debug("Buscando horários ocupados entre {} e {} (médico: {}, especialidade: {})", from, to, doctorName, speciality);
+
+        String sql = "SELECT * FROM fn_find_booked_slots(?, ?, ?, ?)";
+        Map<String, List<LocalDateTime>> booked = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            List<LocalDateTime> horarios = booked.computeIfAbsent(rs.getString("doctor_name"), doctor -> new ArrayList<>());
+            Timestamp bookedAt = rs.getTimestamp("booked_at");
+            if (bookedAt != null) {
+                horarios.add(bookedAt.toLocalDateTime());
+            }
+        }, doctorName, speciality, from, to);
+        return booked;
+    }
+
 
 }
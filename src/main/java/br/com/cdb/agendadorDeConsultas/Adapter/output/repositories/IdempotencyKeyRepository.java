@@ -0,0 +1,62 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.IdempotencyRecord;
+import br.com.cdb.agendadorDeConsultas.port.output.IdempotencyOutputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyKeyRepository implements IdempotencyOutputPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyRepository.class);
+
+    // Insere a reserva ou assume uma reserva abandonada (em andamento há mais tempo que o limite) em uma única instrução.
+    static final String RESERVE_SQL = "INSERT INTO idempotency_key (chave, fingerprint) VALUES (?, ?) "
+            + "ON CONFLICT (chave) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, created_at = now() "
+            + "WHERE idempotency_key.status_code IS NULL AND idempotency_key.created_at < ?";
+    static final String FIND_SQL = "SELECT fingerprint, status_code, content_type, response_body FROM idempotency_key WHERE chave = ?";
+    static final String COMPLETE_SQL = "UPDATE idempotency_key SET status_code = ?, content_type = ?, response_body = ? WHERE chave = ?";
+    static final String RELEASE_SQL = "DELETE FROM idempotency_key WHERE chave = ? AND status_code IS NULL";
+    static final String DELETE_CREATED_BEFORE_SQL = "DELETE FROM idempotency_key WHERE created_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean tryReserve(String key, String fingerprint, LocalDateTime abandonedBefore) {
+        return jdbcTemplate.update(RESERVE_SQL, key, fingerprint, abandonedBefore) > 0;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new IdempotencyRecord(
+                        rs.getString("fingerprint"),
+                        rs.getObject("status_code", Integer.class),
+                        rs.getString("content_type"),
+                        rs.getString("response_body")), key)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public void complete(String key, int statusCode, String contentType, String responseBody) {
+        jdbcTemplate.update(COMPLETE_SQL, statusCode, contentType, responseBody, key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update(RELEASE_SQL, key);
+    }
+
+    @Override
+    public int deleteCreatedBefore(LocalDateTime createdBefore) {
+        logger.debug("Removendo chaves de idempotência criadas antes de {}", createdBefore);
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE_SQL, createdBefore);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.port.output.ReactiveSecretariaOutputPort;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public class SecretariaR2dbcRepository implements ReactiveSecretariaOutputPort {
+
+    private static final Logger logger = org.slf4j.LoggerFactory.getLogger(SecretariaR2dbcRepository.class);
+
+    private final DatabaseClient databaseClient;
+
+    public SecretariaR2dbcRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    static Secretaria toSecretaria(Readable row) {
+        Secretaria secretaria = new Secretaria();
+        secretaria.setId(row.get("id", UUID.class));
+        secretaria.setName(row.get("name", String.class));
+        secretaria.setCpf(row.get("cpf", String.class));
+        secretaria.setEmail(row.get("email", String.class));
+        secretaria.setPassword(row.get("password", String.class));
+        return secretaria;
+    }
+
+    @Override
+    public Flux<Secretaria> findAll() {
+        logger.debug("Buscando todas as secretarias via fn_BuscarTodasSecretarias()");
+
+        return databaseClient.sql("SELECT * FROM fn_BuscarTodasSecretarias()")
+                .map(SecretariaR2dbcRepository::toSecretaria)
+                .all();
+    }
+
+    @Override
+    public Mono<Secretaria> findById(UUID id) {
+        logger.debug("Buscando secretaria com id {}", id);
+
+        return databaseClient.sql("SELECT * FROM fn_find_secretaria_by_id(:id)")
+                .bind("id", id)
+                .map(SecretariaR2dbcRepository::toSecretaria)
+                .one()
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.warn("Nenhuma secretaria encontrada com id {}", id);
+                    return new RuntimeException("Recurso não encontrado: Secretaria com id " + id);
+                }));
+    }
+
+    @Override
+    public Flux<Secretaria> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        logger.debug("Buscando {} secretarias por id", ids.size());
+
+        return databaseClient.sql("SELECT * FROM fn_find_secretarias_by_ids(:ids)")
+                .bind("ids", ids.stream().distinct().toArray(UUID[]::new))
+                .map(SecretariaR2dbcRepository::toSecretaria)
+                .all();
+    }
+}
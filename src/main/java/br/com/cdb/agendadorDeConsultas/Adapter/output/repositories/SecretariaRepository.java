@@ -10,6 +10,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -85,6 +86,18 @@ public class SecretariaRepository implements SecretariaOutputPort {
         }
     }
 
+    @Override
+    public List<Secretaria> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        logger.debug("Buscando {} secretarias por id", ids.size());
+
+        UUID[] array = ids.stream().distinct().toArray(UUID[]::new);
+        String sql = "SELECT * FROM fn_find_secretarias_by_ids(?)";
+        return jdbcTemplate.query(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", array)), secretariaRowMapper);
+    }
+
     @Override
     public void delete(Secretaria secretaria) {
         if (secretaria == null || secretaria.getId() == null) {
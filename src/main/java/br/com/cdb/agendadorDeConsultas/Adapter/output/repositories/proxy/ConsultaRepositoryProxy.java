@@ -1,53 +1,159 @@
 package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
 
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
 import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 public class ConsultaRepositoryProxy implements ConsultaOutputPort {
     private static final Logger logger = LoggerFactory.getLogger(ConsultaRepositoryProxy.class);
 
     private final ConsultaOutputPort realRepository;
-    private final Map<UUID, Consulta> cache = new ConcurrentHashMap<>();
+    private final Cache<UUID, Consulta> cache;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final LongAdder coalescedLoads = new LongAdder();
 
-    public ConsultaRepositoryProxy(ConsultaOutputPort realRepository) {
+    public ConsultaRepositoryProxy(ConsultaOutputPort realRepository, Cache<UUID, Consulta> cache, DoctorScheduleIndex scheduleIndex) {
         this.realRepository = realRepository;
+        this.cache = cache;
+        this.scheduleIndex = scheduleIndex;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Buscas que encontraram a consulta ausente do cache e receberam a carga feita por outra thread, sem ir ao banco.
+    public long coalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public void evict(UUID id) {
+        logger.debug("PROXY: Invalidando cache para a consulta {} (alteração externa).", id);
+        cache.invalidate(id);
+        scheduleIndex.evict(id);
+    }
+
+    public void evictDay(String doctorName, LocalDate day) {
+        logger.debug("PROXY: Descartando a agenda do médico {} em {} (alteração externa).", doctorName, day);
+        scheduleIndex.evictDay(doctorName, day);
+    }
+
+    public void clearCache() {
+        logger.info("PROXY: Limpando o cache de consultas.");
+        cache.invalidateAll();
+        scheduleIndex.clear();
     }
 
     @Override
     public Optional<Consulta> findById(UUID id) {
-        Consulta consultaDoCache = cache.get(id);
-        if (consultaDoCache != null) {
-            logger.info("PROXY HIT: Retornando consulta {} do cache.", id);
-            return Optional.of(consultaDoCache);
+        // cache.get agrupa buscas concorrentes do mesmo id em uma única carga, e uma invalidação (save, evict, NOTIFY)
+        // feita durante a carga espera por ela e então remove a entrada: a linha antiga não volta ao cache.
+        boolean ausente = !cache.asMap().containsKey(id);
+        boolean[] carregou = {false};
+        Consulta consulta = cache.get(id, chave -> {
+            carregou[0] = true;
+            logger.info("PROXY MISS: Consulta {} não encontrada no cache. Buscando no repositório real.", chave);
+            return realRepository.findById(chave).orElse(null);
+        });
+        if (ausente && !carregou[0]) {
+            coalescedLoads.increment();
         }
+        return Optional.ofNullable(consulta);
+    }
+
+    // Acertos vêm do cache; só os ids ausentes vão ao repositório real, em uma única consulta.
+    @Override
+    public List<Consulta> findAllByIds(Collection<UUID> ids) {
+        Map<UUID, Consulta> encontradas = new HashMap<>(cache.getAllPresent(ids));
+        List<UUID> faltantes = ids.stream().distinct().filter(id -> !encontradas.containsKey(id)).toList();
+        logger.info("PROXY: {} consultas encontradas no cache, {} buscadas no repositório real.", encontradas.size(), faltantes.size());
 
-        logger.info("PROXY MISS: Consulta {} não encontrada no cache. Buscando no repositório real.", id);
-        Optional<Consulta> consultaDoBanco = realRepository.findById(id);
-        consultaDoBanco.ifPresent(consulta -> cache.put(id, consulta));
-        return consultaDoBanco;
+        if (!faltantes.isEmpty()) {
+            for (Consulta consulta : realRepository.findAllByIds(faltantes)) {
+                cache.put(consulta.getId(), consulta);
+                encontradas.put(consulta.getId(), consulta);
+            }
+        }
+        return List.copyOf(encontradas.values());
     }
 
     @Override
     public Consulta save(Consulta consulta) {
         logger.info("PROXY: Invalidando cache para a consulta {}.", consulta.getId());
-        cache.remove(consulta.getId());
-        return realRepository.save(consulta);
+        invalidate(consulta);
+        Consulta salva = realRepository.save(consulta);
+        scheduleIndex.record(salva);
+        return salva;
+    }
+
+    @Override
+    public Consulta book(Consulta consulta) {
+        Consulta agendada = realRepository.book(consulta);
+        scheduleIndex.record(agendada);
+        return agendada;
+    }
+
+    @Override
+    public List<Consulta> saveAll(List<Consulta> consultas) {
+        consultas.forEach(this::invalidate);
+        List<Consulta> salvas = realRepository.saveAll(consultas);
+        salvas.stream().filter(Objects::nonNull).forEach(scheduleIndex::record);
+        return salvas;
     }
 
     @Override
     public void delete(Consulta consulta) {
         logger.info("PROXY: Invalidando cache para a consulta {}.", consulta.getId());
-        cache.remove(consulta.getId());
+        invalidate(consulta);
         realRepository.delete(consulta);
+        scheduleIndex.forget(consulta.getId());
+    }
+
+    @Override
+    public boolean isSlotTaken(String doctorName, LocalDateTime dateTime) {
+        if (!DoctorScheduleIndex.covers(dateTime)) {
+            return realRepository.isSlotTaken(doctorName, dateTime);
+        }
+        return scheduleIndex.isTaken(doctorName, dateTime, day -> {
+            logger.debug("PROXY MISS: Carregando agenda do médico {} em {}.", doctorName, day);
+            return realRepository.findByDoctorAndDay(doctorName, day);
+        });
+    }
+
+    @Override
+    public Map<String, List<LocalDateTime>> findBookedSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to) {
+        logger.debug("PROXY: Delegando findBookedSlots para o repositório real.");
+        return realRepository.findBookedSlots(doctorName, speciality, from, to);
+    }
+
+    @Override
+    public List<Consulta> findByDoctorAndDay(String doctorName, LocalDate day) {
+        logger.debug("PROXY: Delegando findByDoctorAndDay para o repositório real.");
+        return realRepository.findByDoctorAndDay(doctorName, day);
+    }
+
+    private void invalidate(Consulta consulta) {
+        // Consultas novas ainda não têm id e, portanto, não estão no cache.
+        if (consulta.getId() != null) {
+            cache.invalidate(consulta.getId());
+        }
     }
 
     @Override
@@ -56,15 +162,51 @@ public class ConsultaRepositoryProxy implements ConsultaOutputPort {
         return realRepository.findAll();
     }
 
+    @Override
+    public List<Consulta> findPage(ConsultaCursor after, int limit) {
+        logger.debug("PROXY: Delegando findPage para o repositório real.");
+        return realRepository.findPage(after, limit);
+    }
+
+    @Override
+    public List<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit) {
+        logger.debug("PROXY: Delegando search para o repositório real.");
+        return realRepository.search(filter, after, limit);
+    }
+
+    @Override
+    public List<Consulta> searchByPatientName(String patientName, int limit) {
+        logger.debug("PROXY: Delegando searchByPatientName para o repositório real.");
+        return realRepository.searchByPatientName(patientName, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<Consulta> action) {
+        logger.debug("PROXY: Delegando streamAll para o repositório real.");
+        realRepository.streamAll(action);
+    }
+
     @Override
     public List<Consulta> findUpcomingConsultas(LocalDateTime now) {
         logger.debug("PROXY: Delegando findUpcomingConsultas para o repositório real.");
         return realRepository.findUpcomingConsultas(now);
     }
 
+    @Override
+    public List<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now) {
+        logger.debug("PROXY: Delegando findUpcomingConsultasAgendadas para o repositório real.");
+        return realRepository.findUpcomingConsultasAgendadas(now);
+    }
+
     @Override
     public List<Consulta> findByDoctorNameAndDateTime(String doctorName, LocalDateTime dateTime) {
         logger.debug("PROXY: Delegando findByDoctorNameAndDateTime para o repositório real.");
         return realRepository.findByDoctorNameAndDateTime(doctorName, dateTime);
     }
+
+    @Override
+    public List<Consulta> findByDoctorSlots(Collection<Consulta> consultas) {
+        logger.debug("PROXY: Delegando findByDoctorSlots para o repositório real.");
+        return realRepository.findByDoctorSlots(consultas);
+    }
 }
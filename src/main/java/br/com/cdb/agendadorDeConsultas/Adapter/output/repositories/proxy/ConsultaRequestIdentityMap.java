@@ -0,0 +1,124 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Cada consulta é carregada no máximo uma vez por requisição HTTP, independentemente do cache global do ConsultaRepositoryProxy.
+public class ConsultaRequestIdentityMap implements ConsultaOutputPort {
+
+    private final ConsultaOutputPort delegate;
+    private final RequestIdentityMap<UUID, Consulta> byId = new RequestIdentityMap<>("consulta");
+
+    public ConsultaRequestIdentityMap(ConsultaOutputPort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<Consulta> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public List<Consulta> findAllByIds(Collection<UUID> ids) {
+        return byId.getAll(ids, delegate::findAllByIds, Consulta::getId);
+    }
+
+    @Override
+    public Consulta save(Consulta consulta) {
+        Consulta salva = delegate.save(consulta);
+        byId.put(salva.getId(), salva);
+        return salva;
+    }
+
+    @Override
+    public Consulta book(Consulta consulta) {
+        Consulta agendada = delegate.book(consulta);
+        byId.put(agendada.getId(), agendada);
+        return agendada;
+    }
+
+    @Override
+    public List<Consulta> saveAll(List<Consulta> consultas) {
+        List<Consulta> salvas = delegate.saveAll(consultas);
+        salvas.stream().filter(Objects::nonNull).forEach(salva -> byId.put(salva.getId(), salva));
+        return salvas;
+    }
+
+    @Override
+    public void delete(Consulta consulta) {
+        delegate.delete(consulta);
+        byId.remove(consulta.getId());
+    }
+
+    @Override
+    public List<Consulta> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Consulta> findPage(ConsultaCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit) {
+        return delegate.search(filter, after, limit);
+    }
+
+    @Override
+    public List<Consulta> searchByPatientName(String patientName, int limit) {
+        return delegate.searchByPatientName(patientName, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<Consulta> action) {
+        delegate.streamAll(action);
+    }
+
+    @Override
+    public List<Consulta> findUpcomingConsultas(LocalDateTime now) {
+        return delegate.findUpcomingConsultas(now);
+    }
+
+    @Override
+    public List<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now) {
+        return delegate.findUpcomingConsultasAgendadas(now);
+    }
+
+    @Override
+    public List<Consulta> findByDoctorNameAndDateTime(String doctorName, LocalDateTime dateTime) {
+        return delegate.findByDoctorNameAndDateTime(doctorName, dateTime);
+    }
+
+    @Override
+    public List<Consulta> findByDoctorSlots(Collection<Consulta> consultas) {
+        return delegate.findByDoctorSlots(consultas);
+    }
+
+    @Override
+    public List<Consulta> findByDoctorAndDay(String doctorName, LocalDate day) {
+        return delegate.findByDoctorAndDay(doctorName, day);
+    }
+
+    @Override
+    public boolean isSlotTaken(String doctorName, LocalDateTime dateTime) {
+        return delegate.isSlotTaken(doctorName, dateTime);
+    }
+
+    @Override
+    public Map<String, List<LocalDateTime>> findBookedSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to) {
+        return delegate.findBookedSlots(doctorName, speciality, from, to);
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.BusinessHours;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Agenda em memória por médico e dia: um bit por minuto do expediente (BusinessHours).
+// É apenas um atalho para a validação; quem garante o horário continua sendo o índice uq_consulta_doctor_slot.
+public class DoctorScheduleIndex {
+
+    static final int SLOTS_PER_DAY = (int) Duration.between(BusinessHours.OPENING, BusinessHours.CLOSING).toMinutes();
+
+    private final Cache<DayKey, DaySchedule> days;
+    // Dia em que cada consulta indexada está marcada, para liberar o bit antigo quando ela muda de horário ou é cancelada.
+    private final ConcurrentMap<UUID, DaySchedule> positions = new ConcurrentHashMap<>();
+
+    public DoctorScheduleIndex(long maximumDays, Duration expireAfterWrite, Ticker ticker) {
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maximumDays)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .<DayKey, DaySchedule>removalListener((key, schedule, cause) -> {
+                    if (schedule != null) {
+                        schedule.ids().forEach(id -> positions.remove(id, schedule));
+                    }
+                })
+                .build();
+    }
+
+    // Só horários em minuto cheio dentro do expediente cabem no bitset; os demais são consultados no banco.
+    static boolean covers(LocalDateTime dateTime) {
+        return dateTime != null
+                && dateTime.getSecond() == 0
+                && dateTime.getNano() == 0
+                && BusinessHours.isOpenAt(dateTime.toLocalTime());
+    }
+
+    boolean isTaken(String doctorName, LocalDateTime dateTime, Function<LocalDate, List<Consulta>> loader) {
+        DayKey key = new DayKey(doctorName, dateTime.toLocalDate());
+        DaySchedule schedule = days.get(key, k -> load(k, loader.apply(k.day())));
+        return schedule.isTaken(slotOf(dateTime));
+    }
+
+    void record(Consulta consulta) {
+        if (consulta == null || consulta.getId() == null) {
+            return;
+        }
+        forget(consulta.getId());
+        if (consulta.getStatus() == StatusConsulta.CANCELADA || consulta.getDoctorName() == null
+                || !covers(consulta.getConsultationDateTime())) {
+            return;
+        }
+        // Dias ainda não carregados serão lidos do banco na primeira verificação, já com esta consulta.
+        DaySchedule schedule = days.getIfPresent(new DayKey(consulta.getDoctorName(), consulta.getConsultationDateTime().toLocalDate()));
+        if (schedule != null) {
+            schedule.occupy(consulta.getId(), slotOf(consulta.getConsultationDateTime()));
+            positions.put(consulta.getId(), schedule);
+        }
+    }
+
+    void forget(UUID id) {
+        DaySchedule previous = positions.remove(id);
+        if (previous != null) {
+            previous.release(id);
+        }
+    }
+
+    // Alteração feita por outro nó: o novo horário é desconhecido, então o dia antigo é descartado e relido depois.
+    void evict(UUID id) {
+        DaySchedule previous = positions.remove(id);
+        if (previous != null) {
+            days.asMap().remove(previous.key(), previous);
+        }
+    }
+
+    // Consulta nova ou remarcada em outro nó: o id não está em positions, então o dia de destino é descartado pela chave.
+    void evictDay(String doctorName, LocalDate day) {
+        days.invalidate(new DayKey(doctorName, day));
+    }
+
+    void clear() {
+        days.invalidateAll();
+        positions.clear();
+    }
+
+    long loadedDays() {
+        return days.estimatedSize();
+    }
+
+    private DaySchedule load(DayKey key, List<Consulta> consultas) {
+        DaySchedule schedule = new DaySchedule(key);
+        for (Consulta consulta : consultas) {
+            if (consulta.getStatus() != StatusConsulta.CANCELADA && covers(consulta.getConsultationDateTime())) {
+                schedule.occupy(consulta.getId(), slotOf(consulta.getConsultationDateTime()));
+                positions.put(consulta.getId(), schedule);
+            }
+        }
+        return schedule;
+    }
+
+    private static int slotOf(LocalDateTime dateTime) {
+        return (int) Duration.between(BusinessHours.OPENING, dateTime.toLocalTime()).toMinutes();
+    }
+
+    private record DayKey(String doctorName, LocalDate day) {
+    }
+
+    private static final class DaySchedule {
+        private final DayKey key;
+        private final BitSet taken = new BitSet(SLOTS_PER_DAY);
+        private final Map<UUID, Integer> slotById = new HashMap<>();
+
+        DaySchedule(DayKey key) {
+            this.key = key;
+        }
+
+        DayKey key() {
+            return key;
+        }
+
+        synchronized boolean isTaken(int slot) {
+            return taken.get(slot);
+        }
+
+        synchronized void occupy(UUID id, int slot) {
+            taken.set(slot);
+            slotById.put(id, slot);
+        }
+
+        synchronized void release(UUID id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                taken.clear(slot);
+            }
+        }
+
+        synchronized List<UUID> ids() {
+            return List.copyOf(slotById.keySet());
+        }
+    }
+}
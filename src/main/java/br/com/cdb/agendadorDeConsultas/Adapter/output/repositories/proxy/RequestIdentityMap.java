@@ -0,0 +1,91 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Mapa de identidade guardado nos atributos da requisição HTTP corrente e descartado com ela.
+// Fora de uma requisição (jobs agendados, listener, threads assíncronas) não memoriza nada e sempre chama o loader.
+class RequestIdentityMap<K, V> {
+
+    private final String attribute;
+
+    RequestIdentityMap(String name) {
+        this.attribute = RequestIdentityMap.class.getName() + "." + name;
+    }
+
+    V get(K key, Function<K, V> loader) {
+        Map<K, V> entries = current();
+        if (entries == null) {
+            return loader.apply(key);
+        }
+        V value = entries.get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    List<V> getAll(Collection<K> keys, Function<List<K>, List<V>> loader, Function<V, K> keyOf) {
+        Map<K, V> entries = current();
+        List<K> distinct = List.copyOf(new LinkedHashSet<>(keys));
+        if (entries == null) {
+            return loader.apply(distinct);
+        }
+        List<V> found = new ArrayList<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : distinct) {
+            V value = entries.get(key);
+            if (value != null) {
+                found.add(value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (V value : loader.apply(missing)) {
+                entries.put(keyOf.apply(value), value);
+                found.add(value);
+            }
+        }
+        return found;
+    }
+
+    void put(K key, V value) {
+        Map<K, V> entries = current();
+        if (entries != null && key != null && value != null) {
+            entries.put(key, value);
+        }
+    }
+
+    void remove(K key) {
+        Map<K, V> entries = current();
+        if (entries != null) {
+            entries.remove(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<K, V> current() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return null;
+        }
+        Map<K, V> entries = (Map<K, V>) request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (entries == null) {
+            entries = new HashMap<>();
+            request.setAttribute(attribute, entries, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entries;
+    }
+}
@@ -2,14 +2,18 @@ package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
 
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
 import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SecretariaRepositoryProxy implements SecretariaOutputPort {
 
@@ -17,57 +21,134 @@ public class SecretariaRepositoryProxy implements SecretariaOutputPort {
 
     private final SecretariaOutputPort realRepository;
 
+    private final Cache<UUID, Secretaria> cacheById;
+    private final Cache<String, Secretaria> cacheByEmail;
+    private final Cache<String, Secretaria> cacheByCpf;
 
-    private final Map<UUID, Secretaria> cacheById = new ConcurrentHashMap<>();
-    private final Map<String, Secretaria> cacheByEmail = new ConcurrentHashMap<>();
-    private final Map<String, Secretaria> cacheByCpf = new ConcurrentHashMap<>();
+    // Caches negativos de vida curta: e-mails e CPFs consultados e não encontrados (cadastros novos).
+    private final Cache<String, Boolean> absentEmails;
+    private final Cache<String, Boolean> absentCpfs;
 
-    public SecretariaRepositoryProxy(SecretariaOutputPort realRepository) {
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    public SecretariaRepositoryProxy(SecretariaOutputPort realRepository,
+                                     Cache<UUID, Secretaria> cacheById,
+                                     Cache<String, Secretaria> cacheByEmail,
+                                     Cache<String, Secretaria> cacheByCpf,
+                                     Cache<String, Boolean> absentEmails,
+                                     Cache<String, Boolean> absentCpfs) {
         this.realRepository = realRepository;
+        this.cacheById = cacheById;
+        this.cacheByEmail = cacheByEmail;
+        this.cacheByCpf = cacheByCpf;
+        this.absentEmails = absentEmails;
+        this.absentCpfs = absentCpfs;
+    }
+
+    // Buscas por id que encontraram a secretária ausente do cache e receberam a carga feita por outra thread.
+    public long coalescedLoads() {
+        return coalescedLoads.sum();
     }
 
     public void clearCache() {
         logger.info("PROXY: Limpando todos os caches.");
-        cacheById.clear();
-        cacheByEmail.clear();
-        cacheByCpf.clear();
+        cacheById.invalidateAll();
+        cacheByEmail.invalidateAll();
+        cacheByCpf.invalidateAll();
+        clearNegativeCaches();
+    }
+
+    public void evict(UUID id) {
+        // remove espera uma carga em andamento do mesmo id (cache.get), então não deixa a versão antiga para trás.
+        Secretaria secretaria = cacheById.asMap().remove(id);
+        if (secretaria != null) {
+            invalidateAllCaches(secretaria);
+        }
+        // A notificação traz só o id; o e-mail/CPF gravado em outro nó pode estar no cache negativo.
+        clearNegativeCaches();
     }
 
     @Override
     public Secretaria findById(UUID id) {
-        if (cacheById.containsKey(id)) {
+        // cache.get agrupa buscas concorrentes do mesmo id em uma única carga, como no ConsultaRepositoryProxy.
+        boolean ausente = !cacheById.asMap().containsKey(id);
+        boolean[] carregou = {false};
+        Secretaria secretaria = cacheById.get(id, chave -> {
+            carregou[0] = true;
+            logger.info("PROXY MISS: Secretaria {} não encontrada no cache. Buscando no repositório real.", chave);
+            return realRepository.findById(chave);
+        });
+        if (!carregou[0]) {
+            if (ausente) {
+                coalescedLoads.increment();
+            }
             logger.info("PROXY HIT: Retornando secretaria {} do cache (por ID).", id);
-            return cacheById.get(id);
-        }
-        logger.info("PROXY MISS: Secretaria {} não encontrada no cache. Buscando no repositório real.", id);
-        Secretaria secretaria = realRepository.findById(id);
-        if (secretaria != null) {
-            updateAllCaches(secretaria);
+        } else if (secretaria != null) {
+            // Fora da carga: os caches por e-mail e CPF são preenchidos depois, e desfeitos se o id foi invalidado no meio.
+            cacheByEmail.put(secretaria.getEmail(), secretaria);
+            cacheByCpf.put(secretaria.getCpf(), secretaria);
+            if (cacheById.asMap().get(id) != secretaria) {
+                cacheByEmail.asMap().remove(secretaria.getEmail(), secretaria);
+                cacheByCpf.asMap().remove(secretaria.getCpf(), secretaria);
+            }
         }
         return secretaria;
     }
 
+    @Override
+    public List<Secretaria> findAllByIds(Collection<UUID> ids) {
+        List<Secretaria> encontradas = new ArrayList<>();
+        List<UUID> faltantes = new ArrayList<>();
+        Map<UUID, Secretaria> emCache = cacheById.getAllPresent(ids);
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            Secretaria secretaria = emCache.get(id);
+            if (secretaria != null) {
+                encontradas.add(secretaria);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        logger.info("PROXY: {} secretarias encontradas no cache, {} buscadas no repositório real.", encontradas.size(), faltantes.size());
+
+        if (!faltantes.isEmpty()) {
+            List<Secretaria> carregadas = realRepository.findAllByIds(faltantes);
+            carregadas.forEach(this::updateAllCaches);
+            encontradas.addAll(carregadas);
+        }
+        return encontradas;
+    }
+
     @Override
     public Optional<Secretaria> findByEmail(String email) {
-        if (cacheByEmail.containsKey(email)) {
+        Secretaria emCache = cacheByEmail.getIfPresent(email);
+        if (emCache != null) {
             logger.info("PROXY HIT: Retornando secretaria do cache (por Email).");
-            return Optional.of(cacheByEmail.get(email));
+            return Optional.of(emCache);
+        }
+        if (absentEmails.getIfPresent(email) != null) {
+            logger.info("PROXY NEGATIVE HIT: Email {} sabidamente não cadastrado.", email);
+            return Optional.empty();
         }
         logger.info("PROXY MISS: Secretaria com email {} não encontrada no cache. Buscando no repositório real.", email);
         Optional<Secretaria> secretaria = realRepository.findByEmail(email);
-        secretaria.ifPresent(this::updateAllCaches);
+        secretaria.ifPresentOrElse(this::updateAllCaches, () -> absentEmails.put(email, Boolean.TRUE));
         return secretaria;
     }
 
     @Override
     public Optional<Secretaria> findByCpf(String cpf) {
-        if (cacheByCpf.containsKey(cpf)) {
+        Secretaria emCache = cacheByCpf.getIfPresent(cpf);
+        if (emCache != null) {
             logger.info("PROXY HIT: Retornando secretaria do cache (por CPF).");
-            return Optional.of(cacheByCpf.get(cpf));
+            return Optional.of(emCache);
+        }
+        if (absentCpfs.getIfPresent(cpf) != null) {
+            logger.info("PROXY NEGATIVE HIT: CPF sabidamente não cadastrado.");
+            return Optional.empty();
         }
         logger.info("PROXY MISS: Secretaria com CPF {} não encontrada no cache. Buscando no repositório real.", cpf);
         Optional<Secretaria> secretaria = realRepository.findByCpf(cpf);
-        secretaria.ifPresent(this::updateAllCaches);
+        secretaria.ifPresentOrElse(this::updateAllCaches, () -> absentCpfs.put(cpf, Boolean.TRUE));
         return secretaria;
     }
 
@@ -75,7 +156,10 @@ public class SecretariaRepositoryProxy implements SecretariaOutputPort {
     public Secretaria save(Secretaria secretaria) {
 
         invalidateAllCaches(secretaria);
-        return realRepository.save(secretaria);
+        Secretaria salva = realRepository.save(secretaria);
+        // De novo após gravar: uma verificação concorrente pode ter marcado o e-mail/CPF como ausente no meio tempo.
+        invalidateNegativeCaches(secretaria);
+        return salva;
     }
 
     @Override
@@ -101,9 +185,28 @@ public class SecretariaRepositoryProxy implements SecretariaOutputPort {
     private void invalidateAllCaches(Secretaria secretaria) {
         if (secretaria != null) {
             logger.info("PROXY: Invalidando todos os caches para a secretaria {}", secretaria.getId());
-            cacheById.remove(secretaria.getId());
-            cacheByEmail.remove(secretaria.getEmail());
-            cacheByCpf.remove(secretaria.getCpf());
+            cacheById.invalidate(secretaria.getId());
+            if (secretaria.getEmail() != null) {
+                cacheByEmail.invalidate(secretaria.getEmail());
+            }
+            if (secretaria.getCpf() != null) {
+                cacheByCpf.invalidate(secretaria.getCpf());
+            }
+            invalidateNegativeCaches(secretaria);
         }
     }
+
+    private void invalidateNegativeCaches(Secretaria secretaria) {
+        if (secretaria.getEmail() != null) {
+            absentEmails.invalidate(secretaria.getEmail());
+        }
+        if (secretaria.getCpf() != null) {
+            absentCpfs.invalidate(secretaria.getCpf());
+        }
+    }
+
+    private void clearNegativeCaches() {
+        absentEmails.invalidateAll();
+        absentCpfs.invalidateAll();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Validador e caso de uso buscam a mesma secretária mais de uma vez por requisição; cada id é carregado uma única vez.
+public class SecretariaRequestIdentityMap implements SecretariaOutputPort {
+
+    private final SecretariaOutputPort delegate;
+    private final RequestIdentityMap<UUID, Secretaria> byId = new RequestIdentityMap<>("secretaria");
+
+    public SecretariaRequestIdentityMap(SecretariaOutputPort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Secretaria save(Secretaria secretaria) {
+        Secretaria salva = delegate.save(secretaria);
+        byId.put(salva.getId(), salva);
+        return salva;
+    }
+
+    @Override
+    public List<Secretaria> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Secretaria findById(UUID id) {
+        return byId.get(id, delegate::findById);
+    }
+
+    @Override
+    public List<Secretaria> findAllByIds(Collection<UUID> ids) {
+        return byId.getAll(ids, delegate::findAllByIds, Secretaria::getId);
+    }
+
+    @Override
+    public void delete(Secretaria secretaria) {
+        delegate.delete(secretaria);
+        byId.remove(secretaria.getId());
+    }
+
+    @Override
+    public Optional<Secretaria> findByEmail(String email) {
+        Optional<Secretaria> secretaria = delegate.findByEmail(email);
+        secretaria.ifPresent(encontrada -> byId.put(encontrada.getId(), encontrada));
+        return secretaria;
+    }
+
+    @Override
+    public Optional<Secretaria> findByCpf(String cpf) {
+        Optional<Secretaria> secretaria = delegate.findByCpf(cpf);
+        secretaria.ifPresent(encontrada -> byId.put(encontrada.getId(), encontrada));
+        return secretaria;
+    }
+}
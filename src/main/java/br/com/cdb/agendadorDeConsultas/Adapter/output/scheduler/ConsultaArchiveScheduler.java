@@ -0,0 +1,64 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Move consultas mais antigas que a idade configurada para consulta_historico (V21), mantendo pequena a tabela usada nos agendamentos.
+@Component
+@ConditionalOnProperty(name = "agendador.arquivamento.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultaArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaArchiveScheduler.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration idadeMinima;
+    private final int tamanhoLote;
+    private final int maximoLotes;
+
+    public ConsultaArchiveScheduler(JdbcTemplate jdbcTemplate,
+                                    @Value("${agendador.arquivamento.idade-minima:180d}") Duration idadeMinima,
+                                    @Value("${agendador.arquivamento.tamanho-lote:1000}") int tamanhoLote,
+                                    @Value("${agendador.arquivamento.maximo-lotes:500}") int maximoLotes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idadeMinima = idadeMinima;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoLotes = maximoLotes;
+    }
+
+    @Scheduled(cron = "${agendador.arquivamento.cron:0 30 3 * * *}")
+    public void arquivarConsultasAntigas() {
+        arquivar(LocalDateTime.now());
+    }
+
+    // Cada lote é uma transação curta; um lote incompleto indica que não há mais consultas a arquivar.
+    int arquivar(LocalDateTime agora) {
+        LocalDateTime antesDe = agora.minus(idadeMinima);
+        int total = 0;
+        try {
+            for (int lote = 0; lote < maximoLotes; lote++) {
+                Integer arquivadas = jdbcTemplate.queryForObject("SELECT fn_arquivar_consultas(?, ?)", Integer.class,
+                        antesDe, tamanhoLote);
+                int movidas = arquivadas == null ? 0 : arquivadas;
+                total += movidas;
+                if (movidas < tamanhoLote) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Falha ao arquivar consultas anteriores a {} após {} consultas arquivadas", antesDe, total, e);
+            return total;
+        }
+        if (total > 0) {
+            logger.info("Arquivadas {} consultas anteriores a {}", total, antesDe);
+        }
+        return total;
+    }
+}
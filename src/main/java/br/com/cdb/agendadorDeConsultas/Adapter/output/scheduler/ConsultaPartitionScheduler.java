@@ -0,0 +1,55 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+// Mantém criadas as partições mensais de consulta (V20) para os próximos meses, evitando que novos agendamentos caiam na partição default.
+@Component
+@ConditionalOnProperty(name = "agendador.particoes.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultaPartitionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaPartitionScheduler.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int mesesAFrente;
+
+    public ConsultaPartitionScheduler(JdbcTemplate jdbcTemplate,
+                                      @Value("${agendador.particoes.meses-a-frente:12}") int mesesAFrente) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mesesAFrente = mesesAFrente;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${agendador.particoes.cron:0 0 3 * * *}")
+    public void criarParticoesFuturas() {
+        criarParticoes(LocalDate.now());
+    }
+
+    int criarParticoes(LocalDate hoje) {
+        LocalDate inicio = hoje.withDayOfMonth(1);
+        LocalDate fim = inicio.plusMonths(mesesAFrente + 1L);
+        try {
+            Integer criadas = jdbcTemplate.queryForObject("SELECT fn_criar_particoes_consulta(?, ?)", Integer.class,
+                    Date.valueOf(inicio), Date.valueOf(fim));
+            int total = criadas == null ? 0 : criadas;
+            if (total > 0) {
+                logger.info("Criadas {} partições mensais de consulta até {}", total, fim);
+            }
+            return total;
+        } catch (RuntimeException e) {
+            // Sem a partição do mês os agendamentos continuam indo para consulta_default; tenta de novo na próxima execução.
+            logger.error("Falha ao criar partições de consulta entre {} e {}", inicio, fim, e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import br.com.cdb.agendadorDeConsultas.port.output.IdempotencyOutputPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Remove as chaves de idempotência (V24) mais antigas que a retenção; depois disso uma repetição executa de novo.
+@Component
+@ConditionalOnProperty(name = "agendador.idempotencia.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyKeyCleanupScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyCleanupScheduler.class);
+
+    private final IdempotencyOutputPort idempotencyOutputPort;
+    private final Duration retencao;
+
+    public IdempotencyKeyCleanupScheduler(IdempotencyOutputPort idempotencyOutputPort,
+                                          @Value("${agendador.idempotencia.retencao:24h}") Duration retencao) {
+        this.idempotencyOutputPort = idempotencyOutputPort;
+        this.retencao = retencao;
+    }
+
+    @Scheduled(cron = "${agendador.idempotencia.cron:0 15 * * * *}")
+    public void removerChavesExpiradas() {
+        limpar(LocalDateTime.now());
+    }
+
+    int limpar(LocalDateTime agora) {
+        LocalDateTime antesDe = agora.minus(retencao);
+        try {
+            int removidas = idempotencyOutputPort.deleteCreatedBefore(antesDe);
+            if (removidas > 0) {
+                logger.info("Removidas {} chaves de idempotência criadas antes de {}", removidas, antesDe);
+            }
+            return removidas;
+        } catch (RuntimeException e) {
+            logger.error("Falha ao remover chaves de idempotência criadas antes de {}", antesDe, e);
+            return 0;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package br.com.cdb.agendadorDeConsultas;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @OpenAPIDefinition(
 		info = @io.swagger.v3.oas.annotations.info.Info(
 				title = "API de Agendamento de Consultas",
@@ -0,0 +1,6 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.time.LocalDateTime;
+
+public record AvailableSlot(String doctorName, LocalDateTime consultationDateTime) {
+}
@@ -0,0 +1,29 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Expediente da clínica: dias úteis, das 08:00 às 18:00 (o horário de fechamento não é agendável), em horários de 30 minutos.
+public final class BusinessHours {
+
+    public static final LocalTime OPENING = LocalTime.of(8, 0);
+    public static final LocalTime CLOSING = LocalTime.of(18, 0);
+    public static final int SLOT_MINUTES = 30;
+
+    private BusinessHours() {
+    }
+
+    public static boolean isWorkingDay(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+    }
+
+    public static boolean isOpenAt(LocalTime time) {
+        return !time.isBefore(OPENING) && time.isBefore(CLOSING);
+    }
+
+    public static boolean isSlotStart(LocalTime time) {
+        return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+public record ConsultaBatchResult(int index, Consulta consulta, String error) {
+
+    public static ConsultaBatchResult created(int index, Consulta consulta) {
+        return new ConsultaBatchResult(index, consulta, null);
+    }
+
+    public static ConsultaBatchResult rejected(int index, String error) {
+        return new ConsultaBatchResult(index, null, error);
+    }
+
+    public boolean success() {
+        return error == null;
+    }
+}
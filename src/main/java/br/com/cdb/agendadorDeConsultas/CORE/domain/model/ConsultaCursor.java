@@ -0,0 +1,11 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ConsultaCursor(LocalDateTime consultationDateTime, UUID id) {
+
+    public static ConsultaCursor of(Consulta consulta) {
+        return new ConsultaCursor(consulta.getConsultationDateTime(), consulta.getId());
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.time.LocalDateTime;
+
+public record ConsultaFilter(String doctorName, String patientNumber, String speciality, StatusConsulta status,
+                             LocalDateTime from, LocalDateTime to) {
+}
@@ -0,0 +1,4 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+public record ConsultaImportRejection(long lineNumber, String reason) {
+}
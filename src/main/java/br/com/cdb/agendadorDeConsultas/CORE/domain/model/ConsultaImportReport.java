@@ -0,0 +1,6 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.util.List;
+
+public record ConsultaImportReport(long totalRows, long importedRows, long rejectedRows, List<ConsultaImportRejection> rejections) {
+}
@@ -0,0 +1,10 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+import java.util.List;
+
+public record ConsultaPage(List<Consulta> consultas, ConsultaCursor nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
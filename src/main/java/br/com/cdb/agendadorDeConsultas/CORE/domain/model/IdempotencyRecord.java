@@ -0,0 +1,9 @@
+package br.com.cdb.agendadorDeConsultas.core.domain.model;
+
+// Resposta guardada para um Idempotency-Key; statusCode nulo enquanto a primeira requisição ainda está em andamento.
+public record IdempotencyRecord(String fingerprint, Integer statusCode, String contentType, String responseBody) {
+
+    public boolean completed() {
+        return statusCode != null;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.port.input.AsyncConsultaInputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// As regras continuam no ConsultaUseCase; aqui as leituras independentes entre si rodam em paralelo no executor dedicado.
+public class AsyncConsultaUseCase implements AsyncConsultaInputPort {
+
+    private final ConsultaUseCase consultaUseCase;
+    private final ConsultaOutputPort consultaOutputPort;
+    private final SecretariaOutputPort secretariaOutputPort;
+    private final Executor executor;
+
+    public AsyncConsultaUseCase(ConsultaUseCase consultaUseCase, ConsultaOutputPort consultaOutputPort,
+                                SecretariaOutputPort secretariaOutputPort, Executor executor) {
+        this.consultaUseCase = consultaUseCase;
+        this.consultaOutputPort = consultaOutputPort;
+        this.secretariaOutputPort = secretariaOutputPort;
+        this.executor = executor;
+    }
+
+    // Secretária e ocupação do horário são buscadas ao mesmo tempo; fn_agendar_consulta ainda decide corridas no banco.
+    @Override
+    public CompletableFuture<Consulta> createConsulta(UUID secretariaId, Consulta consulta) {
+        CompletableFuture<Boolean> horarioOcupado = CompletableFuture.supplyAsync(() -> consultaUseCase.isSlotTaken(consulta), executor);
+
+        return findSecretaria(secretariaId)
+                .thenCombineAsync(horarioOcupado, (secretaria, ocupado) -> consultaUseCase.book(secretaria, consulta, ocupado), executor);
+    }
+
+    @Override
+    public CompletableFuture<Consulta> getConsultaDetails(UUID id) {
+        return CompletableFuture.supplyAsync(() -> consultaUseCase.getConsultaDetails(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<Consulta> canceledConsulta(UUID secretariaId, UUID id) {
+        CompletableFuture<Consulta> consulta = CompletableFuture.supplyAsync(() -> consultaOutputPort.findById(id)
+                .orElseThrow(() -> new RuntimeException("Consulta not found")), executor);
+
+        return findSecretaria(secretariaId)
+                .thenCombineAsync(consulta, consultaUseCase::cancel, executor);
+    }
+
+    // A busca da secretária corre em paralelo com a da consulta original e a escolha do horário do retorno.
+    @Override
+    public CompletableFuture<Consulta> createFollowUpConsulta(UUID secretariaId, UUID originalConsultaId) {
+        CompletableFuture<Consulta> retorno = CompletableFuture
+                .supplyAsync(() -> consultaUseCase.findOriginalConsulta(originalConsultaId), executor)
+                .thenApplyAsync(consultaUseCase::followUpOf, executor);
+
+        return findSecretaria(secretariaId)
+                .thenCombineAsync(retorno, consultaUseCase::book, executor);
+    }
+
+    private CompletableFuture<Secretaria> findSecretaria(UUID secretariaId) {
+        return CompletableFuture.supplyAsync(() -> secretariaOutputPort.findById(secretariaId), executor);
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.port.input.ConsultaImportInputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaImportOutputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public class ConsultaImportUseCase implements ConsultaImportInputPort {
+
+    private final ConsultaImportOutputPort consultaImportOutputPort;
+    private final SecretariaOutputPort secretariaOutputPort;
+
+    public ConsultaImportUseCase(ConsultaImportOutputPort consultaImportOutputPort, SecretariaOutputPort secretariaOutputPort) {
+        this.consultaImportOutputPort = consultaImportOutputPort;
+        this.secretariaOutputPort = secretariaOutputPort;
+    }
+
+    @Override
+    public ConsultaImportReport importConsultas(UUID secretariaId, InputStream csv) {
+        secretariaOutputPort.findById(secretariaId);
+
+        return consultaImportOutputPort.importCsv(secretariaId, csv);
+    }
+}
@@ -1,24 +1,48 @@
 package br.com.cdb.agendadorDeConsultas.core.usecase;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaBatchResult;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
 import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.util.lock.StripedLock;
+import br.com.cdb.agendadorDeConsultas.util.schedule.AvailableSlotFinder;
 import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
 import br.com.cdb.agendadorDeConsultas.port.input.ConsultaInputPort;
 import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
 import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 
 public class ConsultaUseCase implements ConsultaInputPort {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_SLOTS = 50;
+    static final int MAX_SLOT_SEARCH_DAYS = 31;
+    static final int FOLLOW_UP_DAYS = 15;
+    static final int MAX_PATIENT_SEARCH_RESULTS = 50;
+    static final int MIN_PATIENT_SEARCH_LENGTH = 3;
+    static final int MAX_PATIENT_SEARCH_LENGTH = 100;
+    static final int DOCTOR_LOCK_STRIPES = 256;
 
     private final ConsultaOutputPort consultaOutputPort;
     private final SecretariaOutputPort secretariaOutputPort;
     private final ConsultaValidator validator;
+    private final AvailableSlotFinder slotFinder = new AvailableSlotFinder();
+    private final StripedLock doctorDayLocks = new StripedLock(DOCTOR_LOCK_STRIPES);
 
     public ConsultaUseCase(ConsultaOutputPort consultaOutputPort, SecretariaOutputPort secretariaOutputPort, ConsultaValidator validator) {
         this.consultaOutputPort = consultaOutputPort;
@@ -28,12 +52,70 @@ public class ConsultaUseCase implements ConsultaInputPort {
 
     @Override
     public Consulta createConsulta(UUID secretariaId, Consulta consulta) {
-        validator.validateCreate(secretariaId, consulta);
-
-        secretariaOutputPort.findById(secretariaId);
+        validator.validateBooking(consulta);
         consulta.setSecretariaId(secretariaId);
 
-        return consultaOutputPort.save(consulta);
+        return consultaOutputPort.book(consulta);
+    }
+
+    // Variantes do AsyncConsultaUseCase, que já buscou secretária e horário em paralelo.
+    Consulta book(Secretaria secretaria, Consulta consulta, boolean horarioOcupado) {
+        validator.validateCreate(consulta, horarioOcupado);
+        consulta.setSecretariaId(secretaria.getId());
+
+        return consultaOutputPort.book(consulta);
+    }
+
+    // O retorno já sai de um horário livre em findBookedSlots; corridas ficam com fn_agendar_consulta.
+    Consulta book(Secretaria secretaria, Consulta consulta) {
+        validator.validateBooking(consulta);
+        consulta.setSecretariaId(secretaria.getId());
+
+        return consultaOutputPort.book(consulta);
+    }
+
+    // Sem médico ou horário não há o que buscar; validateCreate rejeita a consulta em seguida.
+    boolean isSlotTaken(Consulta consulta) {
+        return consulta.getDoctorName() != null && consulta.getConsultationDateTime() != null
+                && consultaOutputPort.isSlotTaken(consulta.getDoctorName(), consulta.getConsultationDateTime());
+    }
+
+    @Override
+    public List<ConsultaBatchResult> createConsultas(UUID secretariaId, List<Consulta> consultas) {
+        if (consultas == null || consultas.isEmpty()) {
+            throw new BusinessRuleValidationException("O lote de consultas não pode ser vazio.");
+        }
+        if (consultas.size() > MAX_BATCH_SIZE) {
+            throw new BusinessRuleValidationException("O lote pode conter no máximo " + MAX_BATCH_SIZE + " consultas.");
+        }
+
+        Map<Integer, String> errors = validator.validateCreateBatch(secretariaId, consultas);
+
+        List<Consulta> validas = new ArrayList<>();
+        for (int i = 0; i < consultas.size(); i++) {
+            if (!errors.containsKey(i)) {
+                Consulta consulta = consultas.get(i);
+                consulta.setSecretariaId(secretariaId);
+                validas.add(consulta);
+            }
+        }
+        Iterator<Consulta> salvas = validas.isEmpty()
+                ? List.<Consulta>of().iterator()
+                : consultaOutputPort.saveAll(validas).iterator();
+
+        // Um horário ocupado por outra requisição depois da validação volta como null e rejeita só aquele item.
+        List<ConsultaBatchResult> results = new ArrayList<>(consultas.size());
+        for (int i = 0; i < consultas.size(); i++) {
+            if (errors.containsKey(i)) {
+                results.add(ConsultaBatchResult.rejected(i, errors.get(i)));
+                continue;
+            }
+            Consulta salva = salvas.next();
+            results.add(salva == null
+                    ? ConsultaBatchResult.rejected(i, ConsultaValidator.SLOT_CONFLICT_MESSAGE)
+                    : ConsultaBatchResult.created(i, salva));
+        }
+        return results;
     }
 
     public List<Consulta> getConsultas(){
@@ -41,11 +123,99 @@ public class ConsultaUseCase implements ConsultaInputPort {
 
     }
 
+    @Override
+    public ConsultaPage getConsultas(ConsultaCursor cursor, int size) {
+        checkPageSize(size);
+        return toPage(consultaOutputPort.findPage(cursor, size + 1), size);
+    }
+
+    @Override
+    public ConsultaPage searchConsultas(ConsultaFilter filter, ConsultaCursor cursor, int size) {
+        checkPageSize(size);
+        return toPage(consultaOutputPort.search(normalizeFilter(filter), cursor, size + 1), size);
+    }
+
+    @Override
+    public List<Consulta> searchByPatientName(String patientName, int limit) {
+        return consultaOutputPort.searchByPatientName(checkPatientSearch(patientName, limit), limit);
+    }
+
+    // Validações compartilhadas com o ReactiveConsultaUseCase.
+    static ConsultaFilter normalizeFilter(ConsultaFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.to().isAfter(filter.from())) {
+            throw new BusinessRuleValidationException("A data final deve ser posterior à data inicial.");
+        }
+        return new ConsultaFilter(blankToNull(filter.doctorName()), blankToNull(filter.patientNumber()),
+                blankToNull(filter.speciality()), filter.status(), filter.from(), filter.to());
+    }
+
+    static String checkPatientSearch(String patientName, int limit) {
+        String termo = patientName == null ? "" : patientName.trim();
+        // Menos de 3 letras não forma trigramas suficientes para o índice filtrar.
+        if (termo.length() < MIN_PATIENT_SEARCH_LENGTH || termo.length() > MAX_PATIENT_SEARCH_LENGTH) {
+            throw new BusinessRuleValidationException("O nome do paciente deve ter entre " + MIN_PATIENT_SEARCH_LENGTH
+                    + " e " + MAX_PATIENT_SEARCH_LENGTH + " caracteres.");
+        }
+        if (limit < 1 || limit > MAX_PATIENT_SEARCH_RESULTS) {
+            throw new BusinessRuleValidationException("A quantidade de resultados deve estar entre 1 e " + MAX_PATIENT_SEARCH_RESULTS + ".");
+        }
+        return termo;
+    }
+
+    static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessRuleValidationException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    // Busca size + 1 registros: o excedente só indica que há próxima página.
+    static ConsultaPage toPage(List<Consulta> consultas, int size) {
+        if (consultas.size() <= size) {
+            return new ConsultaPage(consultas, null);
+        }
+
+        List<Consulta> pagina = consultas.subList(0, size);
+        return new ConsultaPage(pagina, ConsultaCursor.of(pagina.get(size - 1)));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @Override
+    public void exportConsultas(Consumer<Consulta> action) {
+        consultaOutputPort.streamAll(action);
+    }
+
     public List<Consulta> getUpcomingConsultas() {
-        List<Consulta> upcomingConsultas = consultaOutputPort.findUpcomingConsultas(LocalDateTime.now());
-        return upcomingConsultas.stream()
-                .filter(consulta -> consulta.getStatus() != StatusConsulta.CANCELADA)
-                .toList();
+        return consultaOutputPort.findUpcomingConsultasAgendadas(LocalDateTime.now());
+    }
+
+    @Override
+    public List<AvailableSlot> findAvailableSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to, int limit) {
+        boolean semMedico = doctorName == null || doctorName.isBlank();
+        boolean semEspecialidade = speciality == null || speciality.isBlank();
+        if (semMedico && semEspecialidade) {
+            throw new BusinessRuleValidationException("Informe o nome do médico ou a especialidade.");
+        }
+        if (limit < 1 || limit > MAX_SLOTS) {
+            throw new BusinessRuleValidationException("A quantidade de horários deve estar entre 1 e " + MAX_SLOTS + ".");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inicio = from == null || from.isBefore(agora) ? agora : from;
+        LocalDateTime fim = to == null ? inicio.plusDays(MAX_SLOT_SEARCH_DAYS) : to;
+        if (!fim.isAfter(inicio)) {
+            throw new BusinessRuleValidationException("A data final deve ser posterior à data inicial.");
+        }
+        if (fim.isAfter(inicio.plusDays(MAX_SLOT_SEARCH_DAYS))) {
+            throw new BusinessRuleValidationException("O intervalo de busca pode ter no máximo " + MAX_SLOT_SEARCH_DAYS + " dias.");
+        }
+
+        // O médico, quando informado, tem precedência sobre a especialidade.
+        Map<String, List<LocalDateTime>> ocupados = consultaOutputPort.findBookedSlots(
+                semMedico ? null : doctorName, semMedico ? speciality : null, inicio, fim);
+        return slotFinder.find(ocupados, inicio, fim, limit);
     }
 
     public Consulta getConsultaDetails( UUID id) {
@@ -59,16 +229,37 @@ public class ConsultaUseCase implements ConsultaInputPort {
         Consulta consulta = consultaOutputPort.findById(id)
                 .orElseThrow(() -> new RuntimeException("Consulta not found"));
 
-        validator.validateUpdate(secretariaId, consulta, request);
+        // Campos nulos no request mantêm o valor atual da consulta.
+        String medico = Objects.requireNonNullElse(request.doctorName(), consulta.getDoctorName());
+        LocalDateTime horario = Objects.requireNonNullElse(request.consultationDateTime(), consulta.getConsultationDateTime());
 
-        consulta.setDoctorName(request.doctorName());
-        consulta.setPatientName(request.patientName());
-        consulta.setPatientNumber(request.patientNumber());
-        consulta.setConsultationDateTime(request.consultationDateTime());
+        // A checagem de horário em validateUpdate e o save não são atômicos: trava o dia de origem e o de destino,
+        // pois a consulta sai de uma agenda e entra na outra. O agendamento (book) já é atômico no banco e não trava.
+        Object[] agendas = {
+                doctorDayKey(consulta.getDoctorName(), consulta.getConsultationDateTime()),
+                doctorDayKey(medico, horario)
+        };
+        return doctorDayLocks.withLocks(agendas, () -> {
+            validator.validateUpdate(secretariaId, consulta, request);
 
-        consulta.setSecretariaId(secretariaId);
+            consulta.setDoctorName(medico);
+            consulta.setPatientName(Objects.requireNonNullElse(request.patientName(), consulta.getPatientName()));
+            consulta.setPatientNumber(Objects.requireNonNullElse(request.patientNumber(), consulta.getPatientNumber()));
+            consulta.setConsultationDateTime(horario);
 
-        return consultaOutputPort.save(consulta);
+            consulta.setSecretariaId(secretariaId);
+
+            return consultaOutputPort.save(consulta);
+        });
+    }
+
+    // Publicado como métricas em BeansConfig; o índice único no banco segue valendo entre nós.
+    public StripedLock.Stats doctorLockStats() {
+        return doctorDayLocks.stats();
+    }
+
+    private static String doctorDayKey(String doctorName, LocalDateTime dateTime) {
+        return doctorName + "|" + dateTime.toLocalDate();
     }
 
     @Override
@@ -77,6 +268,10 @@ public class ConsultaUseCase implements ConsultaInputPort {
         Consulta consulta = consultaOutputPort.findById(id)
                 .orElseThrow(() -> new RuntimeException("Consulta not found"));
 
+        return cancel(secretariaId, consulta);
+    }
+
+    Consulta cancel(UUID secretariaId, Consulta consulta) {
         validator.validateCancelOrDelete(secretariaId, consulta);
 
         consulta.setStatus(StatusConsulta.CANCELADA);
@@ -85,6 +280,15 @@ public class ConsultaUseCase implements ConsultaInputPort {
         return consultaOutputPort.save(consulta);
     }
 
+    Consulta cancel(Secretaria secretaria, Consulta consulta) {
+        validator.validateCancelOrDelete(secretaria, consulta);
+
+        consulta.setStatus(StatusConsulta.CANCELADA);
+        consulta.setSecretariaId(secretaria.getId());
+
+        return consultaOutputPort.save(consulta);
+    }
+
     @Override
     public void deleteConsulta(UUID secretariaId, UUID id) {
         Consulta consulta = consultaOutputPort.findById(id)
@@ -97,18 +301,36 @@ public class ConsultaUseCase implements ConsultaInputPort {
 
     @Override
     public Consulta createFollowUpConsulta(UUID secretariaId, UUID originalConsultaId) {
-        Consulta originalConsulta = consultaOutputPort.findById(originalConsultaId)
+        return createConsulta(secretariaId, followUpOf(findOriginalConsulta(originalConsultaId)));
+    }
+
+    Consulta findOriginalConsulta(UUID originalConsultaId) {
+        return consultaOutputPort.findById(originalConsultaId)
                 .orElseThrow(() -> new BusinessRuleValidationException("Consulta original não encontrada"));
+    }
 
+    Consulta followUpOf(Consulta originalConsulta) {
             Consulta retorno = originalConsulta.clone();
 
             retorno.setId(null);
             retorno.setStatus(StatusConsulta.AGENDADA);
             retorno.setDescription("Consulta de Retorno - " + originalConsulta.getDescription());
-            retorno.setConsultationDateTime(LocalDateTime.now().plusDays(15).withHour(10).withMinute(0));
+            retorno.setConsultationDateTime(findFollowUpSlot(originalConsulta.getDoctorName()));
 
-        return createConsulta(secretariaId, retorno);
+        return retorno;
     }
 
-
+    // Primeiro horário livre do médico a partir do alvo (15 dias, 10:00), com os horários ocupados lidos de uma só vez.
+    private LocalDateTime findFollowUpSlot(String doctorName) {
+        LocalDateTime alvo = LocalDateTime.now().plusDays(FOLLOW_UP_DAYS).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime limite = alvo.plusDays(MAX_SLOT_SEARCH_DAYS);
+
+        List<LocalDateTime> ocupados = consultaOutputPort.findBookedSlots(doctorName, null, alvo, limite)
+                .getOrDefault(doctorName, List.of());
+        return slotFinder.find(Map.of(doctorName, ocupados), alvo, limite, 1).stream()
+                .findFirst()
+                .map(AvailableSlot::consultationDateTime)
+                .orElseThrow(() -> new BusinessRuleValidationException(
+                        "Nenhum horário livre encontrado para o retorno nos próximos " + MAX_SLOT_SEARCH_DAYS + " dias a partir da data prevista."));
+    }
 }
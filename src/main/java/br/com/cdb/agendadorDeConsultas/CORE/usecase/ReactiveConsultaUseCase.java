@@ -0,0 +1,75 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
+import br.com.cdb.agendadorDeConsultas.port.input.ReactiveConsultaInputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.ReactiveConsultaOutputPort;
+import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase.checkPageSize;
+import static br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase.checkPatientSearch;
+import static br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase.normalizeFilter;
+import static br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase.toPage;
+
+// Mesmas regras do ConsultaUseCase; as validações rodam na assinatura e chegam ao cliente como erro do Mono/Flux.
+public class ReactiveConsultaUseCase implements ReactiveConsultaInputPort {
+
+    private final ReactiveConsultaOutputPort consultaOutputPort;
+    private final ConsultaValidator validator;
+
+    public ReactiveConsultaUseCase(ReactiveConsultaOutputPort consultaOutputPort, ConsultaValidator validator) {
+        this.consultaOutputPort = consultaOutputPort;
+        this.validator = validator;
+    }
+
+    @Override
+    public Mono<Consulta> createConsulta(UUID secretariaId, Consulta consulta) {
+        return Mono.defer(() -> {
+            validator.validateBooking(consulta);
+            consulta.setSecretariaId(secretariaId);
+
+            return consultaOutputPort.book(consulta);
+        });
+    }
+
+    @Override
+    public Mono<ConsultaPage> getConsultas(ConsultaCursor cursor, int size) {
+        return Mono.defer(() -> {
+            checkPageSize(size);
+            return consultaOutputPort.findPage(cursor, size + 1).collectList()
+                    .map(consultas -> toPage(consultas, size));
+        });
+    }
+
+    @Override
+    public Mono<ConsultaPage> searchConsultas(ConsultaFilter filter, ConsultaCursor cursor, int size) {
+        return Mono.defer(() -> {
+            checkPageSize(size);
+            return consultaOutputPort.search(normalizeFilter(filter), cursor, size + 1).collectList()
+                    .map(consultas -> toPage(consultas, size));
+        });
+    }
+
+    @Override
+    public Flux<Consulta> searchByPatientName(String patientName, int limit) {
+        return Flux.defer(() -> consultaOutputPort.searchByPatientName(checkPatientSearch(patientName, limit), limit));
+    }
+
+    @Override
+    public Flux<Consulta> getUpcomingConsultas() {
+        return Flux.defer(() -> consultaOutputPort.findUpcomingConsultasAgendadas(LocalDateTime.now()));
+    }
+
+    @Override
+    public Mono<Consulta> getConsultaDetails(UUID id) {
+        return consultaOutputPort.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Consulta not found")));
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.port.input.ReactiveSecretariaInputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.ReactiveSecretariaOutputPort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public class ReactiveSecretariaUseCase implements ReactiveSecretariaInputPort {
+
+    private final ReactiveSecretariaOutputPort secretariaOutputPort;
+
+    public ReactiveSecretariaUseCase(ReactiveSecretariaOutputPort secretariaOutputPort) {
+        this.secretariaOutputPort = secretariaOutputPort;
+    }
+
+    @Override
+    public Flux<Secretaria> findAll() {
+        return secretariaOutputPort.findAll();
+    }
+
+    @Override
+    public Mono<Secretaria> findById(UUID id) {
+        return secretariaOutputPort.findById(id);
+    }
+}
@@ -3,19 +3,39 @@ package br.com.cdb.agendadorDeConsultas.infrastructure;
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaRepository;
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.SecretariaRepository;
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.ConsultaRepositoryProxy;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.ConsultaRequestIdentityMap;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.DoctorScheduleIndex;
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.SecretariaRepositoryProxy;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.SecretariaRequestIdentityMap;
+import br.com.cdb.agendadorDeConsultas.core.usecase.AsyncConsultaUseCase;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaImportUseCase;
 import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase;
 import br.com.cdb.agendadorDeConsultas.core.usecase.SecretariaUseCase;
 import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
 import br.com.cdb.agendadorDeConsultas.util.validation.SecretariaValidator;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaImportOutputPort;
 import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
 import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class BeansConfig {
 
@@ -37,16 +57,79 @@ public class BeansConfig {
         return new SecretariaValidator(secretariaOutputPort, passwordEncoder);
     }
 
+    @Bean
+    public Ticker cacheTicker() {
+        return Ticker.systemTicker();
+    }
+
+    @Bean
+    public ConsultaRepositoryProxy consultaOutputPortProxy(
+            ConsultaRepository consultaRepository,
+            Ticker cacheTicker,
+            @Value("${agendador.cache.consulta.maximum-size:10000}") long maximumSize,
+            @Value("${agendador.cache.consulta.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${agendador.cache.agenda.maximum-days:10000}") long agendaMaximumDays,
+            @Value("${agendador.cache.agenda.expire-after-write:5m}") Duration agendaExpireAfterWrite) {
+        // Caffeine usa W-TinyLFU: a evicção por tamanho considera a frequência de acesso, não só a recência.
+        return new ConsultaRepositoryProxy(consultaRepository, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(cacheTicker)
+                .recordStats()
+                .build(),
+                new DoctorScheduleIndex(agendaMaximumDays, agendaExpireAfterWrite, cacheTicker));
+    }
+
+    @Bean
+    public SecretariaRepositoryProxy secretariaOutputPortProxy(
+            SecretariaRepository secretariaRepository,
+            Ticker cacheTicker,
+            @Value("${agendador.cache.secretaria.maximum-size:10000}") long maximumSize,
+            @Value("${agendador.cache.secretaria.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${agendador.cache.secretaria.negative-ttl:30s}") Duration negativeTtl) {
+        return new SecretariaRepositoryProxy(secretariaRepository,
+                cache(cacheTicker, maximumSize, expireAfterWrite),
+                cache(cacheTicker, maximumSize, expireAfterWrite),
+                cache(cacheTicker, maximumSize, expireAfterWrite),
+                cache(cacheTicker, 10_000, negativeTtl),
+                cache(cacheTicker, 10_000, negativeTtl));
+    }
+
+    // Mapas de identidade por requisição na frente dos caches globais: são estes os ports injetados nos casos de uso.
     @Bean
     @Primary
-    public ConsultaOutputPort consultaOutputPortProxy(ConsultaRepository consultaRepository) {
-        return new ConsultaRepositoryProxy(consultaRepository);
+    public ConsultaRequestIdentityMap consultaRequestIdentityMap(ConsultaRepositoryProxy consultaOutputPortProxy) {
+        return new ConsultaRequestIdentityMap(consultaOutputPortProxy);
     }
 
     @Bean
     @Primary
-    public SecretariaOutputPort secretariaOutputPortProxy(SecretariaRepository secretariaRepository) {
-        return new SecretariaRepositoryProxy(secretariaRepository);
+    public SecretariaRequestIdentityMap secretariaRequestIdentityMap(SecretariaRepositoryProxy secretariaOutputPortProxy) {
+        return new SecretariaRequestIdentityMap(secretariaOutputPortProxy);
+    }
+
+    private <K, V> Cache<K, V> cache(Ticker ticker, long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    // Buscas por id que aguardaram a carga de outra thread em vez de irem ao banco.
+    @Bean
+    public MeterBinder repositoryProxyMetrics(ConsultaRepositoryProxy consultaOutputPortProxy,
+                                              SecretariaRepositoryProxy secretariaOutputPortProxy) {
+        return registry -> {
+            FunctionCounter.builder("agendador.cache.cargas.agrupadas", consultaOutputPortProxy, ConsultaRepositoryProxy::coalescedLoads)
+                    .tag("cache", "consulta")
+                    .description("Buscas por id atendidas pela carga em andamento de outra thread")
+                    .register(registry);
+            FunctionCounter.builder("agendador.cache.cargas.agrupadas", secretariaOutputPortProxy, SecretariaRepositoryProxy::coalescedLoads)
+                    .tag("cache", "secretaria")
+                    .description("Buscas por id atendidas pela carga em andamento de outra thread")
+                    .register(registry);
+        };
     }
 
 
@@ -55,6 +138,59 @@ public class BeansConfig {
         return new ConsultaUseCase(consultaOutputPort, secretariaOutputPort, consultaValidator);
     }
 
+    // Espera pelos locks de agenda (médico + dia) em /actuator/metrics; o caso de uso fica livre do Micrometer.
+    @Bean
+    public MeterBinder consultaLockMetrics(ConsultaUseCase consultaUseCaseImpl) {
+        return registry -> {
+            FunctionCounter.builder("agendador.consulta.lock.aquisicoes", consultaUseCaseImpl,
+                            useCase -> useCase.doctorLockStats().acquisitions())
+                    .description("Aquisições dos locks de agenda por médico e dia")
+                    .register(registry);
+            FunctionTimer.builder("agendador.consulta.lock.espera", consultaUseCaseImpl,
+                            useCase -> useCase.doctorLockStats().contended(),
+                            useCase -> useCase.doctorLockStats().totalWait().toNanos(), TimeUnit.NANOSECONDS)
+                    .description("Aquisições que esperaram por outro agendamento e o tempo total de espera")
+                    .register(registry);
+            TimeGauge.builder("agendador.consulta.lock.espera.maxima", consultaUseCaseImpl, TimeUnit.NANOSECONDS,
+                            useCase -> useCase.doctorLockStats().maxWait().toNanos())
+                    .description("Maior espera por um lock de agenda desde o início")
+                    .register(registry);
+        };
+    }
+
+    // Executor próprio para o AsyncConsultaUseCase; com spring.task.execution.mode=force o applicationTaskExecutor do Boot continua existindo.
+    @Bean
+    public AsyncTaskExecutor consultaAsyncExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${agendador.async.pool-size:8}") int poolSize,
+            @Value("${agendador.async.queue-capacity:500}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("consulta-async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("consulta-async-");
+        return executor;
+    }
+
+    @Bean
+    public AsyncConsultaUseCase asyncConsultaUseCaseImpl(
+            ConsultaUseCase consultaUseCaseImpl,
+            ConsultaOutputPort consultaOutputPort,
+            SecretariaOutputPort secretariaOutputPort,
+            AsyncTaskExecutor consultaAsyncExecutor) {
+        return new AsyncConsultaUseCase(consultaUseCaseImpl, consultaOutputPort, secretariaOutputPort, consultaAsyncExecutor);
+    }
+
+    @Bean
+    public ConsultaImportUseCase consultaImportUseCaseImpl(ConsultaImportOutputPort consultaImportOutputPort, SecretariaOutputPort secretariaOutputPort){
+        return new ConsultaImportUseCase(consultaImportOutputPort, secretariaOutputPort);
+    }
+
     @Bean
     public SecretariaUseCase secretariaUseCaseImpl(
             SecretariaOutputPort secretariaOutputPort,
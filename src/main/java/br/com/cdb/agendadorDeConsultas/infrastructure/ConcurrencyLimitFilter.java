@@ -0,0 +1,141 @@
+package br.com.cdb.agendadorDeConsultas.infrastructure;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Com virtual threads o Tomcat deixa de limitar as requisições simultâneas; sem este filtro todas disputariam as
+// conexões do pool do Hikari e esperariam lá até o connection-timeout. O limite padrão é o tamanho do pool.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "agendador.concorrencia.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    static final int DEFAULT_LIMIT = 10;
+    static final String OVERLOADED_BODY = "{\"status\":503,\"error\":\"Serviço Indisponível\","
+            + "\"message\":\"Servidor sobrecarregado. Tente novamente em instantes.\"}";
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    @Autowired
+    public ConcurrencyLimitFilter(
+            DataSource dataSource,
+            @Value("${agendador.concorrencia.max-requisicoes:0}") int maxRequisicoes,
+            @Value("${agendador.concorrencia.espera-maxima:2s}") Duration esperaMaxima) {
+        this(maxRequisicoes > 0 ? maxRequisicoes : poolSize(dataSource), esperaMaxima);
+    }
+
+    ConcurrencyLimitFilter(int limit, Duration maxWait) {
+        this.permits = new Semaphore(limit, true);
+        this.maxWait = maxWait;
+        logger.info("Limitando a {} requisições simultâneas (espera máxima de {})", limit, maxWait);
+    }
+
+    static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.warn("Não foi possível ler o tamanho do pool de conexões; usando {}", DEFAULT_LIMIT, e);
+        }
+        return DEFAULT_LIMIT;
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            logger.warn("Requisição {} {} rejeitada: limite de concorrência atingido", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(OVERLOADED_BODY);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    // Esperar estaciona a virtual thread sem ocupar uma thread de plataforma.
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Requisições assíncronas (/consultas/async, /reactive, exportação NDJSON) continuam usando conexões depois que o
+    // primeiro dispatch retorna; a permissão só volta quando o processamento assíncrono termina.
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationExce
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -21,8 +22,9 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
-    @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<Object> handleEntityNotFoundException(EntityNotFoundException ex) {
+    // Um EntityNotFoundException lançado por um @Repository chega aqui traduzido pelo Spring em JpaObjectRetrievalFailureException.
+    @ExceptionHandler({EntityNotFoundException.class, JpaObjectRetrievalFailureException.class})
+    public ResponseEntity<Object> handleEntityNotFoundException(RuntimeException ex) {
         Map<String, Object> body = Map.of(
                 "status", HttpStatus.NOT_FOUND.value(),
                 "error", "Recurso Não Encontrado",
@@ -0,0 +1,261 @@
+package br.com.cdb.agendadorDeConsultas.infrastructure;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.IdempotencyRecord;
+import br.com.cdb.agendadorDeConsultas.port.output.IdempotencyOutputPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Clientes móveis repetem o POST de agendamento após timeout. Com o cabeçalho Idempotency-Key a primeira resposta
+// é guardada (V24) e devolvida nas repetições sem executar o caso de uso de novo; as mais recentes ficam também em memória.
+@Component
+@ConditionalOnProperty(name = "agendador.idempotencia.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    // POST /consultas/{secretariaId} e POST /consultas/{secretariaId}/{originalConsultaId}/retorno
+    static final Pattern IDEMPOTENT_PATHS = Pattern.compile(
+            "/consultas/[0-9a-fA-F-]{36}(/[0-9a-fA-F-]{36}/retorno)?");
+
+    static final String INVALID_KEY_BODY = "{\"status\":400,\"error\":\"Requisição Inválida\","
+            + "\"message\":\"O cabeçalho Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.\"}";
+    static final String IN_PROGRESS_BODY = "{\"status\":409,\"error\":\"Conflito\","
+            + "\"message\":\"Uma requisição com este Idempotency-Key ainda está em andamento. Tente novamente em instantes.\"}";
+    static final String KEY_REUSED_BODY = "{\"status\":422,\"error\":\"Requisição Não Processável\","
+            + "\"message\":\"Este Idempotency-Key já foi usado com outra requisição.\"}";
+    static final String BODY_TOO_LARGE_BODY = "{\"status\":413,\"error\":\"Conteúdo Muito Grande\","
+            + "\"message\":\"O corpo da requisição excede o tamanho aceito para agendamentos.\"}";
+
+    private final IdempotencyOutputPort idempotencyOutputPort;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final Duration abandonAfter;
+    private final int maxBodySize;
+
+    @Autowired
+    public IdempotencyFilter(
+            IdempotencyOutputPort idempotencyOutputPort,
+            @Value("${agendador.idempotencia.cache.maximum-size:10000}") long maximumSize,
+            @Value("${agendador.idempotencia.retencao:24h}") Duration retencao,
+            @Value("${agendador.idempotencia.em-andamento-expira:1m}") Duration emAndamentoExpira,
+            @Value("${agendador.idempotencia.tamanho-maximo-corpo:64KB}") DataSize tamanhoMaximoCorpo) {
+        this(idempotencyOutputPort, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retencao)
+                .<String, IdempotencyRecord>build(), emAndamentoExpira, Math.toIntExact(tamanhoMaximoCorpo.toBytes()));
+    }
+
+    IdempotencyFilter(IdempotencyOutputPort idempotencyOutputPort, Cache<String, IdempotencyRecord> completed,
+                      Duration abandonAfter, int maxBodySize) {
+        this.idempotencyOutputPort = idempotencyOutputPort;
+        this.completed = completed;
+        this.abandonAfter = abandonAfter;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !IDEMPOTENT_PATHS.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, INVALID_KEY_BODY);
+            return;
+        }
+
+        byte[] body = readBody(request);
+        if (body == null) {
+            logger.warn("Idempotency-Key {}: corpo acima de {} bytes; respondendo 413", key, maxBodySize);
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, BODY_TOO_LARGE_BODY);
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+
+        IdempotencyRecord emMemoria = completed.getIfPresent(key);
+        if (emMemoria != null) {
+            replayOrReject(key, fingerprint, emMemoria, response);
+            return;
+        }
+
+        if (!idempotencyOutputPort.tryReserve(key, fingerprint, LocalDateTime.now().minus(abandonAfter))) {
+            Optional<IdempotencyRecord> existente = idempotencyOutputPort.find(key);
+            if (existente.isPresent() && existente.get().completed()) {
+                completed.put(key, existente.get());
+                replayOrReject(key, fingerprint, existente.get(), response);
+            } else {
+                logger.info("Idempotency-Key {} ainda em andamento; respondendo 409", key);
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpStatus.CONFLICT, IN_PROGRESS_BODY);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyOutputPort.release(key);
+            throw e;
+        }
+        store(key, fingerprint, wrapper);
+        wrapper.copyBodyToResponse();
+    }
+
+    // O corpo inteiro fica em memória para o fingerprint. Acima do limite devolve null: pelo Content-Length, sem ler nada,
+    // ou assim que a leitura ultrapassa o limite.
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxBodySize) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        return body.length > maxBodySize ? null : body;
+    }
+
+    // Erros 5xx não são guardados: a chave é liberada para que a repetição execute de novo.
+    private void store(String key, String fingerprint, ContentCachingResponseWrapper wrapper) {
+        try {
+            int status = wrapper.getStatus();
+            if (status >= 500) {
+                idempotencyOutputPort.release(key);
+                return;
+            }
+            IdempotencyRecord resposta = new IdempotencyRecord(fingerprint, status, wrapper.getContentType(),
+                    new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+            idempotencyOutputPort.complete(key, status, resposta.contentType(), resposta.responseBody());
+            completed.put(key, resposta);
+        } catch (RuntimeException e) {
+            logger.error("Falha ao guardar a resposta do Idempotency-Key {}; a chave expira em {}", key, abandonAfter, e);
+        }
+    }
+
+    private void replayOrReject(String key, String fingerprint, IdempotencyRecord resposta, HttpServletResponse response)
+            throws IOException {
+        if (!resposta.fingerprint().equals(fingerprint)) {
+            logger.warn("Idempotency-Key {} reutilizado com outra requisição", key);
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED_BODY);
+            return;
+        }
+        logger.info("Repetição do Idempotency-Key {}: devolvendo a resposta guardada ({})", key, resposta.statusCode());
+        response.setStatus(resposta.statusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (resposta.contentType() != null) {
+            response.setContentType(resposta.contentType());
+        }
+        if (resposta.responseBody() != null) {
+            response.getOutputStream().write(resposta.responseBody().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(body);
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // O corpo já foi lido para o fingerprint; o controller recebe uma cópia em memória.
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Todo o corpo já está em memória: os dados estão disponíveis e completos assim que o listener é registrado.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.cdb.agendadorDeConsultas.infrastructure;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaR2dbcRepository;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.SecretariaR2dbcRepository;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ReactiveConsultaUseCase;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ReactiveSecretariaUseCase;
+import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// O pool R2DBC não é exposto como ConnectionFactory: o Spring Boot deixaria de criar o DataSource JDBC se houvesse um.
+@Configuration
+@ConditionalOnProperty(name = "agendador.reactive.enabled", havingValue = "true")
+public class ReactiveConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${agendador.reactive.url:}") String url,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${agendador.reactive.pool.initial-size:1}") int initialSize,
+            @Value("${agendador.reactive.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url.isBlank() ? toR2dbcUrl(jdbcUrl) : url)
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    static String toR2dbcUrl(String jdbcUrl) {
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+    }
+
+    @Bean
+    public ConsultaR2dbcRepository consultaR2dbcRepository(DatabaseClient reactiveDatabaseClient, ConsultaMapper consultaMapper) {
+        return new ConsultaR2dbcRepository(reactiveDatabaseClient, consultaMapper);
+    }
+
+    @Bean
+    public SecretariaR2dbcRepository secretariaR2dbcRepository(DatabaseClient reactiveDatabaseClient) {
+        return new SecretariaR2dbcRepository(reactiveDatabaseClient);
+    }
+
+    @Bean
+    public ReactiveConsultaUseCase reactiveConsultaUseCaseImpl(ConsultaR2dbcRepository consultaR2dbcRepository, ConsultaValidator consultaValidator) {
+        return new ReactiveConsultaUseCase(consultaR2dbcRepository, consultaValidator);
+    }
+
+    @Bean
+    public ReactiveSecretariaUseCase reactiveSecretariaUseCaseImpl(SecretariaR2dbcRepository secretariaR2dbcRepository) {
+        return new ReactiveSecretariaUseCase(secretariaR2dbcRepository);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
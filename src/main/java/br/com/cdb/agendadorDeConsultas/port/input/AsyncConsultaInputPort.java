@@ -0,0 +1,13 @@
+package br.com.cdb.agendadorDeConsultas.port.input;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncConsultaInputPort {
+    CompletableFuture<Consulta> createConsulta(UUID secretariaId, Consulta consulta);
+    CompletableFuture<Consulta> getConsultaDetails(UUID id);
+    CompletableFuture<Consulta> canceledConsulta(UUID secretariaId, UUID id);
+    CompletableFuture<Consulta> createFollowUpConsulta(UUID secretariaId, UUID originalConsultaId);
+}
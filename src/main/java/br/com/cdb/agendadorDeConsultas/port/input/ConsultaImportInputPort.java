@@ -0,0 +1,10 @@
+package br.com.cdb.agendadorDeConsultas.port.input;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface ConsultaImportInputPort {
+    ConsultaImportReport importConsultas(UUID secretariaId, InputStream csv);
+}
@@ -1,15 +1,28 @@
 package br.com.cdb.agendadorDeConsultas.port.input;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaBatchResult;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ConsultaInputPort {
     public Consulta createConsulta(UUID secretariaId,Consulta Consulta);
+    public List<ConsultaBatchResult> createConsultas(UUID secretariaId, List<Consulta> consultas);
     public List<Consulta> getConsultas();
+    public ConsultaPage getConsultas(ConsultaCursor cursor, int size);
+    public ConsultaPage searchConsultas(ConsultaFilter filter, ConsultaCursor cursor, int size);
+    public List<Consulta> searchByPatientName(String patientName, int limit);
+    public void exportConsultas(Consumer<Consulta> action);
     public List<Consulta> getUpcomingConsultas();
+    public List<AvailableSlot> findAvailableSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to, int limit);
     public Consulta getConsultaDetails( UUID id);
     public Consulta updateConsulta( UUID secretariaId,UUID id, ConsultaUpdate request);
     public Consulta canceledConsulta(UUID secretariaId,UUID id);
@@ -0,0 +1,19 @@
+package br.com.cdb.agendadorDeConsultas.port.input;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveConsultaInputPort {
+    Mono<Consulta> createConsulta(UUID secretariaId, Consulta consulta);
+    Mono<ConsultaPage> getConsultas(ConsultaCursor cursor, int size);
+    Mono<ConsultaPage> searchConsultas(ConsultaFilter filter, ConsultaCursor cursor, int size);
+    Flux<Consulta> searchByPatientName(String patientName, int limit);
+    Flux<Consulta> getUpcomingConsultas();
+    Mono<Consulta> getConsultaDetails(UUID id);
+}
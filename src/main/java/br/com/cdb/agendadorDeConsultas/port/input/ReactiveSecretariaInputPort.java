@@ -0,0 +1,13 @@
+package br.com.cdb.agendadorDeConsultas.port.input;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveSecretariaInputPort {
+
+    Flux<Secretaria> findAll();
+    Mono<Secretaria> findById(UUID id);
+}
@@ -0,0 +1,10 @@
+package br.com.cdb.agendadorDeConsultas.port.output;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface ConsultaImportOutputPort {
+    ConsultaImportReport importCsv(UUID secretariaId, InputStream csv);
+}
@@ -1,18 +1,38 @@
 package br.com.cdb.agendadorDeConsultas.port.output;
 
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ConsultaOutputPort {
     Consulta save(Consulta consulta);
+    Consulta book(Consulta consulta);
+    // Insere consultas novas; a posição de quem encontrou o horário já ocupado volta como null.
+    List<Consulta> saveAll(List<Consulta> consultas);
     List<Consulta> findAll();
+    List<Consulta> findPage(ConsultaCursor after, int limit);
+    List<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit);
+    List<Consulta> searchByPatientName(String patientName, int limit);
+    void streamAll(Consumer<Consulta> action);
     List<Consulta> findUpcomingConsultas(LocalDateTime now);
+    List<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now);
     Optional<Consulta> findById(UUID id);
+    // Ids inexistentes são ignorados; a ordem do resultado não é garantida.
+    List<Consulta> findAllByIds(Collection<UUID> ids);
     void delete(Consulta consulta);
     List<Consulta> findByDoctorNameAndDateTime(String doctorName, LocalDateTime dateTime);
+    List<Consulta> findByDoctorSlots(Collection<Consulta> consultas);
+    List<Consulta> findByDoctorAndDay(String doctorName, LocalDate day);
+    boolean isSlotTaken(String doctorName, LocalDateTime dateTime);
+    Map<String, List<LocalDateTime>> findBookedSlots(String doctorName, String speciality, LocalDateTime from, LocalDateTime to);
 
 }
@@ -0,0 +1,14 @@
+package br.com.cdb.agendadorDeConsultas.port.output;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyOutputPort {
+    boolean tryReserve(String key, String fingerprint, LocalDateTime abandonedBefore);
+    Optional<IdempotencyRecord> find(String key);
+    void complete(String key, int statusCode, String contentType, String responseBody);
+    void release(String key);
+    int deleteCreatedBefore(LocalDateTime createdBefore);
+}
@@ -0,0 +1,24 @@
+package br.com.cdb.agendadorDeConsultas.port.output;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReactiveConsultaOutputPort {
+    Mono<Consulta> book(Consulta consulta);
+    Flux<Consulta> findPage(ConsultaCursor after, int limit);
+    Flux<Consulta> search(ConsultaFilter filter, ConsultaCursor after, int limit);
+    Flux<Consulta> searchByPatientName(String patientName, int limit);
+    Flux<Consulta> findUpcomingConsultasAgendadas(LocalDateTime now);
+    // Vazio quando a consulta não existe nem na tabela ativa nem no histórico.
+    Mono<Consulta> findById(UUID id);
+    // Ids inexistentes são ignorados; a ordem do resultado não é garantida.
+    Flux<Consulta> findAllByIds(Collection<UUID> ids);
+
+}
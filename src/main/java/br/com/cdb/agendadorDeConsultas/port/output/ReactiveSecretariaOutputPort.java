@@ -0,0 +1,16 @@
+package br.com.cdb.agendadorDeConsultas.port.output;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReactiveSecretariaOutputPort {
+    Flux<Secretaria> findAll();
+    Mono<Secretaria> findById(UUID id);
+    // Ids inexistentes são ignorados; a ordem do resultado não é garantida.
+    Flux<Secretaria> findAllByIds(Collection<UUID> ids);
+
+}
@@ -2,6 +2,7 @@ package br.com.cdb.agendadorDeConsultas.port.output;
 
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +11,8 @@ public interface SecretariaOutputPort {
     Secretaria save(Secretaria secretaria);
     List<Secretaria>findAll();
     Secretaria findById(UUID id);
+    // Ids inexistentes são ignorados; a ordem do resultado não é garantida.
+    List<Secretaria> findAllByIds(Collection<UUID> ids);
     void delete(Secretaria secretaria);
     Optional<Secretaria> findByEmail(String email);
     Optional<Secretaria> findByCpf(String cpf);
@@ -0,0 +1,84 @@
+package br.com.cdb.agendadorDeConsultas.util.lock;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Número fixo de locks escolhidos pelo hash da chave: chaves diferentes raramente disputam o mesmo lock
+// e a memória não cresce com a quantidade de chaves. Registra quantas aquisições esperaram e por quanto tempo.
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public StripedLock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("A quantidade de stripes deve ser positiva.");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Object key, Supplier<T> action) {
+        return withLocks(new Object[]{key}, action);
+    }
+
+    // Várias chaves são travadas sempre na ordem dos índices, evitando deadlock entre chamadas que se cruzam.
+    public <T> T withLocks(Object[] keys, Supplier<T> action) {
+        int[] indexes = Arrays.stream(keys).mapToInt(this::indexOf).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(acquisitions.sum(), contended.sum(),
+                Duration.ofNanos(waitNanos.sum()), Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    int indexOf(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        lock.lock();
+        long espera = System.nanoTime() - inicio;
+        contended.increment();
+        waitNanos.add(espera);
+        maxWaitNanos.accumulate(espera);
+    }
+
+    public record Stats(long acquisitions, long contended, Duration totalWait, Duration maxWait) {
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.cdb.agendadorDeConsultas.util.schedule;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.BusinessHours;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Percorre a grade de horários do expediente (BusinessHours) em memória, a partir dos horários ocupados já carregados.
+public class AvailableSlotFinder {
+
+    public List<AvailableSlot> find(Map<String, ? extends Collection<LocalDateTime>> bookedByDoctor,
+                                    LocalDateTime from, LocalDateTime to, int limit) {
+        Map<String, Set<LocalDateTime>> booked = new TreeMap<>();
+        bookedByDoctor.forEach((doctor, horarios) -> booked.put(doctor, new HashSet<>(horarios)));
+
+        List<AvailableSlot> slots = new ArrayList<>();
+        for (LocalDateTime start = firstSlotAtOrAfter(from); start.isBefore(to); start = nextSlot(start)) {
+            // Mesma regra do índice único e do DoctorScheduleIndex: o horário está ocupado só se uma consulta começa nele.
+            for (Map.Entry<String, Set<LocalDateTime>> agenda : booked.entrySet()) {
+                if (!agenda.getValue().contains(start)) {
+                    slots.add(new AvailableSlot(agenda.getKey(), start));
+                    if (slots.size() >= limit) {
+                        return slots;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    private LocalDateTime firstSlotAtOrAfter(LocalDateTime dateTime) {
+        LocalDateTime truncated = dateTime.truncatedTo(ChronoUnit.MINUTES);
+        int minutesIntoSlot = truncated.getMinute() % BusinessHours.SLOT_MINUTES;
+        LocalDateTime start = truncated.minusMinutes(minutesIntoSlot);
+        if (start.isBefore(dateTime)) {
+            start = start.plusMinutes(BusinessHours.SLOT_MINUTES);
+        }
+        return alignToBusinessHours(start);
+    }
+
+    private LocalDateTime nextSlot(LocalDateTime start) {
+        return alignToBusinessHours(start.plusMinutes(BusinessHours.SLOT_MINUTES));
+    }
+
+    private LocalDateTime alignToBusinessHours(LocalDateTime dateTime) {
+        LocalDateTime aligned = dateTime;
+        if (aligned.toLocalTime().isBefore(BusinessHours.OPENING)) {
+            aligned = aligned.toLocalDate().atTime(BusinessHours.OPENING);
+        } else if (!aligned.toLocalTime().isBefore(BusinessHours.CLOSING)) {
+            aligned = aligned.toLocalDate().plusDays(1).atTime(BusinessHours.OPENING);
+        }
+        while (!BusinessHours.isWorkingDay(aligned.toLocalDate())) {
+            aligned = aligned.toLocalDate().plusDays(1).atTime(BusinessHours.OPENING);
+        }
+        return aligned;
+    }
+}
@@ -1,20 +1,29 @@
 package br.com.cdb.agendadorDeConsultas.util.validation;
 
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.BusinessHours;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
 import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
 import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
 import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
 
 
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 
 public class ConsultaValidator {
+
+    public static final String SLOT_CONFLICT_MESSAGE = "O médico já possui outra consulta agendada para este mesmo horário.";
     private final ConsultaOutputPort consultaOutputPort;
     private final SecretariaOutputPort secretariaOutputPort;
 
@@ -24,6 +33,70 @@ public class ConsultaValidator {
     }
 
     public void validateCreate(UUID secretariaId, Consulta consulta) {
+        validateBooking(consulta);
+
+        checkSecretariaExists(secretariaId);
+        checkDoctorAvailability(consulta);
+    }
+
+    // Para quem já buscou secretária e ocupação do horário (em paralelo, no AsyncConsultaUseCase): não volta ao banco.
+    public void validateCreate(Consulta consulta, boolean horarioOcupado) {
+        validateBooking(consulta);
+
+        if (horarioOcupado) {
+            throw new BusinessRuleValidationException(SLOT_CONFLICT_MESSAGE);
+        }
+    }
+
+    // Apenas as regras que não dependem do banco; secretária e horário são conferidos por fn_agendar_consulta.
+    public void validateBooking(Consulta consulta) {
+        validarCamposObrigatorios(consulta);
+
+        checkConsultaIsInTheFuture(consulta.getConsultationDateTime());
+        checkIsWithinBusinessHours(consulta.getConsultationDateTime());
+    }
+
+    public Map<Integer, String> validateCreateBatch(UUID secretariaId, List<Consulta> consultas) {
+        checkSecretariaExists(secretariaId);
+
+        Map<Integer, String> errors = new TreeMap<>();
+        List<Consulta> candidatas = new ArrayList<>();
+        for (int i = 0; i < consultas.size(); i++) {
+            Consulta consulta = consultas.get(i);
+            if (consulta == null) {
+                errors.put(i, "A consulta não pode ser nula.");
+                continue;
+            }
+            try {
+                validarCamposObrigatorios(consulta);
+                checkConsultaIsInTheFuture(consulta.getConsultationDateTime());
+                checkIsWithinBusinessHours(consulta.getConsultationDateTime());
+                candidatas.add(consulta);
+            } catch (BusinessRuleValidationException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        if (candidatas.isEmpty()) {
+            return errors;
+        }
+
+        Set<String> horariosOcupados = new HashSet<>();
+        for (Consulta existente : consultaOutputPort.findByDoctorSlots(candidatas)) {
+            horariosOcupados.add(slotKey(existente));
+        }
+        for (int i = 0; i < consultas.size(); i++) {
+            if (!errors.containsKey(i) && !horariosOcupados.add(slotKey(consultas.get(i)))) {
+                errors.put(i, SLOT_CONFLICT_MESSAGE);
+            }
+        }
+        return errors;
+    }
+
+    private String slotKey(Consulta consulta) {
+        return consulta.getDoctorName() + "|" + consulta.getConsultationDateTime();
+    }
+
+    private void validarCamposObrigatorios(Consulta consulta) {
         if (consulta.getDoctorName() == null || consulta.getDoctorName().isBlank()) {
             throw new BusinessRuleValidationException("O nome do médico não pode ser em branco.");
         }
@@ -33,23 +106,31 @@ public class ConsultaValidator {
         if (consulta.getPatientNumber() == null || !consulta.getPatientNumber().matches("[0-9]+")) {
             throw new BusinessRuleValidationException("O número do paciente deve conter apenas dígitos.");
         }
-
-        checkSecretariaExists(secretariaId);
-        checkConsultaIsInTheFuture(consulta.getConsultationDateTime());
-        checkIsWithinBusinessHours(consulta.getConsultationDateTime());
-        checkDoctorAvailability(consulta.getDoctorName(), consulta.getConsultationDateTime(), null);
+        if (consulta.getConsultationDateTime() == null) {
+            throw new BusinessRuleValidationException("A data da consulta deve ser informada.");
+        }
     }
     public void validateUpdate(UUID secretariaId, Consulta consultaExistente, ConsultaUpdate request) {
         checkSecretariaExists(secretariaId);
         checkPermission(secretariaId, consultaExistente);
         checkCanBeModified(consultaExistente);
         validarCamposDoRequest(request, consultaExistente);
+        // Campos nulos mantêm o valor atual: trocar só o médico ou só o horário também muda a agenda ocupada.
+        String medico = Objects.requireNonNullElse(request.doctorName(), consultaExistente.getDoctorName());
+        LocalDateTime horario = Objects.requireNonNullElse(request.consultationDateTime(), consultaExistente.getConsultationDateTime());
+        if (mudaDeHorario(consultaExistente, medico, horario)) {
+            checkDoctorAvailability(medico, horario);
+        }
     }
     public void validateCancelOrDelete(UUID secretariaId, Consulta consulta) {
         checkSecretariaExists(secretariaId);
         checkPermission(secretariaId, consulta);
         checkCanBeModified(consulta);
     }
+    public void validateCancelOrDelete(Secretaria secretaria, Consulta consulta) {
+        checkPermission(secretaria.getId(), consulta);
+        checkCanBeModified(consulta);
+    }
     public void validateForDelete(UUID secretariaId, Consulta consulta) {
         checkSecretariaExists(secretariaId);
         checkPermission(secretariaId, consulta);
@@ -72,29 +153,34 @@ public class ConsultaValidator {
             throw new BusinessRuleValidationException("Não é possível alterar ou cancelar uma consulta que já ocorreu.");
         }
     }
+    // Pré-checagem na agenda em memória; o índice único no banco continua decidindo em caso de corrida.
+    private void checkDoctorAvailability(Consulta consulta) {
+        checkDoctorAvailability(consulta.getDoctorName(), consulta.getConsultationDateTime());
+    }
+    private void checkDoctorAvailability(String doctorName, LocalDateTime dateTime) {
+        if (consultaOutputPort.isSlotTaken(doctorName, dateTime)) {
+            throw new BusinessRuleValidationException(SLOT_CONFLICT_MESSAGE);
+        }
+    }
+    private boolean mudaDeHorario(Consulta consultaExistente, String medico, LocalDateTime horario) {
+        return !(medico.equals(consultaExistente.getDoctorName()) && horario.equals(consultaExistente.getConsultationDateTime()));
+    }
     private void checkConsultaIsInTheFuture(LocalDateTime dateTime) {
         if (dateTime.isBefore(LocalDateTime.now())) {
             throw new BusinessRuleValidationException("A data da consulta não pode ser no passado.");
         }
     }
     private void checkIsWithinBusinessHours(LocalDateTime dateTime) {
-        DayOfWeek day = dateTime.getDayOfWeek();
-        int hour = dateTime.getHour();
-
-        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+        if (!BusinessHours.isWorkingDay(dateTime.toLocalDate())) {
             throw new BusinessRuleValidationException("Consultas não podem ser agendadas nos fins de semana.");
         }
-        if (hour < 8 || hour >= 18) {
-            throw new BusinessRuleValidationException("Consultas só podem ser agendadas entre 08:00 e 18:00.");
+        if (!BusinessHours.isOpenAt(dateTime.toLocalTime())) {
+            throw new BusinessRuleValidationException("Consultas só podem ser agendadas entre "
+                    + BusinessHours.OPENING + " e " + BusinessHours.CLOSING + ".");
         }
-    }
-    private void checkDoctorAvailability(String doctorName, LocalDateTime dateTime, UUID consultaIdToIgnore) {
-        List<Consulta> existingConsultas = consultaOutputPort.findByDoctorNameAndDateTime(doctorName, dateTime);
-
-        boolean hasConflict = existingConsultas.stream()
-                .anyMatch(consulta -> !consulta.getId().equals(consultaIdToIgnore));
-        if (hasConflict) {
-            throw new BusinessRuleValidationException("O médico já possui outra consulta agendada para este mesmo horário.");
+        if (!BusinessHours.isSlotStart(dateTime.toLocalTime())) {
+            throw new BusinessRuleValidationException("Consultas devem começar em horários de "
+                    + BusinessHours.SLOT_MINUTES + " em " + BusinessHours.SLOT_MINUTES + " minutos (ex.: 08:00, 08:30).");
         }
     }
     private void validarCamposDoRequest(ConsultaUpdate request, Consulta consultaExistente) {
@@ -115,10 +201,6 @@ public class ConsultaValidator {
         if (request.consultationDateTime() != null) {
             checkConsultaIsInTheFuture(request.consultationDateTime());
             checkIsWithinBusinessHours(request.consultationDateTime());
-
-            String doctorName = request.doctorName() != null ? request.doctorName() : consultaExistente.getDoctorName();
-            checkDoctorAvailability(doctorName, request.consultationDateTime(), consultaExistente.getId());
-
         }
 
     }
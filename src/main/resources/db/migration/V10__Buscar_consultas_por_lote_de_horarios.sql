@@ -0,0 +1,14 @@
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_slots(
+    p_doctor_names VARCHAR[],
+    p_datetimes TIMESTAMP[]
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT c.* FROM consulta c
+    JOIN unnest(p_doctor_names, p_datetimes) AS s(doctorname, consultationdatetime)
+        ON c.doctorname = s.doctorname AND c.consultationdatetime = s.consultationdatetime;
+END;
+$$;
@@ -0,0 +1,84 @@
+-- Conversão tolerante: linhas com data inválida são rejeitadas em vez de abortar a importação inteira.
+CREATE OR REPLACE FUNCTION fn_try_cast_timestamp(p_value TEXT)
+RETURNS TIMESTAMP
+LANGUAGE plpgsql
+STABLE
+AS $$
+BEGIN
+    RETURN p_value::TIMESTAMP;
+EXCEPTION WHEN others THEN
+    RETURN NULL;
+END;
+$$;
+
+-- Tabela de staging por sessão: todas as colunas são TEXT para que o COPY nunca falhe por causa de um valor.
+CREATE OR REPLACE PROCEDURE pr_criar_staging_importacao()
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    CREATE TEMP TABLE consulta_import (
+        line_number BIGINT GENERATED ALWAYS AS IDENTITY,
+        doctorname TEXT,
+        patientname TEXT,
+        patientnumber TEXT,
+        speciality TEXT,
+        description TEXT,
+        consultationdatetime TEXT,
+        status TEXT,
+        parsed_datetime TIMESTAMP,
+        error TEXT
+    ) ON COMMIT DROP;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE pr_importar_consultas(p_secretaria_id UUID)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE consulta_import
+    SET status = COALESCE(NULLIF(trim(status), ''), 'AGENDADA'),
+        parsed_datetime = fn_try_cast_timestamp(consultationdatetime);
+
+    -- Tabelas temporárias não são analisadas pelo autovacuum; sem estatísticas o planejador erra os joins abaixo.
+    ANALYZE consulta_import;
+
+    UPDATE consulta_import
+    SET error = CASE
+        WHEN doctorname IS NULL OR trim(doctorname) = '' THEN 'O nome do médico não pode ser em branco.'
+        WHEN patientname IS NULL OR trim(patientname) = '' THEN 'O nome do paciente não pode ser em branco.'
+        WHEN patientnumber IS NULL OR patientnumber !~ '^[0-9]+$' THEN 'O número do paciente deve conter apenas dígitos.'
+        WHEN speciality IS NULL OR trim(speciality) = '' THEN 'A especialidade não pode ser em branco.'
+        WHEN length(doctorname) > 100 OR length(patientname) > 100 OR length(patientnumber) > 20
+            OR length(speciality) > 100 OR length(description) > 300 THEN 'Campo excede o tamanho máximo permitido.'
+        WHEN parsed_datetime IS NULL THEN 'Data da consulta inválida.'
+        WHEN status NOT IN ('AGENDADA', 'CANCELADA') THEN 'Status da consulta inválido.'
+    END;
+
+    UPDATE consulta_import i
+    SET error = 'O médico já possui outra consulta agendada para este mesmo horário.'
+    WHERE i.error IS NULL
+      AND i.status <> 'CANCELADA'
+      AND EXISTS (
+          SELECT 1 FROM consulta c
+          WHERE c.doctorname = i.doctorname
+            AND c.consultationdatetime = i.parsed_datetime
+            AND c.status <> 'CANCELADA'
+      );
+
+    UPDATE consulta_import i
+    SET error = 'Horário duplicado para o mesmo médico no arquivo.'
+    FROM (
+        SELECT line_number,
+               row_number() OVER (PARTITION BY doctorname, parsed_datetime ORDER BY line_number) AS ocorrencia
+        FROM consulta_import
+        WHERE error IS NULL AND status <> 'CANCELADA'
+    ) d
+    WHERE i.line_number = d.line_number AND d.ocorrencia > 1;
+
+    INSERT INTO consulta (id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id)
+    SELECT gen_random_uuid(), doctorname, patientname, patientnumber, speciality, COALESCE(description, ''), status, parsed_datetime, p_secretaria_id
+    FROM consulta_import
+    WHERE error IS NULL
+    ORDER BY line_number;
+END;
+$$;
@@ -0,0 +1,62 @@
+-- Até aqui nada impedia dois agendamentos ativos no mesmo horário. A migração não escolhe qual consulta manter:
+-- se houver duplicatas, ela falha listando cada horário e os ids envolvidos, e a clínica decide o que cancelar
+-- antes de aplicá-la de novo.
+DO $$
+DECLARE
+    v_conflitos TEXT;
+BEGIN
+    SELECT string_agg(format('%s em %s: %s', doctorname, consultationdatetime, ids), '; ')
+    INTO v_conflitos
+    FROM (
+        SELECT doctorname, consultationdatetime, string_agg(id::TEXT, ', ' ORDER BY id) AS ids
+        FROM consulta
+        WHERE status <> 'CANCELADA'
+        GROUP BY doctorname, consultationdatetime
+        HAVING count(*) > 1
+    ) duplicadas;
+
+    IF v_conflitos IS NOT NULL THEN
+        RAISE EXCEPTION 'Consultas ativas ocupando o mesmo horário do mesmo médico: %', v_conflitos
+            USING HINT = 'Cancele (status = ''CANCELADA'') todas menos uma consulta de cada horário listado e execute a migração novamente.';
+    END IF;
+END;
+$$;
+
+-- Um médico não pode ter duas consultas ativas no mesmo horário; consultas canceladas liberam o horário.
+-- O índice também atende às buscas por médico e horário abaixo.
+CREATE UNIQUE INDEX uq_consulta_doctor_slot
+    ON consulta (doctorname, consultationdatetime)
+    WHERE status <> 'CANCELADA';
+
+-- A V5 nunca foi aplicada pelo Flyway (nome com um único underscore); a função é criada aqui.
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_and_datetime(
+    p_doctor_name VARCHAR,
+    p_datetime TIMESTAMP
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE doctorname = p_doctor_name
+      AND consultationdatetime = p_datetime
+      AND status <> 'CANCELADA';
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_slots(
+    p_doctor_names VARCHAR[],
+    p_datetimes TIMESTAMP[]
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT c.* FROM consulta c
+    JOIN unnest(p_doctor_names, p_datetimes) AS s(doctorname, consultationdatetime)
+        ON c.doctorname = s.doctorname AND c.consultationdatetime = s.consultationdatetime
+    WHERE c.status <> 'CANCELADA';
+END;
+$$;
@@ -0,0 +1,16 @@
+-- O status fica literal na função (e não como parâmetro) para que o planejador sempre possa usar o índice parcial.
+CREATE INDEX idx_consulta_agendada_datetime
+    ON consulta (consultationdatetime)
+    WHERE status = 'AGENDADA';
+
+CREATE OR REPLACE FUNCTION fn_find_upcoming_consultas_agendadas(p_now TIMESTAMP)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE status = 'AGENDADA' AND consultationdatetime > p_now
+    ORDER BY consultationdatetime ASC;
+END;
+$$;
@@ -0,0 +1,23 @@
+-- Cada nó mantém caches locais de consultas e secretarias; o id alterado é publicado para que todos invalidem a entrada.
+-- INSERT não notifica: um id novo não pode estar em cache, e importações em massa gerariam uma notificação por linha.
+CREATE OR REPLACE FUNCTION fn_notificar_alteracao()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify(TG_ARGV[0], OLD.id::TEXT);
+    ELSE
+        PERFORM pg_notify(TG_ARGV[0], NEW.id::TEXT);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_consulta_alterada
+    AFTER UPDATE OR DELETE ON consulta
+    FOR EACH ROW EXECUTE FUNCTION fn_notificar_alteracao('consulta_alterada');
+
+CREATE TRIGGER trg_secretaria_alterada
+    AFTER UPDATE OR DELETE ON secretaria
+    FOR EACH ROW EXECUTE FUNCTION fn_notificar_alteracao('secretaria_alterada');
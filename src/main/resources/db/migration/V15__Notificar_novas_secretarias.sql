@@ -0,0 +1,6 @@
+-- Cadastros feitos em outro nó precisam limpar o cache negativo de e-mail/CPF da secretaria.
+DROP TRIGGER trg_secretaria_alterada ON secretaria;
+
+CREATE TRIGGER trg_secretaria_alterada
+    AFTER INSERT OR UPDATE OR DELETE ON secretaria
+    FOR EACH ROW EXECUTE FUNCTION fn_notificar_alteracao('secretaria_alterada');
@@ -0,0 +1,17 @@
+-- Carrega a agenda de um médico em um dia para o índice em memória; percorre uq_consulta_doctor_slot por faixa.
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_and_day(
+    p_doctor_name VARCHAR,
+    p_day DATE
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE doctorname = p_doctor_name
+      AND consultationdatetime >= p_day
+      AND consultationdatetime < p_day + 1
+      AND status <> 'CANCELADA';
+END;
+$$;
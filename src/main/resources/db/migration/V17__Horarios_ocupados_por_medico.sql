@@ -0,0 +1,35 @@
+-- Horários ocupados no intervalo para um médico, ou para todos os médicos de uma especialidade, em uma única consulta.
+-- Médicos sem nenhuma consulta no intervalo voltam com booked_at nulo para que a agenda livre deles também seja listada.
+CREATE INDEX IF NOT EXISTS idx_consulta_speciality_doctor
+    ON consulta (speciality, doctorname);
+
+CREATE OR REPLACE FUNCTION fn_find_booked_slots(
+    p_doctor_name VARCHAR,
+    p_speciality VARCHAR,
+    p_from TIMESTAMP,
+    p_to TIMESTAMP
+)
+RETURNS TABLE (doctor_name VARCHAR, booked_at TIMESTAMP)
+LANGUAGE plpgsql
+STABLE
+AS $$
+BEGIN
+    RETURN QUERY
+    WITH medicos AS (
+        SELECT p_doctor_name AS nome
+        WHERE p_doctor_name IS NOT NULL
+        UNION
+        SELECT DISTINCT c.doctorname::VARCHAR
+        FROM consulta c
+        WHERE p_doctor_name IS NULL
+          AND c.speciality = p_speciality
+    )
+    SELECT m.nome, c.consultationdatetime
+    FROM medicos m
+    LEFT JOIN consulta c
+        ON c.doctorname = m.nome
+       AND c.consultationdatetime >= p_from
+       AND c.consultationdatetime < p_to
+       AND c.status <> 'CANCELADA';
+END;
+$$;
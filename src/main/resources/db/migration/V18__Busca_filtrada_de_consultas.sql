@@ -0,0 +1,52 @@
+-- Índices para os filtros mais usados pelos painéis; todos terminam na ordenação da paginação keyset.
+CREATE INDEX IF NOT EXISTS idx_consulta_doctor_datetime_id ON consulta (doctorname, consultationdatetime, id);
+CREATE INDEX IF NOT EXISTS idx_consulta_patient_datetime_id ON consulta (patientnumber, consultationdatetime, id);
+CREATE INDEX IF NOT EXISTS idx_consulta_speciality_datetime_id ON consulta (speciality, consultationdatetime, id);
+
+-- SQL dinâmico: só os filtros informados entram no WHERE, para que cada combinação tenha o próprio plano.
+-- Os valores são sempre passados por USING, nunca concatenados.
+CREATE OR REPLACE FUNCTION fn_search_consultas(
+    p_doctor_name VARCHAR,
+    p_patient_number VARCHAR,
+    p_speciality VARCHAR,
+    p_status VARCHAR,
+    p_from TIMESTAMP,
+    p_to TIMESTAMP,
+    p_after_datetime TIMESTAMP,
+    p_after_id UUID,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+STABLE
+AS $$
+DECLARE
+    v_sql TEXT := 'SELECT * FROM consulta WHERE TRUE';
+BEGIN
+    IF p_doctor_name IS NOT NULL THEN
+        v_sql := v_sql || ' AND doctorname = $1';
+    END IF;
+    IF p_patient_number IS NOT NULL THEN
+        v_sql := v_sql || ' AND patientnumber = $2';
+    END IF;
+    IF p_speciality IS NOT NULL THEN
+        v_sql := v_sql || ' AND speciality = $3';
+    END IF;
+    IF p_status IS NOT NULL THEN
+        v_sql := v_sql || ' AND status = $4';
+    END IF;
+    IF p_from IS NOT NULL THEN
+        v_sql := v_sql || ' AND consultationdatetime >= $5';
+    END IF;
+    IF p_to IS NOT NULL THEN
+        v_sql := v_sql || ' AND consultationdatetime < $6';
+    END IF;
+    IF p_after_datetime IS NOT NULL THEN
+        v_sql := v_sql || ' AND (consultationdatetime, id) > ($7, $8)';
+    END IF;
+    v_sql := v_sql || ' ORDER BY consultationdatetime ASC, id ASC LIMIT $9';
+
+    RETURN QUERY EXECUTE v_sql
+        USING p_doctor_name, p_patient_number, p_speciality, p_status, p_from, p_to, p_after_datetime, p_after_id, p_limit;
+END;
+$$;
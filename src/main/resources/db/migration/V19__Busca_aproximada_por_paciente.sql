@@ -0,0 +1,31 @@
+-- Busca por nome de paciente parcial ou digitado com erro: trigramas indexados com GiST, que também ordena por distância.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_consulta_patientname_trgm
+    ON consulta USING gist (patientname gist_trgm_ops);
+
+-- O operador <% usa o índice e aceita o termo como parte do nome. O limite de 0.5 (padrão 0.6) tolera erros de digitação.
+-- A ordenação por <<-> (1 - word_similarity) é uma busca KNN no índice: as linhas saem da mais próxima para a mais
+-- distante e a leitura para no LIMIT, então termos comuns ("ana", "silva") não ranqueiam a tabela inteira.
+-- Desempate por data e id só depois do LIMIT (senão o índice não ordena): no corte, entre nomes à mesma distância,
+-- quem entra é escolhido pelo índice.
+CREATE OR REPLACE FUNCTION fn_search_consultas_by_patient(
+    p_patient_name VARCHAR,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+STABLE
+SET pg_trgm.word_similarity_threshold = 0.5
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM (
+        SELECT * FROM consulta
+        WHERE p_patient_name <% patientname
+        ORDER BY p_patient_name <<-> patientname
+        LIMIT p_limit
+    ) proximas
+    ORDER BY p_patient_name <<-> patientname, consultationdatetime DESC, id;
+END;
+$$;
@@ -0,0 +1,317 @@
+-- Converte consulta em uma tabela particionada por mês de consultationdatetime.
+-- Consultas por intervalo de datas passam a ler só as partições do período, e meses antigos podem ser desanexados (DETACH PARTITION).
+
+-- As funções que retornam SETOF consulta dependem do tipo da tabela antiga; são recriadas no fim desta migração.
+DROP FUNCTION fn_find_consulta_by_id(UUID);
+DROP FUNCTION fn_find_upcoming_consultas(TIMESTAMP);
+DROP FUNCTION fn_find_upcoming_consultas_agendadas(TIMESTAMP);
+DROP FUNCTION fn_find_consultas_page(TIMESTAMP, UUID, INTEGER);
+DROP FUNCTION fn_export_consultas();
+DROP FUNCTION fn_find_consultas_by_doctor_and_datetime(VARCHAR, TIMESTAMP);
+DROP FUNCTION fn_find_consultas_by_doctor_slots(VARCHAR[], TIMESTAMP[]);
+DROP FUNCTION fn_find_consultas_by_doctor_and_day(VARCHAR, DATE);
+DROP FUNCTION fn_search_consultas(VARCHAR, VARCHAR, VARCHAR, VARCHAR, TIMESTAMP, TIMESTAMP, TIMESTAMP, UUID, INTEGER);
+DROP FUNCTION fn_search_consultas_by_patient(VARCHAR, INTEGER);
+
+ALTER TABLE consulta RENAME TO consulta_nao_particionada;
+
+CREATE TABLE consulta (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    doctorname VARCHAR(100) NOT NULL,
+    patientname VARCHAR(100) NOT NULL,
+    patientnumber VARCHAR(20) NOT NULL,
+    speciality VARCHAR(100) NOT NULL,
+    description VARCHAR(300) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'AGENDADA',
+    consultationdatetime TIMESTAMP NOT NULL,
+    secretaria_id UUID
+) PARTITION BY RANGE (consultationdatetime);
+
+-- Recebe consultas de meses ainda sem partição (ex.: agendamentos muito distantes) até o job criar o mês.
+CREATE TABLE consulta_default PARTITION OF consulta DEFAULT;
+
+-- Cria as partições mensais que faltam entre p_inicio e p_fim. Linhas do mês que já estejam na partição
+-- default são movidas para a nova partição antes do ATTACH, que exige a default sem linhas do intervalo.
+CREATE OR REPLACE FUNCTION fn_criar_particoes_consulta(p_inicio DATE, p_fim DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_mes DATE := date_trunc('month', p_inicio)::DATE;
+    v_proximo DATE;
+    v_nome TEXT;
+    v_criadas INTEGER := 0;
+BEGIN
+    WHILE v_mes < p_fim LOOP
+        v_proximo := (v_mes + INTERVAL '1 month')::DATE;
+        v_nome := 'consulta_' || to_char(v_mes, 'YYYY_MM');
+
+        IF to_regclass(v_nome) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE consulta INCLUDING DEFAULTS)', v_nome);
+            EXECUTE format(
+                'WITH movidas AS (DELETE FROM consulta_default WHERE consultationdatetime >= %L AND consultationdatetime < %L RETURNING *) '
+                    || 'INSERT INTO %I SELECT * FROM movidas',
+                v_mes, v_proximo, v_nome);
+            EXECUTE format('ALTER TABLE consulta ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_nome, v_mes, v_proximo);
+            v_criadas := v_criadas + 1;
+        END IF;
+
+        v_mes := v_proximo;
+    END LOOP;
+    RETURN v_criadas;
+END;
+$$;
+
+-- Partições do mês da consulta mais antiga até 12 meses à frente (ou até a mais distante já agendada).
+SELECT fn_criar_particoes_consulta(
+    LEAST(MIN(consultationdatetime), now())::DATE,
+    (GREATEST(MAX(consultationdatetime), now()) + INTERVAL '12 months')::DATE)
+FROM consulta_nao_particionada;
+
+INSERT INTO consulta (id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id)
+SELECT id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+FROM consulta_nao_particionada;
+
+DROP TABLE consulta_nao_particionada;
+
+-- Em tabelas particionadas toda restrição única precisa conter a chave de partição.
+-- O id continua sendo um UUID aleatório; as buscas por id usam o prefixo da chave primária em cada partição.
+ALTER TABLE consulta ADD CONSTRAINT consulta_pkey PRIMARY KEY (id, consultationdatetime);
+ALTER TABLE consulta ADD CONSTRAINT fk_consulta_secretaria FOREIGN KEY (secretaria_id) REFERENCES secretaria (id);
+
+CREATE INDEX idx_consulta_datetime_id ON consulta (consultationdatetime, id);
+CREATE UNIQUE INDEX uq_consulta_doctor_slot
+    ON consulta (doctorname, consultationdatetime)
+    WHERE status <> 'CANCELADA';
+CREATE INDEX idx_consulta_agendada_datetime
+    ON consulta (consultationdatetime)
+    WHERE status = 'AGENDADA';
+CREATE INDEX idx_consulta_speciality_doctor ON consulta (speciality, doctorname);
+CREATE INDEX idx_consulta_doctor_datetime_id ON consulta (doctorname, consultationdatetime, id);
+CREATE INDEX idx_consulta_patient_datetime_id ON consulta (patientnumber, consultationdatetime, id);
+CREATE INDEX idx_consulta_speciality_datetime_id ON consulta (speciality, consultationdatetime, id);
+CREATE INDEX idx_consulta_patientname_trgm ON consulta USING gist (patientname gist_trgm_ops);
+
+CREATE TRIGGER trg_consulta_alterada
+    AFTER UPDATE OR DELETE ON consulta
+    FOR EACH ROW EXECUTE FUNCTION fn_notificar_alteracao('consulta_alterada');
+
+-- ON CONFLICT (id) exigiria um índice único só em id, o que a tabela particionada não permite.
+-- Um UPDATE que muda o mês da consulta move a linha de partição automaticamente.
+CREATE OR REPLACE PROCEDURE pr_upsert_consulta(
+    IN p_id UUID,
+    IN p_doctorname VARCHAR,
+    IN p_patientname VARCHAR,
+    IN p_patientnumber VARCHAR,
+    IN p_speciality VARCHAR,
+    IN p_description VARCHAR,
+    IN p_status VARCHAR,
+    IN p_consultationdatetime TIMESTAMP,
+    IN p_secretaria_id UUID
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE consulta SET
+        doctorname = p_doctorname,
+        patientname = p_patientname,
+        patientnumber = p_patientnumber,
+        speciality = p_speciality,
+        description = p_description,
+        status = p_status,
+        consultationdatetime = p_consultationdatetime,
+        secretaria_id = p_secretaria_id
+    WHERE id = p_id;
+
+    IF NOT FOUND THEN
+        INSERT INTO consulta (
+            id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+        ) VALUES (
+            p_id, p_doctorname, p_patientname, p_patientnumber, p_speciality, p_description, p_status, p_consultationdatetime, p_secretaria_id
+        );
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consulta_by_id(p_id UUID)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta WHERE id = p_id;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_upcoming_consultas(p_now TIMESTAMP)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta WHERE consultationdatetime > p_now ORDER BY consultationdatetime ASC;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_upcoming_consultas_agendadas(p_now TIMESTAMP)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE status = 'AGENDADA' AND consultationdatetime > p_now
+    ORDER BY consultationdatetime ASC;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_page(
+    p_after_datetime TIMESTAMP,
+    p_after_id UUID,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF p_after_datetime IS NULL THEN
+        RETURN QUERY
+        SELECT * FROM consulta
+        ORDER BY consultationdatetime ASC, id ASC
+        LIMIT p_limit;
+    ELSE
+        RETURN QUERY
+        SELECT * FROM consulta
+        WHERE (consultationdatetime, id) > (p_after_datetime, p_after_id)
+        ORDER BY consultationdatetime ASC, id ASC
+        LIMIT p_limit;
+    END IF;
+END;
+$$;
+
+-- Continua em LANGUAGE sql para ser feita inline pelo planner (ver V9).
+CREATE OR REPLACE FUNCTION fn_export_consultas()
+RETURNS SETOF consulta
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT * FROM consulta ORDER BY consultationdatetime ASC, id ASC;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_and_datetime(
+    p_doctor_name VARCHAR,
+    p_datetime TIMESTAMP
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE doctorname = p_doctor_name
+      AND consultationdatetime = p_datetime
+      AND status <> 'CANCELADA';
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_slots(
+    p_doctor_names VARCHAR[],
+    p_datetimes TIMESTAMP[]
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT c.* FROM consulta c
+    JOIN unnest(p_doctor_names, p_datetimes) AS s(doctorname, consultationdatetime)
+        ON c.doctorname = s.doctorname AND c.consultationdatetime = s.consultationdatetime
+    WHERE c.status <> 'CANCELADA';
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_doctor_and_day(
+    p_doctor_name VARCHAR,
+    p_day DATE
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta
+    WHERE doctorname = p_doctor_name
+      AND consultationdatetime >= p_day
+      AND consultationdatetime < p_day + 1
+      AND status <> 'CANCELADA';
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_search_consultas(
+    p_doctor_name VARCHAR,
+    p_patient_number VARCHAR,
+    p_speciality VARCHAR,
+    p_status VARCHAR,
+    p_from TIMESTAMP,
+    p_to TIMESTAMP,
+    p_after_datetime TIMESTAMP,
+    p_after_id UUID,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+STABLE
+AS $$
+DECLARE
+    v_sql TEXT := 'SELECT * FROM consulta WHERE TRUE';
+BEGIN
+    IF p_doctor_name IS NOT NULL THEN
+        v_sql := v_sql || ' AND doctorname = $1';
+    END IF;
+    IF p_patient_number IS NOT NULL THEN
+        v_sql := v_sql || ' AND patientnumber = $2';
+    END IF;
+    IF p_speciality IS NOT NULL THEN
+        v_sql := v_sql || ' AND speciality = $3';
+    END IF;
+    IF p_status IS NOT NULL THEN
+        v_sql := v_sql || ' AND status = $4';
+    END IF;
+    IF p_from IS NOT NULL THEN
+        v_sql := v_sql || ' AND consultationdatetime >= $5';
+    END IF;
+    IF p_to IS NOT NULL THEN
+        v_sql := v_sql || ' AND consultationdatetime < $6';
+    END IF;
+    IF p_after_datetime IS NOT NULL THEN
+        v_sql := v_sql || ' AND (consultationdatetime, id) > ($7, $8)';
+    END IF;
+    v_sql := v_sql || ' ORDER BY consultationdatetime ASC, id ASC LIMIT $9';
+
+    RETURN QUERY EXECUTE v_sql
+        USING p_doctor_name, p_patient_number, p_speciality, p_status, p_from, p_to, p_after_datetime, p_after_id, p_limit;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_search_consultas_by_patient(
+    p_patient_name VARCHAR,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+STABLE
+SET pg_trgm.word_similarity_threshold = 0.5
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM (
+        SELECT * FROM consulta
+        WHERE p_patient_name <% patientname
+        ORDER BY p_patient_name <<-> patientname
+        LIMIT p_limit
+    ) proximas
+    ORDER BY p_patient_name <<-> patientname, consultationdatetime DESC, id;
+END;
+$$;
+
+ANALYZE consulta;
@@ -0,0 +1,127 @@
+-- Consultas antigas saem da tabela quente (e de todos os seus índices) para um histórico consultado só por id.
+CREATE TABLE consulta_historico (
+    id UUID PRIMARY KEY,
+    doctorname VARCHAR(100) NOT NULL,
+    patientname VARCHAR(100) NOT NULL,
+    patientnumber VARCHAR(20) NOT NULL,
+    speciality VARCHAR(100) NOT NULL,
+    description VARCHAR(300) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    consultationdatetime TIMESTAMP NOT NULL,
+    secretaria_id UUID,
+    archived_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT fk_consulta_historico_secretaria FOREIGN KEY (secretaria_id) REFERENCES secretaria (id)
+);
+
+-- O arquivamento apaga linha a linha e trg_consulta_alterada notificaria cada uma (até maximo-lotes x tamanho-lote
+-- por noite, processadas por todos os nós). Com agendador.arquivando = 'on' na transação o gatilho não notifica:
+-- a consulta arquivada continua encontrada por id no histórico com os mesmos dados, então o cache não fica errado.
+CREATE OR REPLACE FUNCTION fn_notificar_alteracao()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF current_setting('agendador.arquivando', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify(TG_ARGV[0], OLD.id::TEXT);
+    ELSE
+        PERFORM pg_notify(TG_ARGV[0], NEW.id::TEXT);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Move até p_lote consultas anteriores a p_antes_de em uma única instrução (DELETE ... RETURNING + INSERT).
+-- SKIP LOCKED evita esperar por consultas sendo alteradas no momento; elas ficam para o próximo lote.
+CREATE OR REPLACE FUNCTION fn_arquivar_consultas(p_antes_de TIMESTAMP, p_lote INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_arquivadas INTEGER;
+BEGIN
+    PERFORM set_config('agendador.arquivando', 'on', true);
+
+    WITH lote AS (
+        SELECT id, consultationdatetime FROM consulta
+        WHERE consultationdatetime < p_antes_de
+        ORDER BY consultationdatetime ASC
+        LIMIT p_lote
+        FOR UPDATE SKIP LOCKED
+    ), movidas AS (
+        DELETE FROM consulta c
+        USING lote l
+        WHERE c.id = l.id AND c.consultationdatetime = l.consultationdatetime
+        RETURNING c.*
+    )
+    INSERT INTO consulta_historico (
+        id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+    )
+    SELECT id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+    FROM movidas;
+
+    GET DIAGNOSTICS v_arquivadas = ROW_COUNT;
+    PERFORM set_config('agendador.arquivando', 'off', true);
+    RETURN v_arquivadas;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_consulta_historico_by_id(p_id UUID)
+RETURNS SETOF consulta_historico
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta_historico WHERE id = p_id;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE pr_delete_consulta(p_id UUID)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM consulta WHERE id = p_id;
+    IF NOT FOUND THEN
+        DELETE FROM consulta_historico WHERE id = p_id;
+    END IF;
+END;
+$$;
+
+-- Uma consulta arquivada que volta a ser salva (ex.: encontrada via histórico e alterada) retorna para a tabela quente.
+CREATE OR REPLACE PROCEDURE pr_upsert_consulta(
+    IN p_id UUID,
+    IN p_doctorname VARCHAR,
+    IN p_patientname VARCHAR,
+    IN p_patientnumber VARCHAR,
+    IN p_speciality VARCHAR,
+    IN p_description VARCHAR,
+    IN p_status VARCHAR,
+    IN p_consultationdatetime TIMESTAMP,
+    IN p_secretaria_id UUID
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE consulta SET
+        doctorname = p_doctorname,
+        patientname = p_patientname,
+        patientnumber = p_patientnumber,
+        speciality = p_speciality,
+        description = p_description,
+        status = p_status,
+        consultationdatetime = p_consultationdatetime,
+        secretaria_id = p_secretaria_id
+    WHERE id = p_id;
+
+    IF NOT FOUND THEN
+        DELETE FROM consulta_historico WHERE id = p_id;
+        INSERT INTO consulta (
+            id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+        ) VALUES (
+            p_id, p_doctorname, p_patientname, p_patientnumber, p_speciality, p_description, p_status, p_consultationdatetime, p_secretaria_id
+        );
+    END IF;
+END;
+$$;
@@ -0,0 +1,36 @@
+-- Agenda uma consulta em uma única ida ao banco: confere a secretária, reserva o horário e insere.
+-- O horário é garantido por uq_consulta_doctor_slot; ON CONFLICT DO NOTHING evita o savepoint de um bloco EXCEPTION.
+-- O alvo do ON CONFLICT é só esse índice: qualquer outra violação (ex.: id repetido) continua sendo erro.
+-- Retorna AGENDADA, SECRETARIA_NAO_ENCONTRADA ou HORARIO_OCUPADO.
+CREATE OR REPLACE FUNCTION fn_agendar_consulta(
+    p_id UUID,
+    p_doctorname VARCHAR,
+    p_patientname VARCHAR,
+    p_patientnumber VARCHAR,
+    p_speciality VARCHAR,
+    p_description VARCHAR,
+    p_status VARCHAR,
+    p_consultationdatetime TIMESTAMP,
+    p_secretaria_id UUID
+)
+RETURNS VARCHAR
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM secretaria WHERE id = p_secretaria_id) THEN
+        RETURN 'SECRETARIA_NAO_ENCONTRADA';
+    END IF;
+
+    INSERT INTO consulta (
+        id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+    ) VALUES (
+        p_id, p_doctorname, p_patientname, p_patientnumber, p_speciality, p_description, p_status, p_consultationdatetime, p_secretaria_id
+    )
+    ON CONFLICT (doctorname, consultationdatetime) WHERE status <> 'CANCELADA' DO NOTHING;
+
+    IF NOT FOUND THEN
+        RETURN 'HORARIO_OCUPADO';
+    END IF;
+    RETURN 'AGENDADA';
+END;
+$$;
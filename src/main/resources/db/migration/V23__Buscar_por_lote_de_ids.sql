@@ -0,0 +1,25 @@
+-- Busca várias consultas por id em uma única chamada, incluindo as já arquivadas (como findById).
+CREATE OR REPLACE FUNCTION fn_find_consultas_by_ids(p_ids UUID[])
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM consulta WHERE id = ANY(p_ids)
+    UNION ALL
+    SELECT h.id, h.doctorname, h.patientname, h.patientnumber, h.speciality, h.description, h.status,
+           h.consultationdatetime, h.secretaria_id
+    FROM consulta_historico h
+    WHERE h.id = ANY(p_ids);
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fn_find_secretarias_by_ids(p_ids UUID[])
+RETURNS SETOF secretaria
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RETURN QUERY
+    SELECT * FROM secretaria WHERE id = ANY(p_ids);
+END;
+$$;
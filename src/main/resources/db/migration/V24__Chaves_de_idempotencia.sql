@@ -0,0 +1,12 @@
+-- Respostas de POSTs repetidos com o mesmo Idempotency-Key. status_code nulo indica requisição ainda em andamento.
+-- fingerprint é o SHA-256 (hex) de método, caminho e corpo: a mesma chave com outra requisição é recusada.
+CREATE TABLE idempotency_key (
+    chave VARCHAR(255) PRIMARY KEY,
+    fingerprint CHAR(64) NOT NULL,
+    status_code SMALLINT,
+    content_type VARCHAR(100),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,99 @@
+-- Desde o particionamento (V20) a chave primária é (id, consultationdatetime): o mesmo id pode existir em dois horários
+-- e a busca por id, sem a chave de partição, procura em todas as partições. Esta tabela não particionada guarda um
+-- id por consulta com o seu horário: garante a unicidade do id e permite buscar por id em uma única partição.
+-- Custo: cada INSERT, DELETE ou mudança de horário em consulta grava também aqui.
+CREATE TABLE consulta_identificador (
+    id UUID PRIMARY KEY,
+    consultationdatetime TIMESTAMP NOT NULL
+);
+
+INSERT INTO consulta_identificador (id, consultationdatetime)
+SELECT id, consultationdatetime FROM consulta;
+
+-- Um UPDATE que move a linha de partição dispara DELETE e depois INSERT, então a tabela continua consistente.
+CREATE OR REPLACE FUNCTION fn_registrar_identificador_consulta()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO consulta_identificador (id, consultationdatetime) VALUES (NEW.id, NEW.consultationdatetime);
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM consulta_identificador WHERE id = OLD.id;
+    ELSE
+        UPDATE consulta_identificador SET consultationdatetime = NEW.consultationdatetime WHERE id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_consulta_identificador
+    AFTER INSERT OR DELETE OR UPDATE OF consultationdatetime ON consulta
+    FOR EACH ROW EXECUTE FUNCTION fn_registrar_identificador_consulta();
+
+CREATE OR REPLACE FUNCTION fn_find_consulta_by_id(p_id UUID)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_consultationdatetime TIMESTAMP;
+BEGIN
+    SELECT consultationdatetime INTO v_consultationdatetime FROM consulta_identificador WHERE id = p_id;
+    IF FOUND THEN
+        RETURN QUERY
+        SELECT * FROM consulta WHERE id = p_id AND consultationdatetime = v_consultationdatetime;
+    END IF;
+END;
+$$;
+
+-- O horário atual vem de consulta_identificador, então o UPDATE também toca uma única partição.
+-- A inserção usa ON CONFLICT na chave completa: duas gravações simultâneas do mesmo id e horário terminam em UPDATE.
+-- O mesmo id em outro horário é recusado pela chave primária de consulta_identificador.
+CREATE OR REPLACE PROCEDURE pr_upsert_consulta(
+    IN p_id UUID,
+    IN p_doctorname VARCHAR,
+    IN p_patientname VARCHAR,
+    IN p_patientnumber VARCHAR,
+    IN p_speciality VARCHAR,
+    IN p_description VARCHAR,
+    IN p_status VARCHAR,
+    IN p_consultationdatetime TIMESTAMP,
+    IN p_secretaria_id UUID
+)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_consultationdatetime TIMESTAMP;
+BEGIN
+    SELECT consultationdatetime INTO v_consultationdatetime FROM consulta_identificador WHERE id = p_id;
+    IF FOUND THEN
+        UPDATE consulta SET
+            doctorname = p_doctorname,
+            patientname = p_patientname,
+            patientnumber = p_patientnumber,
+            speciality = p_speciality,
+            description = p_description,
+            status = p_status,
+            consultationdatetime = p_consultationdatetime,
+            secretaria_id = p_secretaria_id
+        WHERE id = p_id AND consultationdatetime = v_consultationdatetime;
+    END IF;
+
+    IF NOT FOUND THEN
+        DELETE FROM consulta_historico WHERE id = p_id;
+        INSERT INTO consulta (
+            id, doctorname, patientname, patientnumber, speciality, description, status, consultationdatetime, secretaria_id
+        ) VALUES (
+            p_id, p_doctorname, p_patientname, p_patientnumber, p_speciality, p_description, p_status, p_consultationdatetime, p_secretaria_id
+        )
+        ON CONFLICT (id, consultationdatetime) DO UPDATE SET
+            doctorname = EXCLUDED.doctorname,
+            patientname = EXCLUDED.patientname,
+            patientnumber = EXCLUDED.patientnumber,
+            speciality = EXCLUDED.speciality,
+            description = EXCLUDED.description,
+            status = EXCLUDED.status,
+            secretaria_id = EXCLUDED.secretaria_id;
+    END IF;
+END;
+$$;
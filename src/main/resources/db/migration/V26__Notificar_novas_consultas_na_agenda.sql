@@ -0,0 +1,24 @@
+-- trg_consulta_alterada publica só o id, e um id novo não está na agenda em memória (DoctorScheduleIndex) de nenhum nó:
+-- um agendamento feito em outro nó deixaria o dia já carregado aqui dizendo que o horário está livre.
+-- Este gatilho publica o dia e o médico do horário ocupado, e quem tiver esse dia carregado o descarta e relê depois.
+-- O payload não leva o id: notificações iguais na mesma transação são entregues uma vez só, então uma importação
+-- em massa gera uma notificação por médico e dia, e não uma por linha.
+CREATE OR REPLACE FUNCTION fn_notificar_agenda_consulta()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+            AND NEW.doctorname = OLD.doctorname
+            AND NEW.consultationdatetime = OLD.consultationdatetime
+            AND NEW.status = OLD.status THEN
+        RETURN NULL;
+    END IF;
+    PERFORM pg_notify('agenda_alterada', NEW.consultationdatetime::DATE || '|' || NEW.doctorname);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_consulta_agenda
+    AFTER INSERT OR UPDATE OF doctorname, consultationdatetime, status ON consulta
+    FOR EACH ROW EXECUTE FUNCTION fn_notificar_agenda_consulta();
@@ -0,0 +1,25 @@
+CREATE INDEX IF NOT EXISTS idx_consulta_datetime_id ON consulta (consultationdatetime, id);
+
+CREATE OR REPLACE FUNCTION fn_find_consultas_page(
+    p_after_datetime TIMESTAMP,
+    p_after_id UUID,
+    p_limit INTEGER
+)
+RETURNS SETOF consulta
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF p_after_datetime IS NULL THEN
+        RETURN QUERY
+        SELECT * FROM consulta
+        ORDER BY consultationdatetime ASC, id ASC
+        LIMIT p_limit;
+    ELSE
+        RETURN QUERY
+        SELECT * FROM consulta
+        WHERE (consultationdatetime, id) > (p_after_datetime, p_after_id)
+        ORDER BY consultationdatetime ASC, id ASC
+        LIMIT p_limit;
+    END IF;
+END;
+$$;
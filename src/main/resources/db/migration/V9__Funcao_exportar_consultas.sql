@@ -0,0 +1,10 @@
+-- LANGUAGE sql (e não plpgsql) para que o planner faça inline da função:
+-- o RETURN QUERY do plpgsql materializa o resultado inteiro antes de devolvê-lo,
+-- o que anularia o cursor com fetch size usado na exportação.
+CREATE OR REPLACE FUNCTION fn_export_consultas()
+RETURNS SETOF consulta
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT * FROM consulta ORDER BY consultationdatetime ASC, id ASC;
+$$;
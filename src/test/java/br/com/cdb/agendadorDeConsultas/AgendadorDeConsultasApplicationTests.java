@@ -1,13 +1,37 @@
 package br.com.cdb.agendadorDeConsultas;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
 @SpringBootTest
 class AgendadorDeConsultasApplicationTests {
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	@DisplayName("Deve publicar as métricas dos locks de agenda por médico e dia")
+	void shouldPublishDoctorLockMetrics() {
+		assertEquals(0, meterRegistry.get("agendador.consulta.lock.aquisicoes").functionCounter().count());
+		assertNotNull(meterRegistry.get("agendador.consulta.lock.espera").functionTimer());
+		assertNotNull(meterRegistry.get("agendador.consulta.lock.espera.maxima").timeGauge());
+	}
+
+	@Test
+	@DisplayName("Deve publicar as buscas agrupadas dos caches de consulta e secretária")
+	void shouldPublishCoalescedLoadMetrics() {
+		assertNotNull(meterRegistry.get("agendador.cache.cargas.agrupadas").tag("cache", "consulta").functionCounter());
+		assertNotNull(meterRegistry.get("agendador.cache.cargas.agrupadas").tag("cache", "secretaria").functionCounter());
+	}
+
 }
@@ -0,0 +1,113 @@
+package br.com.cdb.agendadorDeConsultas;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Teste de carga: fica fora do build padrão. Rodar com "mvn test -Pcarga" contra o banco configurado.
+// Sobe a aplicação duas vezes, com threads de plataforma e com virtual threads, e compara a vazão da mesma carga.
+@Tag("carga")
+class AgendadorDeConsultasLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendadorDeConsultasLoadTest.class);
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 400);
+    private static final int REQUISICOES_POR_CLIENTE = Integer.getInteger("carga.requisicoes-por-cliente", 10);
+    private static final int THREADS_TOMCAT = Integer.getInteger("carga.threads-tomcat", 50);
+    private static final String ENDPOINT = System.getProperty("carga.endpoint", "/consultas/search?patient=Paciente&limit=20");
+
+    @Test
+    @DisplayName("Deve comparar a vazão com threads de plataforma e com virtual threads")
+    void compararVazao() throws Exception {
+        Resultado plataforma = executarCarga(false);
+        Resultado virtual = executarCarga(true);
+
+        logger.info("CARGA: {} clientes x {} requisições em {}", CLIENTES, REQUISICOES_POR_CLIENTE, ENDPOINT);
+        logger.info("CARGA: threads de plataforma (máximo {} no Tomcat): {}", THREADS_TOMCAT, plataforma);
+        logger.info("CARGA: virtual threads (limitadas ao pool de conexões): {}", virtual);
+        logger.info("CARGA: vazão com virtual threads = {}x a de plataforma",
+                String.format("%.2f", virtual.requisicoesPorSegundo() / plataforma.requisicoesPorSegundo()));
+
+        assertEquals(0, plataforma.falhas());
+        assertEquals(0, virtual.falhas());
+    }
+
+    private Resultado executarCarga(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AgendadorDeConsultasApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + THREADS_TOMCAT,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level." + AgendadorDeConsultasLoadTest.class.getName() + "=INFO",
+                        "agendador.particoes.enabled=false",
+                        "agendador.arquivamento.enabled=false")
+                .run()) {
+            int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + porta + ENDPOINT);
+            HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            disparar(http, uri, 20, 5);
+            return disparar(http, uri, CLIENTES, REQUISICOES_POR_CLIENTE);
+        }
+    }
+
+    private Resultado disparar(HttpClient http, URI uri, int clientes, int requisicoesPorCliente) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        AtomicInteger sucessos = new AtomicInteger();
+        AtomicInteger falhas = new AtomicInteger();
+        long inicio = System.nanoTime();
+        try (ExecutorService clientesVirtuais = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int i = 0; i < clientes; i++) {
+                futuros.add(clientesVirtuais.submit(() -> {
+                    for (int r = 0; r < requisicoesPorCliente; r++) {
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            (response.statusCode() == 200 ? sucessos : falhas).incrementAndGet();
+                        } catch (Exception e) {
+                            falhas.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        }
+        return new Resultado(sucessos.get(), falhas.get(), Duration.ofNanos(System.nanoTime() - inicio));
+    }
+
+    private record Resultado(int sucessos, int falhas, Duration duracao) {
+
+        double requisicoesPorSegundo() {
+            return sucessos * 1000.0 / Math.max(1, duracao.toMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sucessos, %d falhas em %d ms (%.1f req/s)",
+                    sucessos, falhas, duracao.toMillis(), requisicoesPorSegundo());
+        }
+    }
+}
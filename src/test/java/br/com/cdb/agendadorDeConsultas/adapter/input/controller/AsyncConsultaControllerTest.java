@@ -0,0 +1,119 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
+
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
+import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaImportUseCase;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase;
+import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.port.input.AsyncConsultaInputPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// O caso de uso assíncrono é mockado: aqui só interessa como o controller responde quando o CompletableFuture completa.
+// Mesmos mocks do ConsultaControllerTest, para que o contexto seja reaproveitado.
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsyncConsultaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private AsyncConsultaInputPort asyncConsultaInputPort;
+
+    @MockitoBean
+    private ConsultaUseCase consultaUseCase;
+
+    @MockitoBean
+    private ConsultaImportUseCase consultaImportUseCase;
+
+    @MockitoBean
+    private ConsultaMapper consultaMapper;
+
+    @Test
+    @DisplayName("Deve criar uma consulta pelo endpoint assíncrono e retornar 201")
+    void create_shouldReturnCreated() throws Exception {
+        UUID secretariaId = UUID.randomUUID();
+        ConsultaRequest body = ConsultaFactoryBot.buildRequest();
+        Consulta consulta = ConsultaFactoryBot.build();
+        ConsultaResponse response = ConsultaFactoryBot.buildResponse(consulta);
+        when(consultaMapper.toDomain(any(ConsultaRequest.class))).thenReturn(consulta);
+        when(asyncConsultaInputPort.createConsulta(eq(secretariaId), any(Consulta.class))).thenReturn(CompletableFuture.completedFuture(consulta));
+        when(consultaMapper.toResponse(consulta)).thenReturn(response);
+
+        MvcResult mvcResult = mockMvc.perform(post("/consultas/async/{secretariaId}", secretariaId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(response.id().toString()));
+    }
+
+    @Test
+    @DisplayName("Deve converter a falha de validação do CompletableFuture em 400")
+    void create_shouldReturnBadRequestOnValidationError() throws Exception {
+        when(consultaMapper.toDomain(any(ConsultaRequest.class))).thenReturn(ConsultaFactoryBot.build());
+        when(asyncConsultaInputPort.createConsulta(any(UUID.class), any(Consulta.class))).thenReturn(CompletableFuture.failedFuture(
+                new BusinessRuleValidationException("Consultas não podem ser agendadas nos fins de semana.")));
+
+        MvcResult mvcResult = mockMvc.perform(post("/consultas/async/{secretariaId}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ConsultaFactoryBot.buildRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Consultas não podem ser agendadas nos fins de semana."));
+    }
+
+    @Test
+    @DisplayName("Deve buscar os detalhes da consulta pelo endpoint assíncrono")
+    void getConsultaDetails_shouldReturnDetails() throws Exception {
+        Consulta consulta = ConsultaFactoryBot.build();
+        ConsultaDetails details = ConsultaFactoryBot.buildDetails(consulta);
+        when(asyncConsultaInputPort.getConsultaDetails(consulta.getId())).thenReturn(CompletableFuture.completedFuture(consulta));
+        when(consultaMapper.toDetails(consulta)).thenReturn(details);
+
+        MvcResult mvcResult = mockMvc.perform(get("/consultas/async/{id}", consulta.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Só a exportação tem prazo longo; as demais requisições assíncronas ficam com o padrão.
+        assertEquals(Duration.ofSeconds(30).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctorName").value(details.doctorName()));
+    }
+}
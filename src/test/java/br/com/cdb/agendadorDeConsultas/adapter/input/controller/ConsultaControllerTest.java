@@ -3,13 +3,23 @@ package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaRequest;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaResponse;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaDetails;
+import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaCursorMapper;
 import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaBatchResult;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportRejection;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
 import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaImportUseCase;
 import br.com.cdb.agendadorDeConsultas.core.usecase.ConsultaUseCase;
 import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.port.input.AsyncConsultaInputPort;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
@@ -19,18 +29,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,9 +67,19 @@ class ConsultaControllerTest {
     @MockitoBean
     private ConsultaUseCase consultaUseCase;
 
+    @MockitoBean
+    private ConsultaImportUseCase consultaImportUseCase;
+
     @MockitoBean
     private ConsultaMapper consultaMapper;
 
+    // Não usado aqui: mantém os mesmos mocks do AsyncConsultaControllerTest para que o contexto seja reaproveitado.
+    @MockitoBean
+    private AsyncConsultaInputPort asyncConsultaInputPort;
+
+    @Autowired
+    private ConsultaCursorMapper consultaCursorMapper;
+
     static final UUID CONSULTA_ID = UUID.randomUUID();
     static final UUID SECRETARIA_ID = UUID.randomUUID();
     static final String DOCTOR_NAME = "Dr. House";
@@ -92,20 +123,224 @@ class ConsultaControllerTest {
     }
 
     @Test
-    @DisplayName("Deve retornar uma lista com todas as consultas")
-    void getAllConsultas_shouldReturnListOfAllConsultas() throws Exception {
+    @DisplayName("Deve devolver a resposta guardada ao repetir o agendamento com o mesmo Idempotency-Key")
+    void create_shouldReplayStoredResponse_whenIdempotencyKeyIsRepeated() throws Exception {
+        ConsultaRequest request = ConsultaFactoryBot.buildRequest();
+        Consulta consultaSalva = new Consulta();
+        consultaSalva.setId(CONSULTA_ID);
+        consultaSalva.setSecretariaId(SECRETARIA_ID);
+        String chave = UUID.randomUUID().toString();
+
+        when(consultaMapper.toDomain(any(ConsultaRequest.class))).thenReturn(new Consulta());
+        when(consultaUseCase.createConsulta(eq(SECRETARIA_ID), any(Consulta.class))).thenReturn(consultaSalva);
+        when(consultaMapper.toResponse(any(Consulta.class))).thenReturn(ConsultaFactoryBot.buildResponse(consultaSalva));
+
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            mockMvc.perform(post("/consultas/{secretariaId}", SECRETARIA_ID)
+                            .header("Idempotency-Key", chave)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(CONSULTA_ID.toString()));
+        }
+
+        verify(consultaUseCase, times(1)).createConsulta(eq(SECRETARIA_ID), any(Consulta.class));
+    }
+
+    @Test
+    @DisplayName("Deve agendar um lote de consultas e retornar o resultado de cada item")
+    void createBatch_shouldReturnPerItemResults() throws Exception {
+        List<ConsultaRequest> request = List.of(ConsultaFactoryBot.buildRequest(), ConsultaFactoryBot.buildRequest());
+        Consulta consultaSalva = new Consulta();
+        consultaSalva.setId(CONSULTA_ID);
+        consultaSalva.setSecretariaId(SECRETARIA_ID);
+        ConsultaResponse response = ConsultaFactoryBot.buildResponse(consultaSalva);
+
+        when(consultaMapper.toDomain(any(ConsultaRequest.class))).thenReturn(new Consulta());
+        when(consultaUseCase.createConsultas(eq(SECRETARIA_ID), any())).thenReturn(List.of(
+                ConsultaBatchResult.created(0, consultaSalva),
+                ConsultaBatchResult.rejected(1, "O médico já possui outra consulta agendada para este mesmo horário.")));
+        when(consultaMapper.toResponse(consultaSalva)).thenReturn(response);
+
+        mockMvc.perform(post("/consultas/{secretariaId}/batch", SECRETARIA_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].consulta.id").value(CONSULTA_ID.toString()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("O médico já possui outra consulta agendada para este mesmo horário."));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request ao enviar um lote vazio")
+    void createBatch_shouldReturnBadRequest_whenBatchIsEmpty() throws Exception {
+        when(consultaUseCase.createConsultas(eq(SECRETARIA_ID), any()))
+                .thenThrow(new BusinessRuleValidationException("O lote de consultas não pode ser vazio."));
+
+        mockMvc.perform(post("/consultas/{secretariaId}/batch", SECRETARIA_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("O lote de consultas não pode ser vazio."));
+    }
+
+    @Test
+    @DisplayName("Deve importar consultas de um CSV e retornar o relatório com as linhas rejeitadas")
+    void importConsultas_shouldReturnReport() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "consultas.csv", "text/csv",
+                "doctorName,patientName,patientNumber,speciality,description,consultationDateTime,status\n".getBytes(StandardCharsets.UTF_8));
+        ConsultaImportReport report = new ConsultaImportReport(10, 9, 1,
+                List.of(new ConsultaImportRejection(4, "Data da consulta inválida.")));
+        when(consultaImportUseCase.importConsultas(eq(SECRETARIA_ID), any(InputStream.class))).thenReturn(report);
+
+        mockMvc.perform(multipart("/consultas/{secretariaId}/import", SECRETARIA_ID).file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(10))
+                .andExpect(jsonPath("$.importedRows").value(9))
+                .andExpect(jsonPath("$.rejectedRows").value(1))
+                .andExpect(jsonPath("$.rejections[0].lineNumber").value(4))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Data da consulta inválida."));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request ao importar um arquivo vazio")
+    void importConsultas_shouldReturnBadRequest_whenFileIsEmpty() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "consultas.csv", "text/csv", new byte[0]);
+
+        mockMvc.perform(multipart("/consultas/{secretariaId}/import", SECRETARIA_ID).file(file))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("O arquivo de importação está vazio."));
+
+        verify(consultaImportUseCase, never()).importConsultas(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a primeira página de consultas com o cursor da próxima página")
+    void getAllConsultas_shouldReturnFirstPageWithNextCursor() throws Exception {
         Consulta consulta = ConsultaFactoryBot.build();
         ConsultaResponse response = ConsultaFactoryBot.buildResponse(consulta);
+        ConsultaCursor nextCursor = ConsultaCursor.of(consulta);
 
-        when(consultaUseCase.getConsultas()).thenReturn(Collections.singletonList(consulta));
+        when(consultaUseCase.getConsultas(null, 1)).thenReturn(new ConsultaPage(List.of(consulta), nextCursor));
         when(consultaMapper.toResponse(any(Consulta.class))).thenReturn(response);
 
-        ResultActions result = mockMvc.perform(get("/consultas"));
+        ResultActions result = mockMvc.perform(get("/consultas").param("size", "1"));
         result.andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(consulta.getId().toString()))
+                .andExpect(jsonPath("$.consultas[0].id").value(consulta.getId().toString()))
+                .andExpect(jsonPath("$.consultas[0].patientName").value(consulta.getPatientName()))
+                .andExpect(jsonPath("$.nextCursor").value(consultaCursorMapper.toToken(nextCursor)));
+    }
+
+    @Test
+    @DisplayName("Deve repassar o cursor decodificado ao buscar a página seguinte")
+    void getAllConsultas_shouldDecodeCursor() throws Exception {
+        ConsultaCursor cursor = new ConsultaCursor(LocalDateTime.of(2030, 1, 7, 10, 0), CONSULTA_ID);
+
+        when(consultaUseCase.getConsultas(cursor, 20)).thenReturn(new ConsultaPage(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/consultas").param("cursor", consultaCursorMapper.toToken(cursor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consultas").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve repassar os filtros informados e retornar a página filtrada")
+    void searchConsultas_shouldPassFiltersToUseCase() throws Exception {
+        Consulta consulta = ConsultaFactoryBot.build();
+        ConsultaResponse response = ConsultaFactoryBot.buildResponse(consulta);
+        ConsultaFilter filter = new ConsultaFilter(DOCTOR_NAME, null, null, StatusConsulta.AGENDADA,
+                LocalDateTime.of(2030, 1, 1, 0, 0), null);
+
+        when(consultaUseCase.searchConsultas(filter, null, 20)).thenReturn(new ConsultaPage(List.of(consulta), null));
+        when(consultaMapper.toResponse(any(Consulta.class))).thenReturn(response);
+
+        mockMvc.perform(get("/consultas/filtro")
+                        .param("doctorName", DOCTOR_NAME)
+                        .param("status", "agendada")
+                        .param("from", "2030-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consultas[0].id").value(consulta.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request quando o status do filtro for inválido")
+    void searchConsultas_shouldReturnBadRequest_whenStatusIsInvalid() throws Exception {
+        mockMvc.perform(get("/consultas/filtro").param("status", "REMARCADA"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Status inválido: REMARCADA"));
+
+        verify(consultaUseCase, never()).searchConsultas(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve retornar as consultas mais parecidas com o nome do paciente")
+    void searchByPatientName_shouldReturnRankedConsultas() throws Exception {
+        Consulta consulta = ConsultaFactoryBot.build();
+        ConsultaResponse response = ConsultaFactoryBot.buildResponse(consulta);
+
+        when(consultaUseCase.searchByPatientName("Jon Do", 5)).thenReturn(List.of(consulta));
+        when(consultaMapper.toResponse(any(Consulta.class))).thenReturn(response);
+
+        mockMvc.perform(get("/consultas/search").param("patient", "Jon Do").param("limit", "5"))
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].patientName").value(consulta.getPatientName()));
     }
 
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request quando o nome do paciente não for informado")
+    void searchByPatientName_shouldReturnBadRequest_whenPatientIsMissing() throws Exception {
+        when(consultaUseCase.searchByPatientName(null, 20))
+                .thenThrow(new BusinessRuleValidationException("O nome do paciente deve ter entre 3 e 100 caracteres."));
+
+        mockMvc.perform(get("/consultas/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 Bad Request quando o cursor for inválido")
+    void getAllConsultas_shouldReturnBadRequest_whenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/consultas").param("cursor", "cursor-invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginação inválido."));
+    }
+
+    @Test
+    @DisplayName("Deve exportar as consultas em NDJSON, uma por linha")
+    void exportConsultas_shouldStreamNdjson() throws Exception {
+        Consulta primeira = ConsultaFactoryBot.build();
+        Consulta segunda = ConsultaFactoryBot.build();
+
+        doAnswer(invocation -> {
+            Consumer<Consulta> action = invocation.getArgument(0);
+            action.accept(primeira);
+            action.accept(segunda);
+            return null;
+        }).when(consultaUseCase).exportConsultas(any());
+        when(consultaMapper.toResponse(any(Consulta.class)))
+                .thenAnswer(invocation -> ConsultaFactoryBot.buildResponse(invocation.getArgument(0)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/consultas/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(primeira.getId().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals(segunda.getId().toString(), objectMapper.readTree(lines[1]).get("id").asText());
+    }
+
     @Test
     @DisplayName("Deve retornar as próximas consultas não canceladas")
     void getUpcomingConsultas_shouldReturnUpcomingConsultasForPatient() throws Exception {
@@ -122,6 +357,33 @@ class ConsultaControllerTest {
                 .andExpect(jsonPath("$[0].status").value(consulta.getStatus().name()));
     }
 
+    @Test
+    @DisplayName("Deve retornar os próximos horários livres do médico")
+    void getAvailableSlots_shouldReturnFreeSlots() throws Exception {
+        LocalDateTime inicio = LocalDateTime.of(2030, 1, 7, 8, 0);
+        when(consultaUseCase.findAvailableSlots(DOCTOR_NAME, null, inicio, null, 2))
+                .thenReturn(List.of(new AvailableSlot(DOCTOR_NAME, inicio), new AvailableSlot(DOCTOR_NAME, inicio.plusMinutes(30))));
+
+        mockMvc.perform(get("/consultas/slots")
+                        .param("doctorName", DOCTOR_NAME)
+                        .param("from", "2030-01-07T08:00:00")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].doctorName").value(DOCTOR_NAME))
+                .andExpect(jsonPath("$[1].consultationDateTime").value("2030-01-07T08:30:00"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 ao buscar horários livres sem médico nem especialidade")
+    void getAvailableSlots_shouldReturnBadRequest_whenFiltersAreMissing() throws Exception {
+        when(consultaUseCase.findAvailableSlots(null, null, null, null, 10))
+                .thenThrow(new BusinessRuleValidationException("Informe o nome do médico ou a especialidade."));
+
+        mockMvc.perform(get("/consultas/slots"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Deve retornar os detalhes de uma consulta específica pelo ID")
     void getConsultaDetails_shouldReturnConsultaDetails_whenIdExists() throws Exception {
@@ -0,0 +1,92 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.controller;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.port.input.ReactiveConsultaInputPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"agendador.reactive.enabled=true", "spring.datasource.hikari.maximum-pool-size=2"})
+@AutoConfigureMockMvc
+class ReactiveConsultaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ReactiveConsultaInputPort consultaInputPort;
+
+    @Test
+    @DisplayName("Deve agendar uma consulta pelo endpoint reativo e retornar 201")
+    void create_shouldReturnCreated() throws Exception {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(consultaInputPort.createConsulta(eq(secretariaId), any(Consulta.class))).thenReturn(Mono.just(consulta));
+
+        MvcResult mvcResult = mockMvc.perform(post("/reactive/consultas/{secretariaId}", secretariaId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ConsultaFactoryBot.buildRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(consulta.getId().toString()));
+    }
+
+    @Test
+    @DisplayName("Deve converter o erro de validação do Mono em 400")
+    void create_shouldReturnBadRequestOnValidationError() throws Exception {
+        when(consultaInputPort.createConsulta(any(UUID.class), any(Consulta.class)))
+                .thenReturn(Mono.error(new BusinessRuleValidationException("Horário fora do expediente")));
+
+        MvcResult mvcResult = mockMvc.perform(post("/reactive/consultas/{secretariaId}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ConsultaFactoryBot.buildRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Horário fora do expediente"));
+    }
+
+    @Test
+    @DisplayName("Deve listar as próximas consultas como array JSON")
+    void getUpcomingConsultas_shouldReturnArray() throws Exception {
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(consultaInputPort.getUpcomingConsultas()).thenReturn(Flux.just(consulta));
+
+        MvcResult mvcResult = mockMvc.perform(get("/reactive/consultas/proximas"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(consulta.getId().toString()));
+    }
+}
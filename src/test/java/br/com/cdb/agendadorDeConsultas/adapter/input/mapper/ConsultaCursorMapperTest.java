@@ -0,0 +1,48 @@
+package br.com.cdb.agendadorDeConsultas.adapter.input.mapper;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultaCursorMapperTest {
+
+    private final ConsultaCursorMapper consultaCursorMapper = new ConsultaCursorMapper();
+
+    @Test
+    @DisplayName("Deve codificar e decodificar o cursor sem perda de informação")
+    void roundTrip() {
+        ConsultaCursor cursor = new ConsultaCursor(LocalDateTime.of(2030, 3, 4, 14, 30, 15), UUID.randomUUID());
+
+        String token = consultaCursorMapper.toToken(cursor);
+
+        assertFalse(token.contains(cursor.id().toString()));
+        assertEquals(cursor, consultaCursorMapper.fromToken(token));
+    }
+
+    @Test
+    @DisplayName("Deve tratar cursor nulo ou em branco como primeira página")
+    void nullOrBlank() {
+        assertNull(consultaCursorMapper.toToken(null));
+        assertNull(consultaCursorMapper.fromToken(null));
+        assertNull(consultaCursorMapper.fromToken(" "));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para cursor malformado")
+    void invalidToken() {
+        String semSeparador = Base64.getUrlEncoder().encodeToString("2030-03-04T14:30".getBytes(StandardCharsets.UTF_8));
+        String dataInvalida = Base64.getUrlEncoder().encodeToString(("ontem|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaCursorMapper.fromToken("%%%"));
+        assertThrows(BusinessRuleValidationException.class, () -> consultaCursorMapper.fromToken(semSeparador));
+        assertThrows(BusinessRuleValidationException.class, () -> consultaCursorMapper.fromToken(dataInvalida));
+    }
+}
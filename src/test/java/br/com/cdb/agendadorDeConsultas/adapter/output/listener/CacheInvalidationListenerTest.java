@@ -0,0 +1,139 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.listener;
+
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.ConsultaRepositoryProxy;
+import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy.SecretariaRepositoryProxy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationListenerTest {
+
+    private final ConsultaRepositoryProxy consultaProxy = mock(ConsultaRepositoryProxy.class);
+    private final SecretariaRepositoryProxy secretariaProxy = mock(SecretariaRepositoryProxy.class);
+
+    private CacheInvalidationListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve invalidar a entrada do proxy correspondente ao canal notificado")
+    void dispatch_shouldEvictMatchingProxy() {
+        listener = new CacheInvalidationListener(mock(DataSource.class), consultaProxy, secretariaProxy, Duration.ofSeconds(1));
+        UUID consultaId = UUID.randomUUID();
+        UUID secretariaId = UUID.randomUUID();
+
+        listener.dispatch(CacheInvalidationListener.CONSULTA_CHANNEL, consultaId.toString());
+        listener.dispatch(CacheInvalidationListener.SECRETARIA_CHANNEL, secretariaId.toString());
+
+        verify(consultaProxy).evict(consultaId);
+        verify(secretariaProxy).evict(secretariaId);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o dia da agenda do médico notificado no canal de agenda")
+    void dispatch_shouldEvictNotifiedScheduleDay() {
+        listener = new CacheInvalidationListener(mock(DataSource.class), consultaProxy, secretariaProxy, Duration.ofSeconds(1));
+
+        listener.dispatch(CacheInvalidationListener.AGENDA_CHANNEL, "2030-01-07|Dr. House|Plantão");
+
+        verify(consultaProxy).evictDay("Dr. House|Plantão", LocalDate.of(2030, 1, 7));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar notificações com payload inválido")
+    void dispatch_shouldIgnoreInvalidPayload() {
+        listener = new CacheInvalidationListener(mock(DataSource.class), consultaProxy, secretariaProxy, Duration.ofSeconds(1));
+
+        listener.dispatch(CacheInvalidationListener.CONSULTA_CHANNEL, "nao-e-um-uuid");
+        listener.dispatch(CacheInvalidationListener.AGENDA_CHANNEL, "Dr. House");
+        listener.dispatch(CacheInvalidationListener.AGENDA_CHANNEL, "07/01/2030|Dr. House");
+
+        verifyNoInteractions(consultaProxy, secretariaProxy);
+    }
+
+    @Test
+    @DisplayName("Deve limpar todos os caches quando a conexão de escuta cair")
+    void listen_shouldFlushCachesWhenConnectionFails() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        listener = new CacheInvalidationListener(dataSource, consultaProxy, secretariaProxy, Duration.ofSeconds(10));
+
+        listener.start();
+
+        verify(consultaProxy, timeout(2000)).clearCache();
+        verify(secretariaProxy, timeout(2000)).clearCache();
+    }
+
+    @Test
+    @DisplayName("Deve receber o NOTIFY do banco e invalidar a consulta alterada")
+    void listen_shouldEvictOnDatabaseNotification() throws SQLException, InterruptedException {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:postgresql://localhost:5432/agendadorDeConsultas", "postgres", "postgres");
+        listener = new CacheInvalidationListener(dataSource, consultaProxy, secretariaProxy, Duration.ofSeconds(1));
+        UUID consultaId = UUID.randomUUID();
+
+        listener.start();
+        // O LISTEN é feito de forma assíncrona; reenvia até a notificação ser recebida.
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (int i = 0; i < 20 && mockingDetails(consultaProxy).getInvocations().isEmpty(); i++) {
+                statement.execute("SELECT pg_notify('" + CacheInvalidationListener.CONSULTA_CHANNEL + "', '" + consultaId + "')");
+                Thread.sleep(250);
+            }
+        }
+
+        verify(consultaProxy, atLeastOnce()).evict(consultaId);
+        verify(consultaProxy, never()).clearCache();
+    }
+
+    @Test
+    @DisplayName("Deve notificar o dia e o médico quando uma consulta é inserida")
+    void insert_shouldNotifyScheduleDay() throws SQLException {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:postgresql://localhost:5432/agendadorDeConsultas", "postgres", "postgres");
+        UUID consultaId = UUID.randomUUID();
+        LocalDate dia = LocalDate.now().plusDays(1);
+
+        try (Connection escuta = dataSource.getConnection(); Connection escrita = dataSource.getConnection()) {
+            try (Statement statement = escuta.createStatement()) {
+                statement.execute("LISTEN " + CacheInvalidationListener.AGENDA_CHANNEL);
+            }
+            try (PreparedStatement insert = escrita.prepareStatement("INSERT INTO consulta (id, doctorname, patientname, patientnumber, "
+                    + "speciality, description, status, consultationdatetime) VALUES (?, 'Dr. Notificado', 'Paciente', '1', 'Clínico', "
+                    + "'Teste', 'AGENDADA', ?)")) {
+                insert.setObject(1, consultaId);
+                insert.setObject(2, dia.atTime(10, 0));
+                insert.executeUpdate();
+            }
+
+            try {
+                PGNotification[] notificacoes = escuta.unwrap(PGConnection.class).getNotifications(5000);
+                assertNotNull(notificacoes);
+                assertEquals(dia + "|Dr. Notificado", notificacoes[0].getParameter());
+            } finally {
+                try (PreparedStatement delete = escrita.prepareStatement("DELETE FROM consulta WHERE id = ?")) {
+                    delete.setObject(1, consultaId);
+                    delete.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportRejection;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ConsultaImportRepositoryTest {
+
+    private static final String CSV = """
+            doctorName,patientName,patientNumber,speciality,description,consultationDateTime,status
+            Dr. House,John Doe,123,Cardiologia,Rotina,2030-01-07 10:00:00,
+            Dr. House,Jane Doe,12a,Cardiologia,Rotina,2030-01-07 11:00:00,
+            """;
+
+    @Autowired
+    private ConsultaImportRepository consultaImportRepository;
+
+    @MockitoBean
+    private JdbcTemplate jdbcTemplate;
+
+    private Connection connection;
+    private Statement statement;
+    private PreparedStatement importStatement;
+    private CopyIn copyIn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        importStatement = mock(PreparedStatement.class);
+        copyIn = mock(CopyIn.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(ConsultaImportRepository.COPY_SQL)).thenReturn(copyIn);
+        when(connection.prepareStatement("call pr_importar_consultas(?)")).thenReturn(importStatement);
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<ConsultaImportReport>>any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<ConsultaImportReport>>getArgument(0).doInConnection(connection));
+    }
+
+    @Test
+    @DisplayName("Deve carregar o CSV via COPY, mesclar na tabela de consultas e montar o relatório")
+    void importCsv_shouldCopyMergeAndReport() throws SQLException {
+        UUID secretariaId = UUID.randomUUID();
+        ResultSet counts = mock(ResultSet.class);
+        PreparedStatement rejectionsStatement = mock(PreparedStatement.class);
+        ResultSet rejections = mock(ResultSet.class);
+
+        when(copyIn.endCopy()).thenReturn(2L);
+        when(statement.executeQuery(anyString())).thenReturn(counts);
+        when(counts.next()).thenReturn(true);
+        when(counts.getLong(1)).thenReturn(2L);
+        when(counts.getLong(2)).thenReturn(1L);
+        when(connection.prepareStatement(startsWith("SELECT line_number, error"))).thenReturn(rejectionsStatement);
+        when(rejectionsStatement.executeQuery()).thenReturn(rejections);
+        when(rejections.next()).thenReturn(true, false);
+        when(rejections.getLong("line_number")).thenReturn(2L);
+        when(rejections.getString("error")).thenReturn("O número do paciente deve conter apenas dígitos.");
+
+        ConsultaImportReport report = consultaImportRepository.importCsv(secretariaId,
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.totalRows());
+        assertEquals(1, report.importedRows());
+        assertEquals(1, report.rejectedRows());
+        assertEquals(new ConsultaImportRejection(3, "O número do paciente deve conter apenas dígitos."), report.rejections().get(0));
+
+        verify(statement).execute("call pr_criar_staging_importacao()");
+        verify(copyIn, atLeastOnce()).writeToCopy(any(byte[].class), eq(0), anyInt());
+        verify(importStatement).setObject(1, secretariaId);
+        verify(importStatement).execute();
+        verify(rejectionsStatement).setInt(1, ConsultaImportRepository.MAX_REJECTIONS_IN_REPORT);
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a importação e rejeitar o arquivo quando o CSV estiver fora do formato")
+    void importCsv_shouldRollbackOnMalformedCsv() throws SQLException {
+        when(copyIn.endCopy()).thenThrow(new PSQLException("extra data after last expected column", PSQLState.DATA_ERROR));
+
+        var exception = assertThrows(BusinessRuleValidationException.class, () -> consultaImportRepository.importCsv(
+                UUID.randomUUID(), new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(exception.getMessage().startsWith("Arquivo CSV inválido"));
+        verify(importStatement, never()).execute();
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a importação quando um horário for ocupado por outra requisição durante o merge")
+    void importCsv_shouldTranslateSlotConflict() {
+        doThrow(ConsultaRepositoryTest.duplicateKey("uq_consulta_doctor_slot"))
+                .when(jdbcTemplate).execute(ArgumentMatchers.<ConnectionCallback<ConsultaImportReport>>any());
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaImportRepository.importCsv(
+                UUID.randomUUID(), new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8))));
+    }
+}
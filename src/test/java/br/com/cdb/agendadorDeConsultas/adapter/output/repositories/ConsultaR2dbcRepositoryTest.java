@@ -0,0 +1,122 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Executa as funções de verdade no Postgres: o que se testa aqui é o mapeamento de tipos do driver R2DBC.
+@SpringBootTest(properties = {"agendador.reactive.enabled=true", "spring.datasource.hikari.maximum-pool-size=2"})
+class ConsultaR2dbcRepositoryTest {
+
+    @Autowired
+    private ConsultaR2dbcRepository consultaR2dbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID secretariaId;
+
+    @BeforeEach
+    void setUp() {
+        secretariaId = UUID.randomUUID();
+        String sufixo = secretariaId.toString().substring(0, 8);
+        jdbcTemplate.update("call pr_upsert_secretaria(?, ?, ?, ?, ?)",
+                secretariaId, "Secretária R2DBC", "r2dbc" + sufixo, "r2dbc" + sufixo + "@teste.com", "hash");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM consulta WHERE secretaria_id = ?", secretariaId);
+        jdbcTemplate.update("call pr_delete_secretaria(?)", secretariaId);
+    }
+
+    @Test
+    @DisplayName("Deve agendar a consulta e encontrá-la por id, por lote e pelo filtro")
+    void book_shouldPersistAndBeFound() {
+        Consulta consulta = novaConsulta();
+
+        Consulta agendada = consultaR2dbcRepository.book(consulta).block();
+
+        assertNotNull(agendada.getId());
+        Consulta encontrada = consultaR2dbcRepository.findById(agendada.getId()).block();
+        assertEquals(consulta.getDoctorName(), encontrada.getDoctorName());
+        assertEquals(consulta.getConsultationDateTime(), encontrada.getConsultationDateTime());
+        assertEquals(secretariaId, encontrada.getSecretariaId());
+
+        StepVerifier.create(consultaR2dbcRepository.findAllByIds(List.of(agendada.getId(), UUID.randomUUID())))
+                .expectNextMatches(c -> c.getId().equals(agendada.getId()))
+                .verifyComplete();
+
+        ConsultaFilter filtro = new ConsultaFilter(consulta.getDoctorName(), null, null, null, null, null);
+        StepVerifier.create(consultaR2dbcRepository.search(filtro, null, 10))
+                .expectNextMatches(c -> c.getId().equals(agendada.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o agendamento de um horário já ocupado")
+    void book_shouldRejectTakenSlot() {
+        Consulta consulta = novaConsulta();
+        consultaR2dbcRepository.book(consulta).block();
+
+        Consulta mesmoHorario = novaConsulta();
+        mesmoHorario.setDoctorName(consulta.getDoctorName());
+        mesmoHorario.setConsultationDateTime(consulta.getConsultationDateTime());
+
+        StepVerifier.create(consultaR2dbcRepository.book(mesmoHorario))
+                .expectErrorMatches(e -> e instanceof BusinessRuleValidationException
+                        && e.getMessage().equals(ConsultaRepository.SLOT_CONFLICT_MESSAGE))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar erro ao agendar para secretária inexistente e devolver vazio para id inexistente")
+    void book_shouldSignalMissingSecretaria() {
+        Consulta consulta = novaConsulta();
+        UUID inexistente = UUID.randomUUID();
+        consulta.setSecretariaId(inexistente);
+
+        StepVerifier.create(consultaR2dbcRepository.book(consulta))
+                .expectErrorSatisfies(erro -> {
+                    assertInstanceOf(EntityNotFoundException.class, erro);
+                    assertEquals("Recurso não encontrado: Secretaria com id " + inexistente, erro.getMessage());
+                })
+                .verify();
+        StepVerifier.create(consultaR2dbcRepository.findById(UUID.randomUUID()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve paginar sem cursor usando parâmetros nulos tipados")
+    void findPage_shouldAcceptNullCursor() {
+        StepVerifier.create(consultaR2dbcRepository.findPage(null, 3).collectList())
+                .assertNext(pagina -> assertTrue(pagina.size() <= 3))
+                .verifyComplete();
+    }
+
+    private Consulta novaConsulta() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setId(null);
+        consulta.setDoctorName("Dr. R2DBC " + UUID.randomUUID());
+        consulta.setConsultationDateTime(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS).withHour(10));
+        consulta.setSecretariaId(secretariaId);
+        return consulta;
+    }
+}
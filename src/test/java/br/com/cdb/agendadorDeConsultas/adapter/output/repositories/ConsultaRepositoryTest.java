@@ -3,31 +3,51 @@ package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
 import br.com.cdb.agendadorDeConsultas.adapter.input.mapper.ConsultaMapper;
 import br.com.cdb.agendadorDeConsultas.adapter.output.entity.ConsultaEntity;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
 import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -42,6 +62,8 @@ class ConsultaRepositoryTest {
     @MockitoBean
     private ConsultaMapper consultaMapper;
 
+    private static final String BOOKING_SQL = "SELECT fn_agendar_consulta(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Test
     @DisplayName("Deve salvar uma nova consulta")
     void save_newConsulta() {
@@ -57,6 +79,49 @@ class ConsultaRepositoryTest {
         verify(jdbcTemplate).update(eq("call pr_upsert_consulta(?, ?, ?, ?, ?, ?, ?, ?, ?)"), any(UUID.class), any(), any(), any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    @DisplayName("Deve agendar uma consulta em uma única chamada ao banco")
+    void book_shouldCallBookingFunction() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setId(null);
+        ConsultaEntity consultaEntity = new ConsultaEntity();
+
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(consultaEntity);
+        when(consultaMapper.toDomainEntity(any(ConsultaEntity.class))).thenReturn(consulta);
+        when(jdbcTemplate.queryForObject(eq(BOOKING_SQL), eq(String.class), any(Object[].class))).thenReturn("AGENDADA");
+
+        assertSame(consulta, consultaRepository.book(consulta));
+
+        assertNotNull(consultaEntity.getId());
+        verify(jdbcTemplate).queryForObject(eq(BOOKING_SQL), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Deve traduzir o código de secretária inexistente ao agendar")
+    void book_shouldTranslateMissingSecretaria() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        ConsultaEntity consultaEntity = new ConsultaEntity();
+        consultaEntity.setSecretariaId(consulta.getSecretariaId());
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(consultaEntity);
+        when(jdbcTemplate.queryForObject(eq(BOOKING_SQL), eq(String.class), any(Object[].class))).thenReturn("SECRETARIA_NAO_ENCONTRADA");
+
+        JpaObjectRetrievalFailureException exception = assertThrows(JpaObjectRetrievalFailureException.class, () -> consultaRepository.book(consulta));
+        assertInstanceOf(EntityNotFoundException.class, exception.getCause());
+        assertEquals("Recurso não encontrado: Secretaria com id " + consulta.getSecretariaId(), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve traduzir o código de horário ocupado ao agendar")
+    void book_shouldTranslateSlotTaken() {
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(new ConsultaEntity());
+        when(jdbcTemplate.queryForObject(eq(BOOKING_SQL), eq(String.class), any(Object[].class))).thenReturn("HORARIO_OCUPADO");
+
+        BusinessRuleValidationException exception = assertThrows(BusinessRuleValidationException.class,
+                () -> consultaRepository.book(ConsultaFactoryBot.build()));
+        assertEquals(ConsultaRepository.SLOT_CONFLICT_MESSAGE, exception.getMessage());
+    }
+
     @Test
     @DisplayName("Deve atualizar uma consulta existente")
     void save_updateConsulta() {
@@ -81,6 +146,100 @@ class ConsultaRepositoryTest {
                 consultaEntity.getSecretariaId());
     }
 
+    @Test
+    @DisplayName("Deve traduzir a violação de unicidade de horário do médico em erro de regra de negócio")
+    void save_shouldTranslateSlotConflict() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setId(null);
+        ConsultaEntity consultaEntity = ConsultaFactoryBot.buildEntity();
+        consultaEntity.setId(null);
+
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(consultaEntity);
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(duplicateKey("uq_consulta_doctor_slot"));
+
+        var exception = assertThrows(BusinessRuleValidationException.class, () -> consultaRepository.save(consulta));
+
+        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", exception.getMessage());
+        verify(consultaMapper, never()).toDomainEntity(any());
+    }
+
+    @Test
+    @DisplayName("Deve traduzir a violação do índice de horário herdado pela partição mensal")
+    void save_shouldTranslateSlotConflictOnPartitionIndex() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(ConsultaFactoryBot.buildEntity());
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(duplicateKey("consulta_2026_11_doctorname_consultationdatetime_idx"));
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaRepository.save(consulta));
+    }
+
+    @Test
+    @DisplayName("Não deve tratar como horário ocupado a violação de outra chave única")
+    void save_shouldPropagateOtherDuplicateKeys() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(consultaMapper.toEntity(any(Consulta.class))).thenReturn(ConsultaFactoryBot.buildEntity());
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(duplicateKey("consulta_2026_11_pkey"));
+
+        assertThrows(DuplicateKeyException.class, () -> consultaRepository.save(consulta));
+    }
+
+    @Test
+    @DisplayName("Deve devolver null só para o item do lote cujo horário já estava ocupado")
+    void saveAll_shouldSkipOnlyTheConflictingRow() {
+        Consulta livre = ConsultaFactoryBot.build();
+        Consulta ocupada = ConsultaFactoryBot.build();
+        Consulta salva = new Consulta();
+
+        when(consultaMapper.toEntity(any(Consulta.class))).thenAnswer(invocation -> ConsultaFactoryBot.buildEntity());
+        when(consultaMapper.toDomainEntity(any(ConsultaEntity.class))).thenReturn(salva);
+        when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<List<Object[]>>any())).thenReturn(new int[]{1, 0});
+
+        List<Consulta> result = consultaRepository.saveAll(List.of(livre, ocupada));
+
+        assertEquals(2, result.size());
+        assertSame(salva, result.get(0));
+        assertNull(result.get(1));
+        verify(consultaMapper, times(1)).toDomainEntity(any());
+    }
+
+    @Test
+    @DisplayName("Deve inserir um lote de consultas em um único batch")
+    void saveAll_shouldUseJdbcBatch() {
+        Consulta primeira = ConsultaFactoryBot.build();
+        primeira.setId(null);
+        Consulta segunda = ConsultaFactoryBot.build();
+        segunda.setId(null);
+
+        when(consultaMapper.toEntity(any(Consulta.class))).thenAnswer(invocation -> {
+            Consulta consulta = invocation.getArgument(0);
+            ConsultaEntity entity = new ConsultaEntity();
+            entity.setDoctorName(consulta.getDoctorName());
+            entity.setStatus(consulta.getStatus());
+            entity.setConsultationDateTime(consulta.getConsultationDateTime());
+            return entity;
+        });
+        when(consultaMapper.toDomainEntity(any(ConsultaEntity.class))).thenReturn(new Consulta());
+        when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<List<Object[]>>any())).thenReturn(new int[]{1, 1});
+
+        List<Consulta> result = consultaRepository.saveAll(List.of(primeira, segunda));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> argsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ConsultaRepository.BATCH_INSERT_SQL), argsCaptor.capture());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+
+        List<Object[]> args = argsCaptor.getValue();
+        assertEquals(2, args.size());
+        assertNotNull(args.get(0)[0]);
+        assertNotEquals(args.get(0)[0], args.get(1)[0]);
+        assertEquals(StatusConsulta.AGENDADA.name(), args.get(0)[6]);
+        assertEquals(2, result.size());
+        assertTrue(ConsultaRepository.BATCH_INSERT_SQL.contains("ON CONFLICT (doctorname, consultationdatetime) WHERE status <> 'CANCELADA' DO NOTHING"));
+    }
+
     @Test
     @DisplayName("Deve encontrar todas as consultas")
     void findAll() {
@@ -114,6 +273,116 @@ class ConsultaRepositoryTest {
         assertThrows(RuntimeException.class, () -> consultaRepository.findAll());
     }
 
+    @Test
+    @DisplayName("Deve buscar a primeira página de consultas sem cursor")
+    void findPage_withoutCursor() {
+        String sql = "SELECT * FROM fn_find_consultas_page(?, ?, ?)";
+        when(jdbcTemplate.query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), isNull(), isNull(), eq(21))).thenReturn(List.of(new Consulta()));
+
+        List<Consulta> result = consultaRepository.findPage(null, 21);
+
+        assertEquals(1, result.size());
+        verify(jdbcTemplate).query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), isNull(), isNull(), eq(21));
+    }
+
+    @Test
+    @DisplayName("Deve buscar a página de consultas a partir do cursor")
+    void findPage_withCursor() {
+        String sql = "SELECT * FROM fn_find_consultas_page(?, ?, ?)";
+        ConsultaCursor cursor = new ConsultaCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(jdbcTemplate.query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(cursor.consultationDateTime()), eq(cursor.id()), eq(21)))
+                .thenReturn(Collections.emptyList());
+
+        List<Consulta> result = consultaRepository.findPage(cursor, 21);
+
+        assertTrue(result.isEmpty());
+        verify(jdbcTemplate).query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(cursor.consultationDateTime()), eq(cursor.id()), eq(21));
+    }
+
+    @Test
+    @DisplayName("Deve buscar consultas filtradas repassando filtros ausentes como nulos")
+    void search_shouldBindFiltersAndCursor() {
+        String sql = "SELECT * FROM fn_search_consultas(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        ConsultaCursor cursor = new ConsultaCursor(LocalDateTime.of(2030, 1, 7, 10, 0), UUID.randomUUID());
+        ConsultaFilter filter = new ConsultaFilter("Dr. House", null, null, StatusConsulta.CANCELADA, null, null);
+        when(jdbcTemplate.query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq("Dr. House"), isNull(), isNull(), eq("CANCELADA"),
+                isNull(), isNull(), eq(cursor.consultationDateTime()), eq(cursor.id()), eq(21)))
+                .thenReturn(List.of(new Consulta()));
+
+        List<Consulta> result = consultaRepository.search(filter, cursor, 21);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    @DisplayName("Deve buscar consultas por similaridade do nome do paciente")
+    void searchByPatientName_shouldCallTrigramFunction() {
+        String sql = "SELECT * FROM fn_search_consultas_by_patient(?, ?)";
+        when(jdbcTemplate.query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq("Jon Do"), eq(20)))
+                .thenReturn(List.of(new Consulta()));
+
+        List<Consulta> result = consultaRepository.searchByPatientName("Jon Do", 20);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    @DisplayName("Deve exportar consultas por cursor com fetch size e sem autocommit")
+    void streamAll_shouldUseServerSideCursor() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        UUID id = UUID.randomUUID();
+
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement("SELECT * FROM fn_export_consultas()")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getString("id")).thenReturn(id.toString());
+        when(rs.getString("status")).thenReturn("AGENDADA");
+        when(rs.getTimestamp("consultationdatetime")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        when(rs.getString("secretaria_id")).thenReturn(UUID.randomUUID().toString());
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Void>>any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<Void>>getArgument(0).doInConnection(connection));
+
+        List<Consulta> exportadas = new ArrayList<>();
+        consultaRepository.streamAll(exportadas::add);
+
+        assertEquals(1, exportadas.size());
+        assertEquals(id, exportadas.get(0).getId());
+        verify(statement).setFetchSize(ConsultaRepository.EXPORT_FETCH_SIZE);
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a transação e restaurar o autocommit quando o cliente abortar a exportação")
+    void streamAll_shouldRollbackOnError() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString("id")).thenReturn(UUID.randomUUID().toString());
+        when(rs.getString("status")).thenReturn("AGENDADA");
+        when(rs.getTimestamp("consultationdatetime")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        when(rs.getString("secretaria_id")).thenReturn(UUID.randomUUID().toString());
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Void>>any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<Void>>getArgument(0).doInConnection(connection));
+
+        assertThrows(UncheckedIOException.class, () -> consultaRepository.streamAll(consulta -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        }));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
     @Test
     @DisplayName("Deve encontrar consultas futuras")
     void findUpcomingConsultas() {
@@ -140,6 +409,19 @@ class ConsultaRepositoryTest {
         verify(jdbcTemplate).query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(now));
     }
 
+    @Test
+    @DisplayName("Deve encontrar apenas consultas futuras agendadas")
+    void findUpcomingConsultasAgendadas() {
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "SELECT * FROM fn_find_upcoming_consultas_agendadas(?)";
+        when(jdbcTemplate.query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(now))).thenReturn(List.of(new Consulta()));
+
+        List<Consulta> result = consultaRepository.findUpcomingConsultasAgendadas(now);
+
+        assertEquals(1, result.size());
+        verify(jdbcTemplate).query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(now));
+    }
+
     @Test
     @DisplayName("Deve encontrar consulta por ID")
     void findById_found() {
@@ -168,6 +450,73 @@ class ConsultaRepositoryTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    @DisplayName("Deve buscar no histórico quando a consulta não estiver na tabela ativa")
+    void findById_shouldFallBackToArchive() {
+        UUID id = UUID.randomUUID();
+        Consulta arquivada = ConsultaFactoryBot.build();
+
+        when(jdbcTemplate.queryForObject(eq("SELECT * FROM fn_find_consulta_by_id(?)"), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(id)))
+                .thenThrow(new EmptyResultDataAccessException(1));
+        when(jdbcTemplate.queryForObject(eq("SELECT * FROM fn_find_consulta_historico_by_id(?)"), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(id)))
+                .thenReturn(arquivada);
+
+        Optional<Consulta> result = consultaRepository.findById(id);
+
+        assertTrue(result.isPresent());
+        assertEquals(arquivada, result.get());
+    }
+
+    @Test
+    @DisplayName("Deve retornar Optional vazio se a consulta não estiver na tabela ativa nem no histórico")
+    void findById_shouldReturnEmptyWhenMissingFromArchive() {
+        UUID id = UUID.randomUUID();
+
+        when(jdbcTemplate.queryForObject(anyString(), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(id)))
+                .thenThrow(new EmptyResultDataAccessException(1));
+
+        Optional<Consulta> result = consultaRepository.findById(id);
+
+        assertTrue(result.isEmpty());
+        verify(jdbcTemplate).queryForObject(eq("SELECT * FROM fn_find_consulta_historico_by_id(?)"), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(id));
+    }
+
+    @Test
+    @DisplayName("Deve buscar várias consultas por id em uma única consulta com array de ids")
+    void findAllByIds_shouldBindUuidArray() throws SQLException {
+        UUID primeiro = UUID.randomUUID();
+        UUID segundo = UUID.randomUUID();
+        String sql = "SELECT * FROM fn_find_consultas_by_ids(?)";
+
+        when(jdbcTemplate.query(eq(sql), any(PreparedStatementSetter.class), ArgumentMatchers.<RowMapper<Consulta>>any()))
+                .thenReturn(List.of(new Consulta(), new Consulta()));
+
+        List<Consulta> result = consultaRepository.findAllByIds(List.of(primeiro, segundo, primeiro));
+
+        assertEquals(2, result.size());
+        ArgumentCaptor<PreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate).query(eq(sql), setterCaptor.capture(), ArgumentMatchers.<RowMapper<Consulta>>any());
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        Array ids = mock(Array.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf(eq("uuid"), any())).thenReturn(ids);
+
+        setterCaptor.getValue().setValues(statement);
+
+        verify(connection).createArrayOf("uuid", new UUID[]{primeiro, segundo});
+        verify(statement).setArray(1, ids);
+    }
+
+    @Test
+    @DisplayName("Não deve ir ao banco ao buscar uma lista vazia de ids")
+    void findAllByIds_shouldSkipQueryWhenEmpty() {
+        assertTrue(consultaRepository.findAllByIds(List.of()).isEmpty());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
     @Test
     @DisplayName("Deve deletar uma consulta")
     void delete() {
@@ -194,6 +543,63 @@ class ConsultaRepositoryTest {
         verify(jdbcTemplate).query(eq(sql), ArgumentMatchers.<RowMapper<Consulta>>any(), eq(doctorName), eq(dateTime));
     }
 
+    @Test
+    @DisplayName("Deve buscar conflitos de todo o lote em uma única consulta por arrays")
+    void findByDoctorSlots_shouldBindArrays() throws SQLException {
+        Consulta primeira = ConsultaFactoryBot.build();
+        Consulta segunda = ConsultaFactoryBot.build();
+        segunda.setDoctorName("Dr. House");
+        String sql = "SELECT * FROM fn_find_consultas_by_doctor_slots(?, ?)";
+
+        when(jdbcTemplate.query(eq(sql), any(PreparedStatementSetter.class), ArgumentMatchers.<RowMapper<Consulta>>any()))
+                .thenReturn(List.of(new Consulta()));
+
+        List<Consulta> result = consultaRepository.findByDoctorSlots(List.of(primeira, segunda));
+
+        ArgumentCaptor<PreparedStatementSetter> setterCaptor = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate).query(eq(sql), setterCaptor.capture(), ArgumentMatchers.<RowMapper<Consulta>>any());
+        assertEquals(1, result.size());
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        Array doctorNames = mock(Array.class);
+        Array dateTimes = mock(Array.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf(eq("varchar"), any())).thenReturn(doctorNames);
+        when(connection.createArrayOf(eq("timestamp"), any())).thenReturn(dateTimes);
+
+        setterCaptor.getValue().setValues(statement);
+
+        verify(connection).createArrayOf("varchar", new Object[]{primeira.getDoctorName(), "Dr. House"});
+        verify(connection).createArrayOf("timestamp", new Object[]{
+                Timestamp.valueOf(primeira.getConsultationDateTime()),
+                Timestamp.valueOf(segunda.getConsultationDateTime())});
+        verify(statement).setArray(1, doctorNames);
+        verify(statement).setArray(2, dateTimes);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar os horários ocupados por médico, mantendo médicos sem consultas no intervalo")
+    void findBookedSlots_shouldGroupByDoctor() throws SQLException {
+        LocalDateTime inicio = LocalDateTime.of(2030, 1, 7, 8, 0);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("doctor_name")).thenReturn("Dr. House", "Dr. House", "Dra. Cuddy");
+        when(rs.getTimestamp("booked_at")).thenReturn(Timestamp.valueOf(inicio), Timestamp.valueOf(inicio.plusHours(1)), null);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq("SELECT * FROM fn_find_booked_slots(?, ?, ?, ?)"), any(RowCallbackHandler.class),
+                isNull(), eq("Cardiologia"), eq(inicio), eq(inicio.plusDays(1)));
+
+        Map<String, List<LocalDateTime>> ocupados = consultaRepository.findBookedSlots(null, "Cardiologia", inicio, inicio.plusDays(1));
+
+        assertEquals(List.of(inicio, inicio.plusHours(1)), ocupados.get("Dr. House"));
+        assertEquals(List.of(), ocupados.get("Dra. Cuddy"));
+    }
+
     @Test
     @DisplayName("Deve retornar lista vazia quando não houver consultas para o médico e data/hora")
     void findByDoctorNameAndDateTime_empty() {
@@ -326,4 +732,10 @@ class ConsultaRepositoryTest {
         assertThrows(org.springframework.dao.DataIntegrityViolationException.class,
                 () -> consultaRepository.delete(consulta));
     }
+
+    static DuplicateKeyException duplicateKey(String constraint) {
+        ServerErrorMessage serverError = new ServerErrorMessage("SERROR\0C23505\0Mduplicate key value violates unique constraint \""
+                + constraint + "\"\0n" + constraint + "\0");
+        return new DuplicateKeyException(serverError.getMessage(), new PSQLException(serverError));
+    }
 }
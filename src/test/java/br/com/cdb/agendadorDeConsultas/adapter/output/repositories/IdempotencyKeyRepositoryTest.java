@@ -0,0 +1,69 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.IdempotencyRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Executa contra o banco configurado, no mesmo contexto de AgendadorDeConsultasApplicationTests.
+@SpringBootTest
+class IdempotencyKeyRepositoryTest {
+
+    private static final String FINGERPRINT = "a".repeat(64);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    @DisplayName("Deve reservar a chave uma única vez e guardar a resposta concluída")
+    void tryReserve_shouldReserveOnceAndStoreResponse() {
+        String chave = UUID.randomUUID().toString();
+        LocalDateTime umMinutoAtras = LocalDateTime.now().minusMinutes(1);
+
+        assertTrue(idempotencyKeyRepository.tryReserve(chave, FINGERPRINT, umMinutoAtras));
+        assertFalse(idempotencyKeyRepository.tryReserve(chave, FINGERPRINT, umMinutoAtras));
+        assertFalse(idempotencyKeyRepository.find(chave).orElseThrow().completed());
+
+        idempotencyKeyRepository.complete(chave, 201, "application/json", "{\"id\":1}");
+
+        assertEquals(new IdempotencyRecord(FINGERPRINT, 201, "application/json", "{\"id\":1}"),
+                idempotencyKeyRepository.find(chave).orElseThrow());
+        assertFalse(idempotencyKeyRepository.tryReserve(chave, FINGERPRINT, LocalDateTime.now().plusMinutes(1)));
+        idempotencyKeyRepository.release(chave);
+        assertTrue(idempotencyKeyRepository.find(chave).isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve assumir uma reserva abandonada e liberar reservas em andamento")
+    void tryReserve_shouldTakeOverAbandonedReservation() {
+        String chave = UUID.randomUUID().toString();
+        String outroFingerprint = "b".repeat(64);
+
+        assertTrue(idempotencyKeyRepository.tryReserve(chave, FINGERPRINT, LocalDateTime.now().minusMinutes(1)));
+        assertTrue(idempotencyKeyRepository.tryReserve(chave, outroFingerprint, LocalDateTime.now().plusMinutes(1)));
+        assertEquals(outroFingerprint, idempotencyKeyRepository.find(chave).orElseThrow().fingerprint());
+
+        idempotencyKeyRepository.release(chave);
+
+        assertTrue(idempotencyKeyRepository.find(chave).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve remover as chaves criadas antes do limite")
+    void deleteCreatedBefore_shouldRemoveOldKeys() {
+        String chave = UUID.randomUUID().toString();
+        idempotencyKeyRepository.tryReserve(chave, FINGERPRINT, LocalDateTime.now());
+
+        idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(1));
+        assertTrue(idempotencyKeyRepository.find(chave).isPresent());
+
+        assertTrue(idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().plusMinutes(1)) >= 1);
+        assertTrue(idempotencyKeyRepository.find(chave).isEmpty());
+    }
+}
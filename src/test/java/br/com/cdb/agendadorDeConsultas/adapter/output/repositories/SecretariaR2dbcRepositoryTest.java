@@ -0,0 +1,50 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest(properties = {"agendador.reactive.enabled=true", "spring.datasource.hikari.maximum-pool-size=2"})
+class SecretariaR2dbcRepositoryTest {
+
+    @Autowired
+    private SecretariaR2dbcRepository secretariaR2dbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve encontrar a secretária por id e por lote de ids")
+    void findById_shouldReturnSecretaria() {
+        UUID id = UUID.randomUUID();
+        String sufixo = id.toString().substring(0, 8);
+        jdbcTemplate.update("call pr_upsert_secretaria(?, ?, ?, ?, ?)",
+                id, "Secretária R2DBC", "r2dbc" + sufixo, "r2dbc" + sufixo + "@teste.com", "hash");
+        try {
+            StepVerifier.create(secretariaR2dbcRepository.findById(id))
+                    .expectNextMatches(secretaria -> secretaria.getEmail().equals("r2dbc" + sufixo + "@teste.com"))
+                    .verifyComplete();
+            StepVerifier.create(secretariaR2dbcRepository.findAllByIds(List.of(id, id, UUID.randomUUID())))
+                    .expectNextMatches(secretaria -> secretaria.getId().equals(id))
+                    .verifyComplete();
+        } finally {
+            jdbcTemplate.update("call pr_delete_secretaria(?)", id);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar erro quando a secretária não existir")
+    void findById_shouldSignalErrorWhenMissing() {
+        UUID id = UUID.randomUUID();
+
+        StepVerifier.create(secretariaR2dbcRepository.findById(id))
+                .expectErrorMessage("Recurso não encontrado: Secretaria com id " + id)
+                .verify();
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
@@ -111,6 +112,22 @@ class SecretariaRepositoryTest {
         assertThrows(RuntimeException.class, () -> secretariaRepository.findAll());
     }
 
+    @Test
+    @DisplayName("Deve buscar várias secretarias por id em uma única consulta")
+    void findAllByIds_shouldQueryOnce() {
+        UUID id = UUID.randomUUID();
+        Secretaria secretaria = SecretariaFactoryBot.build();
+        String sql = "SELECT * FROM fn_find_secretarias_by_ids(?)";
+
+        when(jdbcTemplate.query(eq(sql), any(PreparedStatementSetter.class), ArgumentMatchers.<RowMapper<Secretaria>>any()))
+                .thenReturn(List.of(secretaria));
+
+        List<Secretaria> result = secretariaRepository.findAllByIds(List.of(id, UUID.randomUUID()));
+
+        assertEquals(List.of(secretaria), result);
+        verify(jdbcTemplate, times(1)).query(eq(sql), any(PreparedStatementSetter.class), ArgumentMatchers.<RowMapper<Secretaria>>any());
+    }
+
     @Test
     @DisplayName("Deve encontrar secretaria por ID")
     void findById_found() {
@@ -2,24 +2,39 @@ package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
 
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.ConsultaRepository;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
-import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 class ConsultaRepositoryProxyTest {
 
     @Autowired
-    private ConsultaOutputPort proxy;
+    private ConsultaRepositoryProxy proxy;
 
     @MockitoBean
     private ConsultaRepository realRepository;
@@ -40,6 +55,26 @@ class ConsultaRepositoryProxyTest {
         verify(realRepository, times(1)).findById(consultaId);
     }
 
+    @Test
+    void deveBuscarNoRepositorioRealApenasOsIdsAusentesDoCacheEmUmaUnicaChamada() {
+        Consulta emCache = new Consulta();
+        emCache.setId(UUID.randomUUID());
+        Consulta ausente = new Consulta();
+        ausente.setId(UUID.randomUUID());
+        when(realRepository.findById(emCache.getId())).thenReturn(Optional.of(emCache));
+        when(realRepository.findAllByIds(List.of(ausente.getId()))).thenReturn(List.of(ausente));
+        proxy.findById(emCache.getId());
+
+        List<Consulta> resultado = proxy.findAllByIds(List.of(emCache.getId(), ausente.getId()));
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.containsAll(List.of(emCache, ausente)));
+        verify(realRepository, times(1)).findAllByIds(List.of(ausente.getId()));
+
+        proxy.findAllByIds(List.of(emCache.getId(), ausente.getId()));
+        verify(realRepository, times(1)).findAllByIds(any());
+    }
+
     @Test
     void deveInvalidarOCacheAposSalvar() {
         UUID consultaId = UUID.randomUUID();
@@ -81,4 +116,235 @@ class ConsultaRepositoryProxyTest {
 
         verify(realRepository, times(1)).findById(consultaId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveExpirarAConsultaDoCacheAposOTempoConfigurado() {
+        AtomicLong agora = new AtomicLong();
+        ConsultaRepositoryProxy proxyComTtl = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(agora::get)
+                .recordStats()
+                .build(), novoIndiceDeAgenda());
+        UUID consultaId = UUID.randomUUID();
+        Consulta consulta = new Consulta();
+        consulta.setId(consultaId);
+
+        when(realRepository.findById(consultaId)).thenReturn(Optional.of(consulta));
+
+        proxyComTtl.findById(consultaId);
+        proxyComTtl.findById(consultaId);
+        agora.addAndGet(Duration.ofMinutes(11).toNanos());
+        proxyComTtl.findById(consultaId);
+
+        verify(realRepository, times(2)).findById(consultaId);
+        assertEquals(1, proxyComTtl.stats().hitCount());
+        assertEquals(2, proxyComTtl.stats().missCount());
+    }
+
+    @Test
+    void deveRespeitarOTamanhoMaximoDoCache() {
+        ConsultaRepositoryProxy proxyLimitado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder()
+                .maximumSize(2)
+                .executor(Runnable::run)
+                .recordStats()
+                .build(), novoIndiceDeAgenda());
+
+        for (int i = 0; i < 5; i++) {
+            UUID consultaId = UUID.randomUUID();
+            Consulta consulta = new Consulta();
+            consulta.setId(consultaId);
+            when(realRepository.findById(consultaId)).thenReturn(Optional.of(consulta));
+            proxyLimitado.findById(consultaId);
+        }
+
+        assertEquals(3, proxyLimitado.stats().evictionCount());
+    }
+
+    @Test
+    void naoDeveFalharAoSalvarConsultaNovaSemId() {
+        Consulta consulta = new Consulta();
+
+        assertDoesNotThrow(() -> proxy.save(consulta));
+        verify(realRepository, times(1)).save(consulta);
+    }
+
+    @Test
+    void deveAgruparBuscasConcorrentesDaMesmaConsultaEmUmaUnicaIdaAoBanco() throws Exception {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        UUID consultaId = UUID.randomUUID();
+        Consulta consulta = new Consulta();
+        consulta.setId(consultaId);
+        CountDownLatch liberarBanco = new CountDownLatch(1);
+        int requisicoes = 6;
+
+        when(realRepository.findById(consultaId)).thenAnswer(invocation -> {
+            liberarBanco.await(5, TimeUnit.SECONDS);
+            return Optional.of(consulta);
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        List<Optional<Consulta>> resultados = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < requisicoes; i++) {
+            threads.add(Thread.ofPlatform().start(() -> resultados.add(proxyIsolado.findById(consultaId))));
+        }
+        aguardarBloqueadas(threads);
+        liberarBanco.countDown();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        assertEquals(requisicoes, resultados.size());
+        resultados.forEach(resultado -> assertEquals(consulta, resultado.orElseThrow()));
+        verify(realRepository, times(1)).findById(consultaId);
+        assertEquals(requisicoes - 1, proxyIsolado.coalescedLoads());
+
+        proxyIsolado.findById(consultaId);
+        assertEquals(requisicoes - 1, proxyIsolado.coalescedLoads());
+    }
+
+    @Test
+    void naoDeveDevolverAoCacheUmaConsultaInvalidadaDuranteACarga() throws Exception {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        UUID consultaId = UUID.randomUUID();
+        Consulta antiga = new Consulta();
+        antiga.setId(consultaId);
+        Consulta atualizada = new Consulta();
+        atualizada.setId(consultaId);
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarBanco = new CountDownLatch(1);
+
+        when(realRepository.findById(consultaId))
+                .thenAnswer(invocation -> {
+                    cargaIniciada.countDown();
+                    liberarBanco.await(5, TimeUnit.SECONDS);
+                    return Optional.of(antiga);
+                })
+                .thenReturn(Optional.of(atualizada));
+
+        Thread carga = Thread.ofPlatform().start(() -> proxyIsolado.findById(consultaId));
+        assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+        Thread invalidacao = Thread.ofPlatform().start(() -> proxyIsolado.evict(consultaId));
+        aguardarBloqueadas(List.of(invalidacao));
+        liberarBanco.countDown();
+        carga.join(5_000);
+        invalidacao.join(5_000);
+
+        assertSame(atualizada, proxyIsolado.findById(consultaId).orElseThrow());
+        verify(realRepository, times(2)).findById(consultaId);
+    }
+
+    private void aguardarBloqueadas(List<Thread> threads) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() == Thread.State.RUNNABLE || thread.getState() == Thread.State.NEW)
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void deveResponderDisponibilidadeDaAgendaEmMemoriaCarregandoODiaUmaUnicaVez() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        LocalDateTime dezHoras = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(realRepository.findByDoctorAndDay("Dr. House", dezHoras.toLocalDate()))
+                .thenReturn(List.of(consultaAgendada("Dr. House", dezHoras)));
+
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", dezHoras.plusMinutes(30)));
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", dezHoras.withHour(17).withMinute(59)));
+
+        verify(realRepository, times(1)).findByDoctorAndDay("Dr. House", dezHoras.toLocalDate());
+        verify(realRepository, never()).isSlotTaken(anyString(), any());
+    }
+
+    @Test
+    void deveAtualizarAAgendaEmMemoriaAoSalvarRemarcarECancelar() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        LocalDateTime dezHoras = LocalDateTime.of(2030, 1, 7, 10, 0);
+        LocalDateTime onzeHoras = dezHoras.plusHours(1);
+        when(realRepository.findByDoctorAndDay("Dr. House", dezHoras.toLocalDate())).thenReturn(List.of());
+        when(realRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+
+        Consulta consulta = proxyIsolado.save(consultaAgendada("Dr. House", dezHoras));
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+
+        consulta.setConsultationDateTime(onzeHoras);
+        proxyIsolado.save(consulta);
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", onzeHoras));
+
+        consulta.setStatus(StatusConsulta.CANCELADA);
+        proxyIsolado.save(consulta);
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", onzeHoras));
+
+        verify(realRepository, times(1)).findByDoctorAndDay("Dr. House", dezHoras.toLocalDate());
+    }
+
+    @Test
+    void deveMarcarNaAgendaEmMemoriaAConsultaAgendadaEmUmaUnicaChamada() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        LocalDateTime dezHoras = LocalDateTime.of(2030, 1, 7, 10, 0);
+        Consulta consulta = consultaAgendada("Dr. House", dezHoras);
+        when(realRepository.findByDoctorAndDay("Dr. House", dezHoras.toLocalDate())).thenReturn(List.of());
+        when(realRepository.book(any())).thenReturn(consulta);
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+
+        assertSame(consulta, proxyIsolado.book(consulta));
+
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", dezHoras));
+        verify(realRepository, times(1)).findByDoctorAndDay("Dr. House", dezHoras.toLocalDate());
+    }
+
+    @Test
+    void deveRecarregarODiaQuandoOutroNoAlterarUmaConsultaDaAgenda() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        Consulta consulta = consultaAgendada("Dr. House", LocalDateTime.of(2030, 1, 7, 10, 0));
+        LocalDate dia = consulta.getConsultationDateTime().toLocalDate();
+        when(realRepository.findByDoctorAndDay("Dr. House", dia)).thenReturn(List.of(consulta), List.of());
+
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", consulta.getConsultationDateTime()));
+        proxyIsolado.evict(consulta.getId());
+
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", consulta.getConsultationDateTime()));
+        verify(realRepository, times(2)).findByDoctorAndDay("Dr. House", dia);
+    }
+
+    @Test
+    void deveRecarregarODiaQuandoOutroNoAgendarUmaConsultaNova() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        Consulta nova = consultaAgendada("Dr. House", LocalDateTime.of(2030, 1, 7, 10, 0));
+        LocalDate dia = nova.getConsultationDateTime().toLocalDate();
+        when(realRepository.findByDoctorAndDay("Dr. House", dia)).thenReturn(List.of(), List.of(nova));
+
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", nova.getConsultationDateTime()));
+        proxyIsolado.evict(nova.getId());
+        assertFalse(proxyIsolado.isSlotTaken("Dr. House", nova.getConsultationDateTime()));
+        proxyIsolado.evictDay("Dr. House", dia);
+
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", nova.getConsultationDateTime()));
+        verify(realRepository, times(2)).findByDoctorAndDay("Dr. House", dia);
+    }
+
+    @Test
+    void deveConsultarOBancoParaHorariosForaDoMinutoCheio() {
+        ConsultaRepositoryProxy proxyIsolado = new ConsultaRepositoryProxy(realRepository, Caffeine.newBuilder().build(), novoIndiceDeAgenda());
+        LocalDateTime horarioQuebrado = LocalDateTime.of(2030, 1, 7, 10, 0, 30);
+        when(realRepository.isSlotTaken("Dr. House", horarioQuebrado)).thenReturn(true);
+
+        assertTrue(proxyIsolado.isSlotTaken("Dr. House", horarioQuebrado));
+        verify(realRepository, never()).findByDoctorAndDay(anyString(), any());
+    }
+
+    private DoctorScheduleIndex novoIndiceDeAgenda() {
+        return new DoctorScheduleIndex(100, Duration.ofMinutes(5), Ticker.systemTicker());
+    }
+
+    private Consulta consultaAgendada(String doctorName, LocalDateTime dateTime) {
+        Consulta consulta = new Consulta();
+        consulta.setId(UUID.randomUUID());
+        consulta.setDoctorName(doctorName);
+        consulta.setStatus(StatusConsulta.AGENDADA);
+        consulta.setConsultationDateTime(dateTime);
+        return consulta;
+    }
+}
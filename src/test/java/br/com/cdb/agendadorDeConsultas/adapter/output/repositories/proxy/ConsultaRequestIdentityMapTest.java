@@ -0,0 +1,113 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConsultaRequestIdentityMapTest {
+
+    private final ConsultaOutputPort delegate = mock(ConsultaOutputPort.class);
+    private final ConsultaRequestIdentityMap identityMap = new ConsultaRequestIdentityMap(delegate);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Deve carregar cada consulta uma única vez por requisição")
+    void findById_shouldLoadOncePerRequest() {
+        Consulta consulta = consultaComId();
+        when(delegate.findById(consulta.getId())).thenReturn(Optional.of(consulta));
+
+        iniciarRequisicao();
+        assertSame(consulta, identityMap.findById(consulta.getId()).orElseThrow());
+        assertSame(consulta, identityMap.findById(consulta.getId()).orElseThrow());
+        verify(delegate, times(1)).findById(consulta.getId());
+
+        iniciarRequisicao();
+        identityMap.findById(consulta.getId());
+        verify(delegate, times(2)).findById(consulta.getId());
+    }
+
+    @Test
+    @DisplayName("Deve buscar em lote apenas as consultas ainda não carregadas na requisição")
+    void findAllByIds_shouldLoadOnlyMissingIds() {
+        Consulta carregada = consultaComId();
+        Consulta nova = consultaComId();
+        when(delegate.findById(carregada.getId())).thenReturn(Optional.of(carregada));
+        when(delegate.findAllByIds(List.of(nova.getId()))).thenReturn(List.of(nova));
+
+        iniciarRequisicao();
+        identityMap.findById(carregada.getId());
+
+        assertEquals(List.of(carregada, nova), identityMap.findAllByIds(List.of(carregada.getId(), nova.getId())));
+        assertSame(nova, identityMap.findById(nova.getId()).orElseThrow());
+        verify(delegate, times(1)).findAllByIds(any());
+        verify(delegate, never()).findById(nova.getId());
+    }
+
+    @Test
+    @DisplayName("Não deve memorizar buscas feitas fora de uma requisição HTTP")
+    void findById_shouldPassThroughWithoutRequest() {
+        Consulta consulta = consultaComId();
+        when(delegate.findById(consulta.getId())).thenReturn(Optional.of(consulta));
+
+        identityMap.findById(consulta.getId());
+        identityMap.findById(consulta.getId());
+
+        verify(delegate, times(2)).findById(consulta.getId());
+    }
+
+    @Test
+    @DisplayName("Não deve memorizar consultas inexistentes")
+    void findById_shouldNotMemoizeMissingConsulta() {
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenReturn(Optional.empty());
+
+        iniciarRequisicao();
+        assertTrue(identityMap.findById(id).isEmpty());
+        assertTrue(identityMap.findById(id).isEmpty());
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Deve refletir a consulta salva e esquecer a consulta deletada na mesma requisição")
+    void saveAndDelete_shouldUpdateIdentityMap() {
+        Consulta consulta = consultaComId();
+        when(delegate.save(consulta)).thenReturn(consulta);
+        when(delegate.findById(consulta.getId())).thenReturn(Optional.empty());
+
+        iniciarRequisicao();
+        identityMap.save(consulta);
+        assertSame(consulta, identityMap.findById(consulta.getId()).orElseThrow());
+        verify(delegate, never()).findById(consulta.getId());
+
+        identityMap.delete(consulta);
+        assertTrue(identityMap.findById(consulta.getId()).isEmpty());
+        verify(delegate, times(1)).findById(consulta.getId());
+    }
+
+    private void iniciarRequisicao() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private Consulta consultaComId() {
+        Consulta consulta = new Consulta();
+        consulta.setId(UUID.randomUUID());
+        return consulta;
+    }
+}
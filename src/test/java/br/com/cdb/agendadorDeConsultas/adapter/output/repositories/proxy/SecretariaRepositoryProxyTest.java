@@ -3,32 +3,41 @@ package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
 import br.com.cdb.agendadorDeConsultas.adapter.output.repositories.SecretariaRepository;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
 import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
 class SecretariaRepositoryProxyTest {
 
     @Autowired
-    private SecretariaOutputPort proxy;
+    private SecretariaRepositoryProxy proxy;
 
     @MockitoBean
     private SecretariaRepository realRepository;
 
     @BeforeEach
     void setUp() {
-        if (proxy instanceof SecretariaRepositoryProxy) {
-            ((SecretariaRepositoryProxy) proxy).clearCache();
-        }
+        proxy.clearCache();
     }
 
     @Test
@@ -45,6 +54,22 @@ class SecretariaRepositoryProxyTest {
         verify(realRepository, never()).findByCpf(secretaria.getCpf());
     }
 
+    @Test
+    void deveBuscarEmLoteApenasAsSecretariasAusentesDoCache() {
+        Secretaria emCache = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
+        Secretaria ausente = new Secretaria(UUID.randomUUID(), "Bia", "222.222.222-22", "bia@email.com", "senha");
+        when(realRepository.findById(emCache.getId())).thenReturn(emCache);
+        when(realRepository.findAllByIds(List.of(ausente.getId()))).thenReturn(List.of(ausente));
+        proxy.findById(emCache.getId());
+
+        List<Secretaria> resultado = proxy.findAllByIds(List.of(emCache.getId(), ausente.getId()));
+
+        assertEquals(List.of(emCache, ausente), resultado);
+        proxy.findByEmail(ausente.getEmail());
+        verify(realRepository, times(1)).findAllByIds(List.of(ausente.getId()));
+        verify(realRepository, never()).findByEmail(ausente.getEmail());
+    }
+
     @Test
     void deveInvalidarTodosOsCachesAposSalvar() {
         Secretaria secretaria = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
@@ -68,4 +93,99 @@ class SecretariaRepositoryProxyTest {
 
         verify(realRepository, times(1)).findById(secretariaId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveResponderDoCacheNegativoBuscasRepetidasPorEmailECpfInexistentes() {
+        when(realRepository.findByEmail("nova@email.com")).thenReturn(Optional.empty());
+        when(realRepository.findByCpf("222.222.222-22")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            proxy.findByEmail("nova@email.com");
+            proxy.findByCpf("222.222.222-22");
+        }
+
+        verify(realRepository, times(1)).findByEmail("nova@email.com");
+        verify(realRepository, times(1)).findByCpf("222.222.222-22");
+    }
+
+    @Test
+    void deveInvalidarCacheNegativoAposSalvar() {
+        Secretaria secretaria = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
+        when(realRepository.findByEmail(secretaria.getEmail())).thenReturn(Optional.empty(), Optional.of(secretaria));
+        when(realRepository.findByCpf(secretaria.getCpf())).thenReturn(Optional.empty(), Optional.of(secretaria));
+        when(realRepository.save(secretaria)).thenReturn(secretaria);
+
+        proxy.findByEmail(secretaria.getEmail());
+        proxy.findByCpf(secretaria.getCpf());
+        proxy.save(secretaria);
+
+        assertEquals(Optional.of(secretaria), proxy.findByEmail(secretaria.getEmail()));
+        verify(realRepository, times(2)).findByEmail(secretaria.getEmail());
+    }
+
+    @Test
+    void deveConsultarRepositorioRealNovamenteAposExpirarCacheNegativo() {
+        AtomicLong nanos = new AtomicLong();
+        Cache<String, Boolean> absentEmails = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .ticker(nanos::get)
+                .build();
+        SecretariaOutputPort repository = mock(SecretariaOutputPort.class);
+        SecretariaRepositoryProxy proxyComTtl = new SecretariaRepositoryProxy(repository, Caffeine.newBuilder().build(),
+                Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), absentEmails, Caffeine.newBuilder().build());
+        when(repository.findByEmail("nova@email.com")).thenReturn(Optional.empty());
+
+        proxyComTtl.findByEmail("nova@email.com");
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        proxyComTtl.findByEmail("nova@email.com");
+        verify(repository, times(1)).findByEmail("nova@email.com");
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        proxyComTtl.findByEmail("nova@email.com");
+        verify(repository, times(2)).findByEmail("nova@email.com");
+    }
+
+    @Test
+    void deveAgruparBuscasConcorrentesDaMesmaSecretariaEContarAsQueAguardaram() throws Exception {
+        SecretariaOutputPort repository = mock(SecretariaOutputPort.class);
+        SecretariaRepositoryProxy proxyIsolado = new SecretariaRepositoryProxy(repository, Caffeine.newBuilder().build(),
+                Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), Caffeine.newBuilder().build(), Caffeine.newBuilder().build());
+        Secretaria secretaria = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarBanco = new CountDownLatch(1);
+        when(repository.findById(secretaria.getId())).thenAnswer(invocation -> {
+            cargaIniciada.countDown();
+            liberarBanco.await(5, TimeUnit.SECONDS);
+            return secretaria;
+        });
+
+        List<Secretaria> resultados = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofPlatform().start(() -> resultados.add(proxyIsolado.findById(secretaria.getId()))));
+        assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            threads.add(Thread.ofPlatform().start(() -> resultados.add(proxyIsolado.findById(secretaria.getId()))));
+        }
+        aguardarBloqueadas(threads);
+        liberarBanco.countDown();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        assertEquals(Collections.nCopies(4, secretaria), resultados);
+        assertEquals(3, proxyIsolado.coalescedLoads());
+        verify(repository, times(1)).findById(secretaria.getId());
+
+        assertEquals(Optional.of(secretaria), proxyIsolado.findByEmail(secretaria.getEmail()));
+        assertEquals(3, proxyIsolado.coalescedLoads());
+        verify(repository, never()).findByEmail(secretaria.getEmail());
+    }
+
+    private void aguardarBloqueadas(List<Thread> threads) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().anyMatch(thread -> thread.getState() == Thread.State.RUNNABLE || thread.getState() == Thread.State.NEW)
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+}
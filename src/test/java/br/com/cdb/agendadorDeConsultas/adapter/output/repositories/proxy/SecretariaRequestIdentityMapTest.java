@@ -0,0 +1,66 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.repositories.proxy;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecretariaRequestIdentityMapTest {
+
+    private final SecretariaOutputPort delegate = mock(SecretariaOutputPort.class);
+    private final SecretariaRequestIdentityMap identityMap = new SecretariaRequestIdentityMap(delegate);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Deve buscar a secretária por id uma única vez por requisição")
+    void findById_shouldLoadOncePerRequest() {
+        Secretaria secretaria = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
+        when(delegate.findById(secretaria.getId())).thenReturn(secretaria);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertSame(secretaria, identityMap.findById(secretaria.getId()));
+        assertSame(secretaria, identityMap.findById(secretaria.getId()));
+
+        verify(delegate, times(1)).findById(secretaria.getId());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a secretária encontrada por e-mail nas buscas por id da mesma requisição")
+    void findByEmail_shouldPopulateIdentityMap() {
+        Secretaria secretaria = new Secretaria(UUID.randomUUID(), "Ana", "111.111.111-11", "ana@email.com", "senha");
+        when(delegate.findByEmail(secretaria.getEmail())).thenReturn(Optional.of(secretaria));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        identityMap.findByEmail(secretaria.getEmail());
+
+        assertSame(secretaria, identityMap.findById(secretaria.getId()));
+        verify(delegate, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha quando a secretária não existir")
+    void findById_shouldPropagateNotFound() {
+        UUID id = UUID.randomUUID();
+        when(delegate.findById(id)).thenThrow(new RuntimeException("Recurso não encontrado: Secretaria com id " + id));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThrows(RuntimeException.class, () -> identityMap.findById(id));
+        assertThrows(RuntimeException.class, () -> identityMap.findById(id));
+
+        verify(delegate, times(2)).findById(id);
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConsultaArchiveSchedulerTest {
+
+    private static final String SQL = "SELECT fn_arquivar_consultas(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Deve arquivar em lotes até encontrar um lote incompleto")
+    void arquivar_shouldRunBatchesUntilPartialBatch() {
+        LocalDateTime agora = LocalDateTime.of(2030, 7, 1, 3, 30);
+        when(jdbcTemplate.queryForObject(eq(SQL), eq(Integer.class), any(), any())).thenReturn(100, 100, 40);
+        ConsultaArchiveScheduler scheduler = new ConsultaArchiveScheduler(jdbcTemplate, Duration.ofDays(180), 100, 10);
+
+        int arquivadas = scheduler.arquivar(agora);
+
+        assertEquals(240, arquivadas);
+        verify(jdbcTemplate, times(3)).queryForObject(SQL, Integer.class, agora.minusDays(180), 100);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o número máximo de lotes por execução")
+    void arquivar_shouldStopAtMaximumBatches() {
+        when(jdbcTemplate.queryForObject(eq(SQL), eq(Integer.class), any(), any())).thenReturn(100);
+        ConsultaArchiveScheduler scheduler = new ConsultaArchiveScheduler(jdbcTemplate, Duration.ofDays(180), 100, 3);
+
+        int arquivadas = scheduler.arquivar(LocalDateTime.of(2030, 7, 1, 3, 30));
+
+        assertEquals(300, arquivadas);
+        verify(jdbcTemplate, times(3)).queryForObject(eq(SQL), eq(Integer.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve propagar falhas do banco e deve manter o total já arquivado")
+    void arquivar_shouldNotPropagateDatabaseFailure() {
+        when(jdbcTemplate.queryForObject(eq(SQL), eq(Integer.class), any(), any()))
+                .thenReturn(100)
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        ConsultaArchiveScheduler scheduler = new ConsultaArchiveScheduler(jdbcTemplate, Duration.ofDays(180), 100, 10);
+
+        assertEquals(100, scheduler.arquivar(LocalDateTime.of(2030, 7, 1, 3, 30)));
+    }
+}
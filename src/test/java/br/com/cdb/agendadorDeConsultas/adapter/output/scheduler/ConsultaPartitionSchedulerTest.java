@@ -0,0 +1,41 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConsultaPartitionSchedulerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Deve criar partições do mês atual até o número configurado de meses à frente")
+    void criarParticoes_shouldCoverCurrentMonthUntilConfiguredHorizon() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any())).thenReturn(2);
+        ConsultaPartitionScheduler scheduler = new ConsultaPartitionScheduler(jdbcTemplate, 12);
+
+        int criadas = scheduler.criarParticoes(LocalDate.of(2030, 1, 17));
+
+        assertEquals(2, criadas);
+        verify(jdbcTemplate).queryForObject("SELECT fn_criar_particoes_consulta(?, ?)", Integer.class,
+                Date.valueOf(LocalDate.of(2030, 1, 1)), Date.valueOf(LocalDate.of(2031, 2, 1)));
+    }
+
+    @Test
+    @DisplayName("Não deve propagar falhas do banco ao criar partições")
+    void criarParticoes_shouldNotPropagateDatabaseFailure() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        ConsultaPartitionScheduler scheduler = new ConsultaPartitionScheduler(jdbcTemplate, 12);
+
+        assertEquals(0, scheduler.criarParticoes(LocalDate.of(2030, 1, 17)));
+    }
+}
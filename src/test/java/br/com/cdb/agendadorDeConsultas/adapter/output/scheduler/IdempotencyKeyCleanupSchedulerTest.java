@@ -0,0 +1,36 @@
+package br.com.cdb.agendadorDeConsultas.adapter.output.scheduler;
+
+import br.com.cdb.agendadorDeConsultas.port.output.IdempotencyOutputPort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyCleanupSchedulerTest {
+
+    private final IdempotencyOutputPort idempotencyOutputPort = mock(IdempotencyOutputPort.class);
+    private final IdempotencyKeyCleanupScheduler scheduler = new IdempotencyKeyCleanupScheduler(idempotencyOutputPort, Duration.ofHours(24));
+
+    @Test
+    @DisplayName("Deve remover as chaves criadas antes do período de retenção")
+    void limpar_shouldDeleteKeysOlderThanRetention() {
+        LocalDateTime agora = LocalDateTime.of(2030, 7, 1, 3, 15);
+        when(idempotencyOutputPort.deleteCreatedBefore(agora.minusHours(24))).thenReturn(42);
+
+        assertEquals(42, scheduler.limpar(agora));
+    }
+
+    @Test
+    @DisplayName("Não deve propagar falhas do banco")
+    void limpar_shouldNotPropagateDatabaseFailure() {
+        when(idempotencyOutputPort.deleteCreatedBefore(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertEquals(0, scheduler.limpar(LocalDateTime.of(2030, 7, 1, 3, 15)));
+    }
+}
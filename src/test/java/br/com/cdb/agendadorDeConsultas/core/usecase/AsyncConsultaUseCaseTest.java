@@ -0,0 +1,153 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Secretaria;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.factory.SecretariaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaOutputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class AsyncConsultaUseCaseTest {
+
+    private final ConsultaOutputPort consultaOutputPort = mock(ConsultaOutputPort.class);
+    private final SecretariaOutputPort secretariaOutputPort = mock(SecretariaOutputPort.class);
+    private final ConsultaValidator validator = mock(ConsultaValidator.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final AsyncConsultaUseCase asyncConsultaUseCase = new AsyncConsultaUseCase(
+            new ConsultaUseCase(consultaOutputPort, secretariaOutputPort, validator),
+            consultaOutputPort, secretariaOutputPort, executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve buscar secretária e ocupação do horário em paralelo e validar com os resultados, sem buscar de novo")
+    void createConsulta_shouldLookUpSecretariaAndSlotConcurrently() {
+        Secretaria secretaria = SecretariaFactoryBot.build();
+        Consulta consulta = ConsultaFactoryBot.build();
+        CountDownLatch ambasIniciadas = new CountDownLatch(2);
+
+        when(secretariaOutputPort.findById(secretaria.getId())).thenAnswer(invocation -> {
+            aguardarOutraBusca(ambasIniciadas);
+            return secretaria;
+        });
+        when(consultaOutputPort.isSlotTaken(consulta.getDoctorName(), consulta.getConsultationDateTime())).thenAnswer(invocation -> {
+            aguardarOutraBusca(ambasIniciadas);
+            return false;
+        });
+        when(consultaOutputPort.book(consulta)).thenReturn(consulta);
+
+        Consulta agendada = asyncConsultaUseCase.createConsulta(secretaria.getId(), consulta).join();
+
+        assertEquals(secretaria.getId(), agendada.getSecretariaId());
+        verify(validator).validateCreate(consulta, false);
+        verify(validator, never()).validateCreate(any(UUID.class), any());
+        verify(secretariaOutputPort, times(1)).findById(any());
+        verify(consultaOutputPort, times(1)).isSlotTaken(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve repassar ao validador o horário ocupado encontrado na busca paralela")
+    void createConsulta_shouldPassSlotTakenToValidator() {
+        Secretaria secretaria = SecretariaFactoryBot.build();
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(secretariaOutputPort.findById(secretaria.getId())).thenReturn(secretaria);
+        when(consultaOutputPort.isSlotTaken(consulta.getDoctorName(), consulta.getConsultationDateTime())).thenReturn(true);
+        doThrow(new BusinessRuleValidationException(ConsultaValidator.SLOT_CONFLICT_MESSAGE))
+                .when(validator).validateCreate(consulta, true);
+
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> asyncConsultaUseCase.createConsulta(secretaria.getId(), consulta).join());
+
+        assertEquals(ConsultaValidator.SLOT_CONFLICT_MESSAGE, erro.getCause().getMessage());
+        verify(consultaOutputPort, never()).book(any());
+    }
+
+    @Test
+    @DisplayName("Deve agendar o retorno com a secretária buscada em paralelo à consulta original")
+    void createFollowUpConsulta_shouldBookWithSecretariaFetchedInParallel() {
+        Secretaria secretaria = SecretariaFactoryBot.build();
+        Consulta original = ConsultaFactoryBot.build();
+        CountDownLatch ambasIniciadas = new CountDownLatch(2);
+
+        when(secretariaOutputPort.findById(secretaria.getId())).thenAnswer(invocation -> {
+            aguardarOutraBusca(ambasIniciadas);
+            return secretaria;
+        });
+        when(consultaOutputPort.findById(original.getId())).thenAnswer(invocation -> {
+            aguardarOutraBusca(ambasIniciadas);
+            return Optional.of(original);
+        });
+        when(consultaOutputPort.findBookedSlots(eq(original.getDoctorName()), isNull(), any(), any())).thenReturn(Map.of());
+        when(consultaOutputPort.book(any(Consulta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Consulta retorno = asyncConsultaUseCase.createFollowUpConsulta(secretaria.getId(), original.getId()).join();
+
+        assertEquals(secretaria.getId(), retorno.getSecretariaId());
+        assertEquals(StatusConsulta.AGENDADA, retorno.getStatus());
+        assertEquals("Consulta de Retorno - " + original.getDescription(), retorno.getDescription());
+        verify(validator).validateBooking(retorno);
+        verify(secretariaOutputPort, times(1)).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve completar com a exceção da consulta original inexistente, sem agendar")
+    void createFollowUpConsulta_shouldFailWhenOriginalIsMissing() {
+        UUID originalId = UUID.randomUUID();
+        when(consultaOutputPort.findById(originalId)).thenReturn(Optional.empty());
+
+        CompletionException erro = assertThrows(CompletionException.class,
+                () -> asyncConsultaUseCase.createFollowUpConsulta(UUID.randomUUID(), originalId).join());
+
+        assertInstanceOf(BusinessRuleValidationException.class, erro.getCause());
+        assertEquals("Consulta original não encontrada", erro.getCause().getMessage());
+        verify(consultaOutputPort, never()).book(any());
+    }
+
+    @Test
+    @DisplayName("Deve cancelar a consulta com a secretária carregada em paralelo, sem buscá-la de novo na validação")
+    void canceledConsulta_shouldCancelWithSecretariaFetchedInParallel() {
+        Secretaria secretaria = SecretariaFactoryBot.build();
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(secretariaOutputPort.findById(secretaria.getId())).thenReturn(secretaria);
+        when(consultaOutputPort.findById(consulta.getId())).thenReturn(Optional.of(consulta));
+        when(consultaOutputPort.save(consulta)).thenReturn(consulta);
+
+        Consulta cancelada = asyncConsultaUseCase.canceledConsulta(secretaria.getId(), consulta.getId()).join();
+
+        assertEquals(StatusConsulta.CANCELADA, cancelada.getStatus());
+        assertEquals(secretaria.getId(), cancelada.getSecretariaId());
+        verify(validator).validateCancelOrDelete(secretaria, consulta);
+        verify(validator, never()).validateCancelOrDelete(any(UUID.class), any());
+        verify(secretariaOutputPort, times(1)).findById(any());
+    }
+
+    // Só retorna quando a outra busca também começou: se as duas rodassem em sequência, o teste falharia aqui.
+    private static void aguardarOutraBusca(CountDownLatch ambasIniciadas) throws InterruptedException {
+        ambasIniciadas.countDown();
+        assertTrue(ambasIniciadas.await(5, TimeUnit.SECONDS), "As buscas não rodaram em paralelo");
+    }
+}
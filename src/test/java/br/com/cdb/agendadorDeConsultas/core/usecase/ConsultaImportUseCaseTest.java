@@ -0,0 +1,59 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportRejection;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaImportReport;
+import br.com.cdb.agendadorDeConsultas.port.output.ConsultaImportOutputPort;
+import br.com.cdb.agendadorDeConsultas.port.output.SecretariaOutputPort;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ConsultaImportUseCaseTest {
+
+    @Mock
+    private ConsultaImportOutputPort consultaImportOutputPort;
+
+    @Mock
+    private SecretariaOutputPort secretariaOutputPort;
+
+    @InjectMocks
+    private ConsultaImportUseCase consultaImportUseCase;
+
+    @Test
+    @DisplayName("Deve importar o CSV e retornar o relatório da importação")
+    void importConsultas_Success() {
+        UUID secretariaId = UUID.randomUUID();
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        ConsultaImportReport report = new ConsultaImportReport(3, 2, 1,
+                List.of(new ConsultaImportRejection(3, "Data da consulta inválida.")));
+        when(consultaImportOutputPort.importCsv(secretariaId, csv)).thenReturn(report);
+
+        ConsultaImportReport result = consultaImportUseCase.importConsultas(secretariaId, csv);
+
+        assertEquals(report, result);
+        verify(secretariaOutputPort, times(1)).findById(secretariaId);
+    }
+
+    @Test
+    @DisplayName("Não deve importar quando a secretária não existir")
+    void importConsultas_SecretariaNotFound() {
+        UUID secretariaId = UUID.randomUUID();
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        when(secretariaOutputPort.findById(secretariaId)).thenThrow(new EntityNotFoundException("Secretária não encontrada"));
+
+        assertThrows(EntityNotFoundException.class, () -> consultaImportUseCase.importConsultas(secretariaId, csv));
+        verify(consultaImportOutputPort, never()).importCsv(any(), any());
+    }
+}
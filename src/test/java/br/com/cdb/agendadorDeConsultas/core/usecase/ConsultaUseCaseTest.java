@@ -1,7 +1,12 @@
 package br.com.cdb.agendadorDeConsultas.core.usecase;
 
 import br.com.cdb.agendadorDeConsultas.adapter.input.request.ConsultaUpdate;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaBatchResult;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaFilter;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaPage;
 import br.com.cdb.agendadorDeConsultas.core.domain.model.StatusConsulta;
 import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
 import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
@@ -17,11 +22,17 @@ import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataAccessException;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -47,14 +58,17 @@ class ConsultaUseCaseTest {
     void createConsulta_Success() {
         UUID secretariaId = UUID.randomUUID();
         Consulta consulta = ConsultaFactoryBot.build();
-        when(consultaOutputPort.save(any(Consulta.class))).thenReturn(consulta);
+        when(consultaOutputPort.book(any(Consulta.class))).thenReturn(consulta);
 
         Consulta result = consultaUseCase.createConsulta(secretariaId, consulta);
 
-        verify(validator, times(1)).validateCreate(secretariaId, consulta);
-        verify(secretariaOutputPort, times(1)).findById(secretariaId);
-        verify(consultaOutputPort, times(1)).save(consulta);
+        verify(validator, times(1)).validateBooking(consulta);
+        verify(consultaOutputPort, times(1)).book(consulta);
+        verify(secretariaOutputPort, never()).findById(any());
+        verify(consultaOutputPort, never()).isSlotTaken(any(), any());
+        verify(consultaOutputPort, never()).save(any());
         assertEquals(secretariaId, result.getSecretariaId());
+        assertEquals(0, consultaUseCase.doctorLockStats().acquisitions());
     }
 
     @Test
@@ -62,11 +76,10 @@ class ConsultaUseCaseTest {
     void createConsulta_ValidationFails() {
         UUID secretariaId = UUID.randomUUID();
         Consulta consulta = ConsultaFactoryBot.build();
-        doThrow(new IllegalArgumentException("Dados inválidos")).when(validator).validateCreate(secretariaId, consulta);
+        doThrow(new IllegalArgumentException("Dados inválidos")).when(validator).validateBooking(consulta);
 
         assertThrows(IllegalArgumentException.class, () -> consultaUseCase.createConsulta(secretariaId, consulta));
-        verify(secretariaOutputPort, never()).findById(any());
-        verify(consultaOutputPort, never()).save(any());
+        verify(consultaOutputPort, never()).book(any());
     }
 
     @Test
@@ -74,10 +87,10 @@ class ConsultaUseCaseTest {
     void createConsulta_SecretariaNotFound() {
         UUID secretariaId = UUID.randomUUID();
         Consulta consulta = ConsultaFactoryBot.build();
-        doThrow(new RuntimeException("Secretária não encontrada")).when(secretariaOutputPort).findById(secretariaId);
+        when(consultaOutputPort.book(any(Consulta.class))).thenThrow(new RuntimeException("Secretária não encontrada"));
 
         assertThrows(RuntimeException.class, () -> consultaUseCase.createConsulta(secretariaId, consulta));
-        verify(validator, times(1)).validateCreate(secretariaId, consulta);
+        verify(validator, times(1)).validateBooking(consulta);
         verify(consultaOutputPort, never()).save(any());
     }
 
@@ -86,11 +99,72 @@ class ConsultaUseCaseTest {
     void createConsulta_PersistenceFails() {
         UUID secretariaId = UUID.randomUUID();
         Consulta consulta = ConsultaFactoryBot.build();
-        when(consultaOutputPort.save(any(Consulta.class))).thenThrow(new DataAccessException("DB Error") {});
+        when(consultaOutputPort.book(any(Consulta.class))).thenThrow(new DataAccessException("DB Error") {});
 
         assertThrows(DataAccessException.class, () -> consultaUseCase.createConsulta(secretariaId, consulta));
-        verify(validator, times(1)).validateCreate(secretariaId, consulta);
-        verify(secretariaOutputPort, times(1)).findById(secretariaId);
+        verify(validator, times(1)).validateBooking(consulta);
+    }
+
+    @Test
+    @DisplayName("Deve criar um lote de consultas e retornar o resultado de cada item na ordem")
+    void createConsultas_PartialSuccess() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta valida = ConsultaFactoryBot.build();
+        Consulta rejeitada = ConsultaFactoryBot.build();
+        Consulta outraValida = ConsultaFactoryBot.build();
+        List<Consulta> consultas = List.of(valida, rejeitada, outraValida);
+        when(validator.validateCreateBatch(secretariaId, consultas)).thenReturn(Map.of(1, "Horário ocupado"));
+        when(consultaOutputPort.saveAll(List.of(valida, outraValida))).thenReturn(List.of(valida, outraValida));
+
+        List<ConsultaBatchResult> results = consultaUseCase.createConsultas(secretariaId, consultas);
+
+        assertEquals(3, results.size());
+        assertEquals(ConsultaBatchResult.created(0, valida), results.get(0));
+        assertEquals(ConsultaBatchResult.rejected(1, "Horário ocupado"), results.get(1));
+        assertEquals(ConsultaBatchResult.created(2, outraValida), results.get(2));
+        assertEquals(secretariaId, valida.getSecretariaId());
+        assertNotEquals(secretariaId, rejeitada.getSecretariaId());
+        verify(consultaOutputPort, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar só o item cujo horário foi ocupado entre a validação e a gravação")
+    void createConsultas_ShouldRejectItemTakenDuringInsert() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta valida = ConsultaFactoryBot.build();
+        Consulta tomada = ConsultaFactoryBot.build();
+        List<Consulta> consultas = List.of(valida, tomada);
+        when(validator.validateCreateBatch(secretariaId, consultas)).thenReturn(Map.of());
+        when(consultaOutputPort.saveAll(consultas)).thenReturn(Arrays.asList(valida, null));
+
+        List<ConsultaBatchResult> results = consultaUseCase.createConsultas(secretariaId, consultas);
+
+        assertEquals(ConsultaBatchResult.created(0, valida), results.get(0));
+        assertEquals(ConsultaBatchResult.rejected(1, ConsultaValidator.SLOT_CONFLICT_MESSAGE), results.get(1));
+    }
+
+    @Test
+    @DisplayName("Não deve gravar nada quando todos os itens do lote forem rejeitados")
+    void createConsultas_AllRejected() {
+        UUID secretariaId = UUID.randomUUID();
+        List<Consulta> consultas = List.of(ConsultaFactoryBot.build());
+        when(validator.validateCreateBatch(secretariaId, consultas)).thenReturn(Map.of(0, "Dados inválidos"));
+
+        List<ConsultaBatchResult> results = consultaUseCase.createConsultas(secretariaId, consultas);
+
+        assertFalse(results.get(0).success());
+        verify(consultaOutputPort, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lote vazio ou acima do tamanho máximo")
+    void createConsultas_InvalidBatchSize() {
+        UUID secretariaId = UUID.randomUUID();
+        List<Consulta> grande = Collections.nCopies(ConsultaUseCase.MAX_BATCH_SIZE + 1, ConsultaFactoryBot.build());
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.createConsultas(secretariaId, List.of()));
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.createConsultas(secretariaId, grande));
+        verify(validator, never()).validateCreateBatch(any(), any());
     }
 
     @Test
@@ -116,12 +190,106 @@ class ConsultaUseCaseTest {
         verify(consultaOutputPort, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Deve retornar uma página com o cursor da próxima quando houver mais consultas")
+    void getConsultasPage_WithNextPage() {
+        Consulta primeira = ConsultaFactoryBot.build();
+        Consulta segunda = ConsultaFactoryBot.build();
+        Consulta excedente = ConsultaFactoryBot.build();
+        when(consultaOutputPort.findPage(null, 3)).thenReturn(List.of(primeira, segunda, excedente));
+
+        ConsultaPage page = consultaUseCase.getConsultas(null, 2);
+
+        assertEquals(List.of(primeira, segunda), page.consultas());
+        assertTrue(page.hasNext());
+        assertEquals(ConsultaCursor.of(segunda), page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a última página sem cursor")
+    void getConsultasPage_LastPage() {
+        ConsultaCursor cursor = ConsultaCursor.of(ConsultaFactoryBot.build());
+        Consulta ultima = ConsultaFactoryBot.build();
+        when(consultaOutputPort.findPage(cursor, 3)).thenReturn(List.of(ultima));
+
+        ConsultaPage page = consultaUseCase.getConsultas(cursor, 2);
+
+        assertEquals(List.of(ultima), page.consultas());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando o tamanho da página for inválido")
+    void getConsultasPage_InvalidSize() {
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.getConsultas(null, 0));
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.getConsultas(null, ConsultaUseCase.MAX_PAGE_SIZE + 1));
+        verify(consultaOutputPort, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve buscar consultas filtradas, ignorando filtros em branco, e paginar pelo cursor")
+    void searchConsultas_WithNextPage() {
+        LocalDateTime inicio = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ConsultaFilter filter = new ConsultaFilter(" ", "11999999999", "", StatusConsulta.AGENDADA, inicio, inicio.plusMonths(1));
+        ConsultaFilter esperado = new ConsultaFilter(null, "11999999999", null, StatusConsulta.AGENDADA, inicio, inicio.plusMonths(1));
+        Consulta primeira = ConsultaFactoryBot.build();
+        Consulta excedente = ConsultaFactoryBot.build();
+        when(consultaOutputPort.search(esperado, null, 2)).thenReturn(List.of(primeira, excedente));
+
+        ConsultaPage page = consultaUseCase.searchConsultas(filter, null, 1);
+
+        assertEquals(List.of(primeira), page.consultas());
+        assertEquals(ConsultaCursor.of(primeira), page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve buscar consultas pelo nome do paciente sem espaços nas pontas")
+    void searchByPatientName_Success() {
+        List<Consulta> encontradas = List.of(ConsultaFactoryBot.build());
+        when(consultaOutputPort.searchByPatientName("Jon Do", 20)).thenReturn(encontradas);
+
+        List<Consulta> result = consultaUseCase.searchByPatientName("  Jon Do ", 20);
+
+        assertEquals(encontradas, result);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar paciente com termo curto demais ou limite inválido")
+    void searchByPatientName_InvalidArguments() {
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.searchByPatientName("Jo", 20));
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.searchByPatientName(null, 20));
+        assertThrows(BusinessRuleValidationException.class,
+                () -> consultaUseCase.searchByPatientName("John", ConsultaUseCase.MAX_PATIENT_SEARCH_RESULTS + 1));
+        verify(consultaOutputPort, never()).searchByPatientName(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao buscar consultas com intervalo de datas invertido")
+    void searchConsultas_InvalidRange() {
+        LocalDateTime inicio = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ConsultaFilter filter = new ConsultaFilter(null, null, null, null, inicio, inicio.minusDays(1));
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaUseCase.searchConsultas(filter, null, 20));
+        verify(consultaOutputPort, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve delegar a exportação das consultas para o repositório")
+    void exportConsultas_Success() {
+        Consumer<Consulta> action = consulta -> { };
+
+        consultaUseCase.exportConsultas(action);
+
+        verify(consultaOutputPort, times(1)).streamAll(action);
+    }
+
     @Test
     @DisplayName("Deve retornar consultas futuras e não canceladas")
     void getUpcomingConsultas_Success() {
         Consulta agendada = ConsultaFactoryBot.build();
         agendada.setStatus(StatusConsulta.AGENDADA);
-        when(consultaOutputPort.findUpcomingConsultas(any(LocalDateTime.class))).thenReturn(List.of(agendada));
+        when(consultaOutputPort.findUpcomingConsultasAgendadas(any(LocalDateTime.class))).thenReturn(List.of(agendada));
 
         List<Consulta> result = consultaUseCase.getUpcomingConsultas();
 
@@ -132,13 +300,46 @@ class ConsultaUseCaseTest {
     @Test
     @DisplayName("Deve retornar lista vazia quando não houver consultas futuras")
     void getUpcomingConsultas_Empty() {
-        when(consultaOutputPort.findUpcomingConsultas(any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+        when(consultaOutputPort.findUpcomingConsultasAgendadas(any(LocalDateTime.class))).thenReturn(Collections.emptyList());
 
         List<Consulta> result = consultaUseCase.getUpcomingConsultas();
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    @DisplayName("Deve buscar horários livres do médico com uma única consulta de horários ocupados")
+    void findAvailableSlots_Success() {
+        LocalDateTime segunda = LocalDateTime.now().plusYears(1).with(DayOfWeek.MONDAY).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        when(consultaOutputPort.findBookedSlots(eq("Dr. House"), isNull(), eq(segunda), eq(segunda.plusDays(1))))
+                .thenReturn(Map.of("Dr. House", List.of(segunda)));
+
+        List<AvailableSlot> result = consultaUseCase.findAvailableSlots("Dr. House", "Cardiologia", segunda, segunda.plusDays(1), 1);
+
+        assertEquals(List.of(new AvailableSlot("Dr. House", segunda.plusMinutes(30))), result);
+        verify(consultaOutputPort, times(1)).findBookedSlots(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar ao buscar horários livres sem médico nem especialidade")
+    void findAvailableSlots_Fails_WithoutDoctorOrSpeciality() {
+        BusinessRuleValidationException exception = assertThrows(BusinessRuleValidationException.class,
+                () -> consultaUseCase.findAvailableSlots(" ", null, null, null, 10));
+
+        assertEquals("Informe o nome do médico ou a especialidade.", exception.getMessage());
+        verifyNoInteractions(consultaOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve falhar ao buscar horários livres em intervalo maior que o permitido")
+    void findAvailableSlots_Fails_WhenRangeIsTooLong() {
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1);
+
+        assertThrows(BusinessRuleValidationException.class,
+                () -> consultaUseCase.findAvailableSlots(null, "Cardiologia", inicio, inicio.plusDays(ConsultaUseCase.MAX_SLOT_SEARCH_DAYS + 1), 10));
+        verifyNoInteractions(consultaOutputPort);
+    }
+
     @Test
     @DisplayName("Deve retornar detalhes de uma consulta específica")
     void getConsultaDetails_Success() {
@@ -290,7 +491,7 @@ class ConsultaUseCaseTest {
         Consulta consulta = ConsultaFactoryBot.build();
 
         doThrow(new BusinessRuleValidationException("Regra de negócio violada"))
-                .when(validator).validateCreate(secretariaId, consulta);
+                .when(validator).validateBooking(consulta);
 
         assertThrows(BusinessRuleValidationException.class,
                 () -> consultaUseCase.createConsulta(secretariaId, consulta));
@@ -324,21 +525,12 @@ class ConsultaUseCaseTest {
     }
 
     @Test
-    @DisplayName("getUpcomingConsultas: Não deve retornar consultas canceladas")
+    @DisplayName("getUpcomingConsultas: Deve delegar o filtro de canceladas ao banco")
     void getUpcomingConsultas_ShouldNotReturnCanceled() {
-        Consulta agendada = ConsultaFactoryBot.build();
-        agendada.setStatus(StatusConsulta.AGENDADA);
-
-        Consulta cancelada = ConsultaFactoryBot.build();
-        cancelada.setStatus(StatusConsulta.CANCELADA);
+        consultaUseCase.getUpcomingConsultas();
 
-        when(consultaOutputPort.findUpcomingConsultas(any(LocalDateTime.class)))
-                .thenReturn(List.of(agendada, cancelada));
-
-        List<Consulta> result = consultaUseCase.getUpcomingConsultas();
-
-        assertEquals(1, result.size());
-        assertEquals(StatusConsulta.AGENDADA, result.get(0).getStatus());
+        verify(consultaOutputPort, times(1)).findUpcomingConsultasAgendadas(any(LocalDateTime.class));
+        verify(consultaOutputPort, never()).findUpcomingConsultas(any());
     }
     @Test
     @DisplayName("Deve criar uma consulta de retorno com sucesso")
@@ -366,6 +558,53 @@ class ConsultaUseCaseTest {
         assertEquals(StatusConsulta.AGENDADA, consultaPassadaParaSalvar.getStatus());
         assertTrue(consultaPassadaParaSalvar.getDescription().startsWith("Consulta de Retorno"));
         assertTrue(consultaPassadaParaSalvar.getDescription().contains(originalConsulta.getDescription()));
+        LocalDateTime horario = consultaPassadaParaSalvar.getConsultationDateTime();
+        assertFalse(horario.isBefore(LocalDateTime.now().plusDays(ConsultaUseCase.FOLLOW_UP_DAYS).withHour(10).withMinute(0).withSecond(0).withNano(0)));
+        assertTrue(horario.getDayOfWeek() != DayOfWeek.SATURDAY && horario.getDayOfWeek() != DayOfWeek.SUNDAY);
+        verify(consultaOutputPort, times(1)).findBookedSlots(eq(originalConsulta.getDoctorName()), isNull(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o retorno no próximo horário livre quando o horário previsto estiver ocupado")
+    void createFollowUpConsulta_SkipsBookedSlots() {
+        UUID secretariaId = UUID.randomUUID();
+        UUID originalConsultaId = UUID.randomUUID();
+        Consulta originalConsulta = ConsultaFactoryBot.build();
+        LocalDateTime alvo = LocalDateTime.now().plusDays(ConsultaUseCase.FOLLOW_UP_DAYS).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime primeiroDiaUtil = alvo;
+        while (primeiroDiaUtil.getDayOfWeek() == DayOfWeek.SATURDAY || primeiroDiaUtil.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            primeiroDiaUtil = primeiroDiaUtil.plusDays(1).withHour(8);
+        }
+
+        when(consultaOutputPort.findById(originalConsultaId)).thenReturn(Optional.of(originalConsulta));
+        when(consultaOutputPort.findBookedSlots(eq(originalConsulta.getDoctorName()), isNull(), eq(alvo), any()))
+                .thenReturn(Map.of(originalConsulta.getDoctorName(), List.of(primeiroDiaUtil)));
+        doAnswer(invocation -> invocation.getArgument(1)).when(consultaUseCase).createConsulta(eq(secretariaId), any(Consulta.class));
+
+        Consulta result = consultaUseCase.createFollowUpConsulta(secretariaId, originalConsultaId);
+
+        assertEquals(primeiroDiaUtil.plusMinutes(30), result.getConsultationDateTime());
+    }
+
+    @Test
+    @DisplayName("Deve falhar ao criar retorno quando o médico não tiver horário livre no período de busca")
+    void createFollowUpConsulta_Fails_WhenNoSlotIsFree() {
+        UUID secretariaId = UUID.randomUUID();
+        UUID originalConsultaId = UUID.randomUUID();
+        Consulta originalConsulta = ConsultaFactoryBot.build();
+        LocalDateTime alvo = LocalDateTime.now().plusDays(ConsultaUseCase.FOLLOW_UP_DAYS).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        List<LocalDateTime> agendaCheia = new ArrayList<>();
+        for (LocalDateTime horario = alvo.withHour(8); horario.isBefore(alvo.plusDays(ConsultaUseCase.MAX_SLOT_SEARCH_DAYS)); horario = horario.plusMinutes(30)) {
+            agendaCheia.add(horario);
+        }
+
+        when(consultaOutputPort.findById(originalConsultaId)).thenReturn(Optional.of(originalConsulta));
+        when(consultaOutputPort.findBookedSlots(eq(originalConsulta.getDoctorName()), isNull(), any(), any()))
+                .thenReturn(Map.of(originalConsulta.getDoctorName(), agendaCheia));
+
+        assertThrows(BusinessRuleValidationException.class,
+                () -> consultaUseCase.createFollowUpConsulta(secretariaId, originalConsultaId));
+        verify(consultaUseCase, never()).createConsulta(any(), any());
     }
 
     @Test
@@ -383,4 +622,93 @@ class ConsultaUseCaseTest {
         assertEquals("Consulta original não encontrada", exception.getMessage());
         verify(consultaUseCase, never()).createConsulta(any(), any());
     }
+
+    @Test
+    @DisplayName("Deve serializar remarcações concorrentes para o mesmo médico no mesmo dia")
+    void updateConsulta_shouldSerializeSameDoctorAndDay() throws InterruptedException {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximoSimultaneo = new AtomicInteger();
+        when(consultaOutputPort.findById(any(UUID.class))).thenAnswer(invocation -> {
+            Consulta consulta = ConsultaFactoryBot.build();
+            consulta.setId(invocation.getArgument(0));
+            return Optional.of(consulta);
+        });
+        when(consultaOutputPort.save(any(Consulta.class))).thenAnswer(invocation -> {
+            maximoSimultaneo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            emAndamento.decrementAndGet();
+            return invocation.getArgument(0);
+        });
+        LocalDateTime destino = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ConsultaUpdate request = new ConsultaUpdate("Dr. House", "John Doe", "123", destino.plusMinutes(30L * i));
+            threads.add(Thread.ofVirtual().start(() -> consultaUseCase.updateConsulta(UUID.randomUUID(), UUID.randomUUID(), request)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(consultaOutputPort, times(8)).save(any(Consulta.class));
+        assertEquals(1, maximoSimultaneo.get());
+        assertTrue(consultaUseCase.doctorLockStats().contended() > 0);
+    }
+
+    @Test
+    @DisplayName("Deve manter os campos ausentes do request ao atualizar")
+    void updateConsulta_shouldKeepFieldsMissingFromRequest() {
+        UUID consultaId = UUID.randomUUID();
+        Consulta existingConsulta = ConsultaFactoryBot.build();
+        String medico = existingConsulta.getDoctorName();
+        String paciente = existingConsulta.getPatientName();
+        String numero = existingConsulta.getPatientNumber();
+        LocalDateTime novoHorario = existingConsulta.getConsultationDateTime().plusHours(1);
+        when(consultaOutputPort.findById(consultaId)).thenReturn(Optional.of(existingConsulta));
+        when(consultaOutputPort.save(any(Consulta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Consulta atualizada = consultaUseCase.updateConsulta(UUID.randomUUID(), consultaId,
+                new ConsultaUpdate(null, null, null, novoHorario));
+
+        assertEquals(medico, atualizada.getDoctorName());
+        assertEquals(paciente, atualizada.getPatientName());
+        assertEquals(numero, atualizada.getPatientNumber());
+        assertEquals(novoHorario, atualizada.getConsultationDateTime());
+    }
+
+    @Test
+    @DisplayName("Deve travar a agenda do médico atual quando o request não informa o médico")
+    void updateConsulta_shouldLockCurrentDoctorWhenRequestOmitsIt() throws InterruptedException {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximoSimultaneo = new AtomicInteger();
+        AtomicInteger dias = new AtomicInteger();
+        String medico = ConsultaFactoryBot.build().getDoctorName();
+        // Cada consulta sai de um dia diferente: só a agenda de destino é comum a todas.
+        when(consultaOutputPort.findById(any(UUID.class))).thenAnswer(invocation -> {
+            Consulta consulta = ConsultaFactoryBot.build();
+            consulta.setId(invocation.getArgument(0));
+            consulta.setConsultationDateTime(LocalDateTime.now().plusDays(20 + dias.incrementAndGet()));
+            return Optional.of(consulta);
+        });
+        when(consultaOutputPort.save(any(Consulta.class))).thenAnswer(invocation -> {
+            maximoSimultaneo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            emAndamento.decrementAndGet();
+            return invocation.getArgument(0);
+        });
+        LocalDateTime destino = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        // Metade informa o médico e metade o omite: todas disputam a mesma agenda.
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ConsultaUpdate request = new ConsultaUpdate(i % 2 == 0 ? medico : null, null, null, destino.plusMinutes(30L * i));
+            threads.add(Thread.ofVirtual().start(() -> consultaUseCase.updateConsulta(UUID.randomUUID(), UUID.randomUUID(), request)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(consultaOutputPort, times(8)).save(any(Consulta.class));
+        assertEquals(1, maximoSimultaneo.get());
+    }
 }
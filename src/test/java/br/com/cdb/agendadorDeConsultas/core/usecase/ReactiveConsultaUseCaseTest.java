@@ -0,0 +1,100 @@
+package br.com.cdb.agendadorDeConsultas.core.usecase;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.Consulta;
+import br.com.cdb.agendadorDeConsultas.core.domain.model.ConsultaCursor;
+import br.com.cdb.agendadorDeConsultas.core.exception.BusinessRuleValidationException;
+import br.com.cdb.agendadorDeConsultas.factory.ConsultaFactoryBot;
+import br.com.cdb.agendadorDeConsultas.port.output.ReactiveConsultaOutputPort;
+import br.com.cdb.agendadorDeConsultas.util.validation.ConsultaValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveConsultaUseCaseTest {
+
+    @Mock
+    ReactiveConsultaOutputPort consultaOutputPort;
+
+    @Mock
+    ConsultaValidator validator;
+
+    @InjectMocks
+    ReactiveConsultaUseCase consultaUseCase;
+
+    @Test
+    @DisplayName("Deve agendar a consulta pelo port reativo com a secretária informada")
+    void createConsulta_shouldBookWithSecretaria() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consulta = ConsultaFactoryBot.build();
+        when(consultaOutputPort.book(consulta)).thenReturn(Mono.just(consulta));
+
+        StepVerifier.create(consultaUseCase.createConsulta(secretariaId, consulta))
+                .expectNext(consulta)
+                .verifyComplete();
+
+        verify(validator).validateBooking(consulta);
+        assertEquals(secretariaId, consulta.getSecretariaId());
+    }
+
+    @Test
+    @DisplayName("Deve entregar a falha de validação como erro do Mono, sem acessar o banco")
+    void createConsulta_shouldSignalValidationError() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        doThrow(new BusinessRuleValidationException("Data inválida")).when(validator).validateBooking(consulta);
+
+        Mono<Consulta> resultado = consultaUseCase.createConsulta(UUID.randomUUID(), consulta);
+
+        StepVerifier.create(resultado)
+                .expectErrorMatches(e -> e instanceof BusinessRuleValidationException && e.getMessage().equals("Data inválida"))
+                .verify();
+        verifyNoInteractions(consultaOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve montar a página com cursor quando o port devolver um registro excedente")
+    void getConsultas_shouldBuildPageWithCursor() {
+        Consulta primeira = ConsultaFactoryBot.build();
+        Consulta segunda = ConsultaFactoryBot.build();
+        Consulta excedente = ConsultaFactoryBot.build();
+        when(consultaOutputPort.findPage(null, 3)).thenReturn(Flux.just(primeira, segunda, excedente));
+
+        StepVerifier.create(consultaUseCase.getConsultas(null, 2))
+                .assertNext(page -> {
+                    assertEquals(2, page.consultas().size());
+                    assertEquals(ConsultaCursor.of(segunda), page.nextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tamanho de página inválido")
+    void getConsultas_shouldRejectInvalidSize() {
+        StepVerifier.create(consultaUseCase.getConsultas(null, 0))
+                .expectError(BusinessRuleValidationException.class)
+                .verify();
+        verifyNoInteractions(consultaOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar erro quando a consulta não existir")
+    void getConsultaDetails_shouldSignalErrorWhenMissing() {
+        UUID id = UUID.randomUUID();
+        when(consultaOutputPort.findById(id)).thenReturn(Mono.empty());
+
+        StepVerifier.create(consultaUseCase.getConsultaDetails(id))
+                .expectErrorMessage("Consulta not found")
+                .verify();
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.cdb.agendadorDeConsultas.infrastructure;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    @DisplayName("Deve repassar a requisição e devolver a permissão ao final")
+    void doFilter_shouldReleasePermitAfterRequest() throws ServletException, IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(2, Duration.ofMillis(50));
+        AtomicInteger permissoesDuranteRequisicao = new AtomicInteger(-1);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                permissoesDuranteRequisicao.set(filter.availablePermits());
+            }
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/consultas"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, permissoesDuranteRequisicao.get());
+        assertEquals(2, filter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Deve manter a permissão de uma requisição assíncrona até o processamento terminar")
+    void doFilter_shouldHoldPermitUntilAsyncCompletes() throws ServletException, IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(2, Duration.ofMillis(50));
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/consultas/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(1, filter.availablePermits());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(2, filter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 quando o limite de requisições simultâneas estiver esgotado")
+    void doFilter_shouldRejectWhenSaturated() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50));
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        MockFilterChain bloqueante = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                emAndamento.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Thread ocupante = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/consultas"), new MockHttpServletResponse(), bloqueante);
+            } catch (ServletException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        emAndamento.await();
+
+        MockHttpServletResponse rejeitada = new MockHttpServletResponse();
+        MockFilterChain naoChamada = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/consultas"), rejeitada, naoChamada);
+
+        assertEquals(503, rejeitada.getStatus());
+        assertEquals("1", rejeitada.getHeader("Retry-After"));
+        assertEquals(ConcurrencyLimitFilter.OVERLOADED_BODY, rejeitada.getContentAsString());
+        assertNull(naoChamada.getRequest());
+
+        liberar.countDown();
+        ocupante.join();
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Deve usar o tamanho do pool do Hikari como limite padrão")
+    void poolSize_shouldReadHikariMaximumPoolSize() {
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setMaximumPoolSize(7);
+
+            assertEquals(7, ConcurrencyLimitFilter.poolSize(hikari));
+        }
+        assertEquals(ConcurrencyLimitFilter.DEFAULT_LIMIT, ConcurrencyLimitFilter.poolSize(new DriverManagerDataSource()));
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
 
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +39,11 @@ class GlobalExceptionHandlerTest {
         public void throwEntityNotFoundException() {
             throw new EntityNotFoundException("Mensagem de teste de entidade não encontrada");
         }
+
+        @GetMapping("/test/entity-not-found-traduzida")
+        public void throwTranslatedEntityNotFoundException() {
+            throw new JpaObjectRetrievalFailureException(new EntityNotFoundException("Mensagem de teste de entidade não encontrada"));
+        }
     }
 
     @Test
@@ -63,4 +69,15 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.error").value("Recurso Não Encontrado"))
                 .andExpect(jsonPath("$.message").value("Mensagem de teste de entidade não encontrada"));
     }
+
+    @Test
+    @DisplayName("Deve capturar EntityNotFoundException traduzida por um @Repository e retornar 404 Not Found")
+    void handleTranslatedEntityNotFoundException() throws Exception {
+        mockMvc.perform(get("/test/entity-not-found-traduzida")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value("Recurso Não Encontrado"))
+                .andExpect(jsonPath("$.message").value("Mensagem de teste de entidade não encontrada"));
+    }
 }
@@ -0,0 +1,229 @@
+package br.com.cdb.agendadorDeConsultas.infrastructure;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.IdempotencyRecord;
+import br.com.cdb.agendadorDeConsultas.port.output.IdempotencyOutputPort;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String PATH = "/consultas/" + UUID.randomUUID();
+    private static final String BODY = "{\"doctorName\":\"Dr. House\"}";
+    private static final String RESPONSE = "{\"id\":\"" + UUID.randomUUID() + "\"}";
+
+    private final IdempotencyOutputPort idempotencyOutputPort = mock(IdempotencyOutputPort.class);
+    private final IdempotencyFilter filter = new IdempotencyFilter(idempotencyOutputPort,
+            Caffeine.newBuilder().maximumSize(100).build(), Duration.ofMinutes(1), 1024);
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    @Test
+    @DisplayName("Deve executar a primeira requisição, guardar a resposta e repeti-la da memória")
+    void doFilter_shouldStoreAndReplayFromMemory() throws Exception {
+        when(idempotencyOutputPort.tryReserve(eq("chave-1"), anyString(), any())).thenReturn(true);
+
+        MockHttpServletResponse primeira = executar(requisicao("chave-1", BODY), 201);
+        MockHttpServletResponse repetida = executar(requisicao("chave-1", BODY), 201);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(201, primeira.getStatus());
+        assertEquals(RESPONSE, primeira.getContentAsString());
+        assertNull(primeira.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, repetida.getStatus());
+        assertEquals(RESPONSE, repetida.getContentAsString());
+        assertEquals("true", repetida.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(idempotencyOutputPort).complete(eq("chave-1"), eq(201), eq("application/json"), eq(RESPONSE));
+        verify(idempotencyOutputPort, times(1)).tryReserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta guardada no banco quando outro nó já concluiu a requisição")
+    void doFilter_shouldReplayFromDatabase() throws Exception {
+        MockHttpServletRequest request = requisicao("chave-2", BODY);
+        String fingerprint = IdempotencyFilter.fingerprint(request, BODY.getBytes(StandardCharsets.UTF_8));
+        when(idempotencyOutputPort.tryReserve(eq("chave-2"), eq(fingerprint), any())).thenReturn(false);
+        when(idempotencyOutputPort.find("chave-2"))
+                .thenReturn(Optional.of(new IdempotencyRecord(fingerprint, 201, "application/json", RESPONSE)));
+
+        MockHttpServletResponse response = executar(request, 201);
+
+        assertEquals(0, execucoes.get());
+        assertEquals(201, response.getStatus());
+        assertEquals(RESPONSE, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 enquanto a primeira requisição com a mesma chave estiver em andamento")
+    void doFilter_shouldRejectWhileInProgress() throws Exception {
+        when(idempotencyOutputPort.tryReserve(eq("chave-3"), anyString(), any())).thenReturn(false);
+        when(idempotencyOutputPort.find("chave-3")).thenReturn(Optional.of(new IdempotencyRecord("x", null, null, null)));
+
+        MockHttpServletResponse response = executar(requisicao("chave-3", BODY), 201);
+
+        assertEquals(0, execucoes.get());
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(IdempotencyFilter.IN_PROGRESS_BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Deve responder 422 quando a chave for reutilizada com outro corpo")
+    void doFilter_shouldRejectKeyReusedWithAnotherBody() throws Exception {
+        when(idempotencyOutputPort.tryReserve(eq("chave-4"), anyString(), any())).thenReturn(true);
+        executar(requisicao("chave-4", BODY), 201);
+
+        MockHttpServletResponse response = executar(requisicao("chave-4", "{\"doctorName\":\"Dra. Grey\"}"), 201);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(422, response.getStatus());
+        assertEquals(IdempotencyFilter.KEY_REUSED_BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a chave sem guardar a resposta quando a requisição falhar com 5xx")
+    void doFilter_shouldReleaseKeyOnServerError() throws Exception {
+        when(idempotencyOutputPort.tryReserve(eq("chave-5"), anyString(), any())).thenReturn(true);
+
+        MockHttpServletResponse response = executar(requisicao("chave-5", BODY), 500);
+
+        assertEquals(500, response.getStatus());
+        verify(idempotencyOutputPort).release("chave-5");
+        verify(idempotencyOutputPort, never()).complete(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar requisições sem a chave ou fora dos endpoints de agendamento")
+    void shouldNotFilter_shouldOnlyMatchBookingPosts() {
+        String retorno = "/consultas/" + UUID.randomUUID() + "/" + UUID.randomUUID() + "/retorno";
+
+        assertFalse(filter.shouldNotFilter(requisicao("chave", BODY)));
+        assertFalse(filter.shouldNotFilter(requisicao("POST", retorno, "chave")));
+        assertTrue(filter.shouldNotFilter(requisicao("POST", PATH, null)));
+        assertTrue(filter.shouldNotFilter(requisicao("PUT", PATH, "chave")));
+        assertTrue(filter.shouldNotFilter(requisicao("POST", PATH + "/batch", "chave")));
+        assertTrue(filter.shouldNotFilter(requisicao("POST", "/consultas/async/" + UUID.randomUUID(), "chave")));
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 para uma chave em branco")
+    void doFilter_shouldRejectBlankKey() throws Exception {
+        MockHttpServletResponse response = executar(requisicao(" ", BODY), 201);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(IdempotencyFilter.INVALID_KEY_BODY, response.getContentAsString());
+        verifyNoInteractions(idempotencyOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve responder 413 sem reservar a chave quando o corpo passar do limite")
+    void doFilter_shouldRejectOversizedBody() throws Exception {
+        MockHttpServletRequest comContentLength = requisicao("chave-6", "x".repeat(1025));
+        MockHttpServletRequest semContentLength = new MockHttpServletRequest("POST", PATH) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        semContentLength.addHeader(IdempotencyFilter.HEADER, "chave-7");
+        semContentLength.setContent("x".repeat(1025).getBytes(StandardCharsets.UTF_8));
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{comContentLength, semContentLength}) {
+            MockHttpServletResponse response = executar(request, 201);
+
+            assertEquals(413, response.getStatus());
+            assertEquals(IdempotencyFilter.BODY_TOO_LARGE_BODY, response.getContentAsString());
+        }
+        assertEquals(0, execucoes.get());
+        verifyNoInteractions(idempotencyOutputPort);
+    }
+
+    @Test
+    @DisplayName("Deve entregar o corpo guardado a quem lê de forma não bloqueante")
+    void doFilter_shouldNotifyReadListenerWithCachedBody() throws Exception {
+        when(idempotencyOutputPort.tryReserve(eq("chave-8"), anyString(), any())).thenReturn(true);
+        ByteArrayOutputStream lido = new ByteArrayOutputStream();
+        AtomicBoolean terminou = new AtomicBoolean();
+
+        filter.doFilter(requisicao("chave-8", BODY), new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        while (in.isReady() && !in.isFinished()) {
+                            lido.write(in.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        terminou.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fail(t);
+                    }
+                });
+                resp.setStatus(201);
+            }
+        }));
+
+        assertEquals(BODY, lido.toString(StandardCharsets.UTF_8));
+        assertTrue(terminou.get());
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest request, int status) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                execucoes.incrementAndGet();
+                assertEquals(BODY, new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                resp.setStatus(status);
+                resp.setContentType("application/json");
+                resp.getWriter().write(RESPONSE);
+            }
+        }));
+        return response;
+    }
+
+    private MockHttpServletRequest requisicao(String chave, String body) {
+        MockHttpServletRequest request = requisicao("POST", PATH, chave);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletRequest requisicao(String method, String path, String chave) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (chave != null) {
+            request.addHeader(IdempotencyFilter.HEADER, chave);
+        }
+        return request;
+    }
+}
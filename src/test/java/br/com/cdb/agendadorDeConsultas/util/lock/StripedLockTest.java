@@ -0,0 +1,105 @@
+package br.com.cdb.agendadorDeConsultas.util.lock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockTest {
+
+    @Test
+    @DisplayName("Deve arredondar a quantidade de stripes para uma potência de dois")
+    void constructor_shouldRoundStripesUp() {
+        assertEquals(1, new StripedLock(1).stripeCount());
+        assertEquals(64, new StripedLock(50).stripeCount());
+        assertEquals(256, new StripedLock(256).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+    }
+
+    @Test
+    @DisplayName("Deve serializar a mesma chave e registrar a espera")
+    void withLock_shouldSerializeSameKeyAndRecordWait() throws InterruptedException {
+        StripedLock locks = new StripedLock(16);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicBoolean sobreposicao = new AtomicBoolean();
+        AtomicBoolean ocupado = new AtomicBoolean();
+
+        Thread primeira = Thread.ofVirtual().start(() -> locks.withLock("Dr. House|2030-01-07", () -> {
+            ocupado.set(true);
+            dentro.countDown();
+            aguardar(liberar);
+            ocupado.set(false);
+            return null;
+        }));
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        Thread segunda = Thread.ofVirtual().start(() -> locks.withLock("Dr. House|2030-01-07", () -> {
+            sobreposicao.set(ocupado.get());
+            return null;
+        }));
+        while (segunda.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        liberar.countDown();
+        primeira.join();
+        segunda.join();
+
+        StripedLock.Stats stats = locks.stats();
+        assertFalse(sobreposicao.get());
+        assertEquals(2, stats.acquisitions());
+        assertEquals(1, stats.contended());
+        assertTrue(stats.maxWait().compareTo(Duration.ZERO) > 0);
+        assertEquals(stats.maxWait(), stats.totalWait());
+    }
+
+    @Test
+    @DisplayName("Deve travar várias chaves em ordem fixa, sem deadlock entre chamadas cruzadas")
+    void withLocks_shouldNotDeadlockOnCrossedKeys() throws InterruptedException {
+        StripedLock locks = new StripedLock(64);
+        String a = "Dr. House|2030-01-07";
+        String b = "Dra. Grey|2030-01-08";
+        int repeticoes = 2_000;
+
+        Thread ab = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < repeticoes; i++) {
+                locks.withLocks(new Object[]{a, b}, () -> null);
+            }
+        });
+        Thread ba = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < repeticoes; i++) {
+                locks.withLocks(new Object[]{b, a}, () -> null);
+            }
+        });
+
+        assertTrue(ab.join(Duration.ofSeconds(10)));
+        assertTrue(ba.join(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    @DisplayName("Deve liberar o lock quando a ação lançar exceção")
+    void withLock_shouldReleaseOnException() throws InterruptedException {
+        StripedLock locks = new StripedLock(4);
+
+        assertThrows(IllegalStateException.class, () -> locks.withLock("chave", () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        Thread outra = Thread.ofVirtual().start(() -> locks.withLock("chave", () -> null));
+        assertTrue(outra.join(Duration.ofSeconds(5)));
+        assertEquals(0, locks.stats().contended());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.cdb.agendadorDeConsultas.util.schedule;
+
+import br.com.cdb.agendadorDeConsultas.core.domain.model.AvailableSlot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailableSlotFinderTest {
+
+    // 07/01/2030 é uma segunda-feira.
+    private static final LocalDateTime SEGUNDA_08H = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    private final AvailableSlotFinder finder = new AvailableSlotFinder();
+
+    @Test
+    @DisplayName("Deve pular os horários ocupados e retornar os próximos livres em ordem")
+    void find_shouldSkipBookedSlots() {
+        Map<String, List<LocalDateTime>> ocupados = Map.of("Dr. House", List.of(SEGUNDA_08H, SEGUNDA_08H.plusMinutes(30)));
+
+        List<AvailableSlot> slots = finder.find(ocupados, SEGUNDA_08H, SEGUNDA_08H.plusDays(1), 2);
+
+        assertEquals(List.of(
+                new AvailableSlot("Dr. House", SEGUNDA_08H.plusHours(1)),
+                new AvailableSlot("Dr. House", SEGUNDA_08H.plusMinutes(90))), slots);
+    }
+
+    @Test
+    @DisplayName("Deve considerar ocupado só o horário em que a consulta começa, como o índice único")
+    void find_shouldTreatOnlyExactStartAsTaken() {
+        Map<String, List<LocalDateTime>> ocupados = Map.of("Dr. House", List.of(SEGUNDA_08H.plusMinutes(10)));
+
+        List<AvailableSlot> slots = finder.find(ocupados, SEGUNDA_08H, SEGUNDA_08H.plusDays(1), 1);
+
+        assertEquals(SEGUNDA_08H, slots.get(0).consultationDateTime());
+    }
+
+    @Test
+    @DisplayName("Deve pular o fim do expediente e o fim de semana")
+    void find_shouldSkipAfterHoursAndWeekends() {
+        LocalDateTime sextaAs17h45 = LocalDateTime.of(2030, 1, 11, 17, 45);
+
+        List<AvailableSlot> slots = finder.find(Map.of("Dr. House", List.of()), sextaAs17h45, sextaAs17h45.plusDays(5), 1);
+
+        assertEquals(LocalDateTime.of(2030, 1, 14, 8, 0), slots.get(0).consultationDateTime());
+    }
+
+    @Test
+    @DisplayName("Deve intercalar os médicos da especialidade no mesmo horário")
+    void find_shouldListEveryDoctorForTheSameSlot() {
+        Map<String, List<LocalDateTime>> ocupados = Map.of(
+                "Dr. House", List.of(SEGUNDA_08H),
+                "Dra. Cuddy", List.of());
+
+        List<AvailableSlot> slots = finder.find(ocupados, SEGUNDA_08H, SEGUNDA_08H.plusDays(1), 3);
+
+        assertEquals(List.of(
+                new AvailableSlot("Dra. Cuddy", SEGUNDA_08H),
+                new AvailableSlot("Dr. House", SEGUNDA_08H.plusMinutes(30)),
+                new AvailableSlot("Dra. Cuddy", SEGUNDA_08H.plusMinutes(30))), slots);
+    }
+
+    @Test
+    @DisplayName("Deve retornar lista vazia quando o intervalo não tiver horários livres")
+    void find_shouldReturnEmptyWhenRangeHasNoBusinessHours() {
+        LocalDateTime sabado = LocalDateTime.of(2030, 1, 12, 9, 0);
+
+        List<AvailableSlot> slots = finder.find(Map.of("Dr. House", List.of()), sabado, sabado.plusDays(1), 5);
+
+        assertTrue(slots.isEmpty());
+    }
+}
@@ -19,8 +19,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,12 +59,46 @@ class ConsultaValidatorTest {
         consulta.setConsultationDateTime(getNextValidDateTime());
 
         when(secretariaOutputPort.findById(any(UUID.class))).thenReturn(new Secretaria());
-        when(consultaOutputPort.findByDoctorNameAndDateTime(anyString(), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> consultaValidator.validateCreate(secretariaId, consulta));
 
         verify(secretariaOutputPort, times(1)).findById(secretariaId);
-        verify(consultaOutputPort, times(1)).findByDoctorNameAndDateTime(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("validateBooking: Deve validar apenas as regras locais, sem acessar o banco")
+    void validateBooking_DoesNotQueryPorts() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setConsultationDateTime(getNextValidDateTime());
+
+        assertDoesNotThrow(() -> consultaValidator.validateBooking(consulta));
+
+        verifyNoInteractions(consultaOutputPort, secretariaOutputPort);
+    }
+
+    @Test
+    @DisplayName("validateBooking: Deve falhar se for fora do horário comercial")
+    void validateBooking_Fails_WhenOutsideBusinessHours() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setConsultationDateTime(getNextValidDateTime().withHour(19));
+
+        assertThrows(BusinessRuleValidationException.class, () -> consultaValidator.validateBooking(consulta));
+    }
+
+    @Test
+    @DisplayName("validateCreate: Deve falhar se o horário do médico já estiver ocupado na agenda")
+    void validateCreate_Fails_WhenDoctorSlotIsTaken() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setConsultationDateTime(getNextValidDateTime());
+
+        when(secretariaOutputPort.findById(any(UUID.class))).thenReturn(new Secretaria());
+        when(consultaOutputPort.isSlotTaken(consulta.getDoctorName(), consulta.getConsultationDateTime())).thenReturn(true);
+
+        BusinessRuleValidationException exception = assertThrows(BusinessRuleValidationException.class,
+                () -> consultaValidator.validateCreate(secretariaId, consulta));
+        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", exception.getMessage());
+        verify(consultaOutputPort, never()).findByDoctorNameAndDateTime(any(), any());
     }
 
     @Test
@@ -93,38 +129,48 @@ class ConsultaValidatorTest {
     }
     
     @Test
-    @DisplayName("validateCreate: Deve falhar se for em um fim de semana")
-    void validateCreate_Fails_OnWeekend() {
+    @DisplayName("validateCreate: Deve falhar se o horário estiver fora da grade de 30 minutos")
+    void validateCreate_Fails_WhenOffTheSlotGrid() {
         UUID secretariaId = UUID.randomUUID();
         Consulta consulta = ConsultaFactoryBot.build();
-        LocalDateTime nextSaturday = LocalDateTime.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY)).withHour(10);
-        consulta.setConsultationDateTime(nextSaturday);
+        consulta.setConsultationDateTime(getNextValidDateTime().withMinute(10));
 
-        var exception = assertThrows(BusinessRuleValidationException.class, 
+        var exception = assertThrows(BusinessRuleValidationException.class,
                 () -> consultaValidator.validateCreate(secretariaId, consulta));
 
-        assertEquals("Consultas não podem ser agendadas nos fins de semana.", exception.getMessage());
+        assertEquals("Consultas devem começar em horários de 30 em 30 minutos (ex.: 08:00, 08:30).", exception.getMessage());
+        verifyNoInteractions(consultaOutputPort);
     }
 
     @Test
-    @DisplayName("validateCreate: Deve falhar se médico já tiver consulta no horário")
-    void validateCreate_Fails_WhenDoctorHasConflict() {
+    @DisplayName("validateUpdate: Deve falhar se o novo horário estiver fora da grade de 30 minutos")
+    void validateUpdate_Fails_WhenNewTimeIsOffTheSlotGrid() {
         UUID secretariaId = UUID.randomUUID();
-        Consulta consultaParaAgendar = ConsultaFactoryBot.build();
-        consultaParaAgendar.setConsultationDateTime(getNextValidDateTime());
-
-        when(secretariaOutputPort.findById(any(UUID.class))).thenReturn(new Secretaria());
-
         Consulta consultaExistente = ConsultaFactoryBot.build();
-        when(consultaOutputPort.findByDoctorNameAndDateTime(consultaParaAgendar.getDoctorName(), consultaParaAgendar.getConsultationDateTime()))
-                .thenReturn(List.of(consultaExistente));
+        consultaExistente.setSecretariaId(secretariaId);
+        ConsultaUpdate request = new ConsultaUpdate(null, null, null, getNextValidDateTime().withSecond(30));
 
         var exception = assertThrows(BusinessRuleValidationException.class,
-                () -> consultaValidator.validateCreate(secretariaId, consultaParaAgendar));
+                () -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
 
-        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", exception.getMessage());
+        assertEquals("Consultas devem começar em horários de 30 em 30 minutos (ex.: 08:00, 08:30).", exception.getMessage());
+        verifyNoInteractions(consultaOutputPort);
     }
-    
+
+    @Test
+    @DisplayName("validateCreate: Deve falhar se for em um fim de semana")
+    void validateCreate_Fails_OnWeekend() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consulta = ConsultaFactoryBot.build();
+        LocalDateTime nextSaturday = LocalDateTime.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY)).withHour(10);
+        consulta.setConsultationDateTime(nextSaturday);
+
+        var exception = assertThrows(BusinessRuleValidationException.class, 
+                () -> consultaValidator.validateCreate(secretariaId, consulta));
+
+        assertEquals("Consultas não podem ser agendadas nos fins de semana.", exception.getMessage());
+    }
+
     @Test
     @DisplayName("validateCreate: Deve falhar se a secretária não for encontrada")
     void validateCreate_Fails_WhenSecretariaNotFound() {
@@ -149,12 +195,73 @@ class ConsultaValidatorTest {
         ConsultaUpdate request = new ConsultaUpdate("Novo Doutor", "Novo Paciente", "12345", getNextValidDateTime());
 
         when(secretariaOutputPort.findById(any(UUID.class))).thenReturn(new Secretaria());
-        when(consultaOutputPort.findByDoctorNameAndDateTime(eq(request.doctorName()), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
 
         verify(secretariaOutputPort, times(1)).findById(secretariaId);
+        verify(consultaOutputPort, times(1)).isSlotTaken("Novo Doutor", request.consultationDateTime());
+        verifyNoMoreInteractions(consultaOutputPort);
+    }
+
+    @Test
+    @DisplayName("validateUpdate: Deve falhar se o novo horário do médico já estiver ocupado")
+    void validateUpdate_Fails_WhenNewSlotIsTaken() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consultaExistente = ConsultaFactoryBot.build();
+        consultaExistente.setSecretariaId(secretariaId);
+        ConsultaUpdate request = new ConsultaUpdate("Novo Doutor", "Novo Paciente", "12345", getNextValidDateTime());
+        when(consultaOutputPort.isSlotTaken("Novo Doutor", request.consultationDateTime())).thenReturn(true);
+
+        BusinessRuleValidationException exception = assertThrows(BusinessRuleValidationException.class,
+                () -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
+
+        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("validateUpdate: Não deve checar a agenda quando médico e horário não mudam")
+    void validateUpdate_ShouldSkipAvailability_WhenSlotIsUnchanged() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consultaExistente = ConsultaFactoryBot.build();
+        consultaExistente.setSecretariaId(secretariaId);
+        consultaExistente.setConsultationDateTime(getNextValidDateTime());
+        ConsultaUpdate request = new ConsultaUpdate(consultaExistente.getDoctorName(), "Novo Paciente", "12345",
+                consultaExistente.getConsultationDateTime());
+
+        assertDoesNotThrow(() -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
+
+        verifyNoInteractions(consultaOutputPort);
+    }
+
+    @Test
+    @DisplayName("validateUpdate: Deve checar o novo horário com o médico atual quando só o horário muda")
+    void validateUpdate_ShouldCheckAvailability_WhenOnlyTimeChanges() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consultaExistente = ConsultaFactoryBot.build();
+        consultaExistente.setSecretariaId(secretariaId);
+        consultaExistente.setConsultationDateTime(getNextValidDateTime());
+        LocalDateTime novoHorario = consultaExistente.getConsultationDateTime().plusHours(1);
+        when(consultaOutputPort.isSlotTaken(consultaExistente.getDoctorName(), novoHorario)).thenReturn(true);
+
+        var exception = assertThrows(BusinessRuleValidationException.class, () -> consultaValidator.validateUpdate(
+                secretariaId, consultaExistente, new ConsultaUpdate(null, null, null, novoHorario)));
+
+        assertEquals(ConsultaValidator.SLOT_CONFLICT_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("validateUpdate: Deve checar o horário atual com o novo médico quando só o médico muda")
+    void validateUpdate_ShouldCheckAvailability_WhenOnlyDoctorChanges() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta consultaExistente = ConsultaFactoryBot.build();
+        consultaExistente.setSecretariaId(secretariaId);
+        consultaExistente.setConsultationDateTime(getNextValidDateTime());
+        when(consultaOutputPort.isSlotTaken("Novo Doutor", consultaExistente.getConsultationDateTime())).thenReturn(true);
+
+        var exception = assertThrows(BusinessRuleValidationException.class, () -> consultaValidator.validateUpdate(
+                secretariaId, consultaExistente, new ConsultaUpdate("Novo Doutor", null, null, null)));
+
+        assertEquals(ConsultaValidator.SLOT_CONFLICT_MESSAGE, exception.getMessage());
     }
 
     @Test
@@ -250,24 +357,33 @@ class ConsultaValidatorTest {
     }
 
     @Test
-    @DisplayName("validateUpdate: Deve falhar se a atualização causar conflito de horário")
-    void validateUpdate_Fails_WhenDoctorHasConflict() {
-        UUID secretariaId = UUID.randomUUID();
-        Consulta consultaExistente = ConsultaFactoryBot.build();
-        consultaExistente.setSecretariaId(secretariaId);
-        consultaExistente.setConsultationDateTime(LocalDateTime.now().plusDays(2));
+    @DisplayName("validateCreate: Deve usar a ocupação já buscada, sem consultar secretária nem agenda")
+    void validateCreate_WithPrefetchedSlot_DoesNotLookUpAgain() {
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setConsultationDateTime(getNextValidDateTime());
+
+        assertDoesNotThrow(() -> consultaValidator.validateCreate(consulta, false));
+        var exception = assertThrows(BusinessRuleValidationException.class,
+                () -> consultaValidator.validateCreate(consulta, true));
 
-        LocalDateTime newDateTime = getNextValidDateTime();
-        ConsultaUpdate request = new ConsultaUpdate("Novo Doutor", null, null, newDateTime);
+        assertEquals(ConsultaValidator.SLOT_CONFLICT_MESSAGE, exception.getMessage());
+        verifyNoInteractions(consultaOutputPort, secretariaOutputPort);
+    }
 
-        Consulta outraConsulta = ConsultaFactoryBot.build(); // Outra consulta que causa o conflito
-        when(consultaOutputPort.findByDoctorNameAndDateTime(request.doctorName(), newDateTime))
-                .thenReturn(List.of(outraConsulta));
+    @Test
+    @DisplayName("validateCancelOrDelete: Deve conferir a permissão com a secretária já carregada, sem buscá-la de novo")
+    void validateCancelOrDelete_WithLoadedSecretaria_DoesNotLookUpAgain() {
+        Secretaria secretaria = new Secretaria();
+        secretaria.setId(UUID.randomUUID());
+        Consulta consulta = ConsultaFactoryBot.build();
+        consulta.setSecretariaId(UUID.randomUUID());
+        consulta.setConsultationDateTime(LocalDateTime.now().plusDays(1));
 
         var exception = assertThrows(BusinessRuleValidationException.class,
-                () -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
+                () -> consultaValidator.validateCancelOrDelete(secretaria, consulta));
 
-        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", exception.getMessage());
+        assertEquals("A secretária não tem permissão para alterar esta consulta.", exception.getMessage());
+        verifyNoInteractions(secretariaOutputPort);
     }
 
     @Test
@@ -392,4 +508,84 @@ class ConsultaValidatorTest {
 
         assertDoesNotThrow(() -> consultaValidator.validateUpdate(secretariaId, consultaExistente, request));
     }
+
+    @Test
+    @DisplayName("validateCreateBatch: Deve validar o lote com uma única busca de disponibilidade")
+    void validateCreateBatch_Success() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta primeira = ConsultaFactoryBot.build();
+        primeira.setConsultationDateTime(getNextValidDateTime());
+        Consulta segunda = ConsultaFactoryBot.build();
+        segunda.setConsultationDateTime(getNextValidDateTime().plusHours(1));
+
+        when(secretariaOutputPort.findById(secretariaId)).thenReturn(new Secretaria());
+        when(consultaOutputPort.findByDoctorSlots(anyList())).thenReturn(Collections.emptyList());
+
+        Map<Integer, String> errors = consultaValidator.validateCreateBatch(secretariaId, List.of(primeira, segunda));
+
+        assertTrue(errors.isEmpty());
+        verify(secretariaOutputPort, times(1)).findById(secretariaId);
+        verify(consultaOutputPort, times(1)).findByDoctorSlots(List.of(primeira, segunda));
+        verify(consultaOutputPort, never()).findByDoctorNameAndDateTime(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("validateCreateBatch: Deve rejeitar itens inválidos, horários ocupados e duplicados no lote")
+    void validateCreateBatch_RejectsInvalidItems() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta valida = ConsultaFactoryBot.build();
+        valida.setConsultationDateTime(getNextValidDateTime());
+        Consulta noPassado = ConsultaFactoryBot.build();
+        noPassado.setConsultationDateTime(LocalDateTime.now().minusDays(1));
+        Consulta duplicada = ConsultaFactoryBot.build();
+        duplicada.setConsultationDateTime(getNextValidDateTime());
+        Consulta ocupada = ConsultaFactoryBot.build();
+        ocupada.setConsultationDateTime(getNextValidDateTime().plusHours(2));
+        Consulta existente = ConsultaFactoryBot.build();
+        existente.setConsultationDateTime(ocupada.getConsultationDateTime());
+
+        when(secretariaOutputPort.findById(secretariaId)).thenReturn(new Secretaria());
+        when(consultaOutputPort.findByDoctorSlots(anyList())).thenReturn(List.of(existente));
+
+        Map<Integer, String> errors = consultaValidator.validateCreateBatch(secretariaId,
+                List.of(valida, noPassado, duplicada, ocupada));
+
+        assertEquals(3, errors.size());
+        assertFalse(errors.containsKey(0));
+        assertEquals("A data da consulta não pode ser no passado.", errors.get(1));
+        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", errors.get(2));
+        assertEquals("O médico já possui outra consulta agendada para este mesmo horário.", errors.get(3));
+        verify(consultaOutputPort, times(1)).findByDoctorSlots(List.of(valida, duplicada, ocupada));
+    }
+
+    @Test
+    @DisplayName("validateCreateBatch: Não deve consultar disponibilidade quando nenhum item é válido")
+    void validateCreateBatch_SkipsAvailabilityQuery_WhenNoCandidates() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta semData = ConsultaFactoryBot.build();
+        semData.setConsultationDateTime(null);
+
+        when(secretariaOutputPort.findById(secretariaId)).thenReturn(new Secretaria());
+
+        Map<Integer, String> errors = consultaValidator.validateCreateBatch(secretariaId, List.of(semData));
+
+        assertEquals("A data da consulta deve ser informada.", errors.get(0));
+        verify(consultaOutputPort, never()).findByDoctorSlots(any());
+    }
+
+    @Test
+    @DisplayName("validateCreateBatch: Deve rejeitar um item nulo sem derrubar o lote")
+    void validateCreateBatch_RejectsNullItem() {
+        UUID secretariaId = UUID.randomUUID();
+        Consulta valida = ConsultaFactoryBot.build();
+        valida.setConsultationDateTime(getNextValidDateTime());
+
+        when(secretariaOutputPort.findById(secretariaId)).thenReturn(new Secretaria());
+        when(consultaOutputPort.findByDoctorSlots(anyList())).thenReturn(List.of());
+
+        Map<Integer, String> errors = consultaValidator.validateCreateBatch(secretariaId, Arrays.asList(null, valida));
+
+        assertEquals(Map.of(0, "A consulta não pode ser nula."), errors);
+        verify(consultaOutputPort, times(1)).findByDoctorSlots(List.of(valida));
+    }
 }